@@ -77,6 +77,18 @@ public class AnalysisManager {
 
     private List<JMethod> methodScope;
 
+    /**
+     * Whether run consecutive method analyses method by method in one pass.
+     */
+    private boolean fuseMethodAnalyses;
+
+    /**
+     * Configs of consecutive method analyses that are waiting to be
+     * executed in one pass. Only used when {@link #fuseMethodAnalyses}
+     * is {@code true}.
+     */
+    private List<AnalysisConfig> pendingMethodAnalyses;
+
     public AnalysisManager(Plan plan) {
         this.plan = plan;
         this.keepAllResults = plan.keepResult().contains(Plan.KEEP_ALL);
@@ -98,18 +110,60 @@ public class AnalysisManager {
         }
         classScope = null;
         methodScope = null;
+        fuseMethodAnalyses = World.get().getOptions().isFuseMethodAnalyses();
+        pendingMethodAnalyses = new ArrayList<>();
         // execute analyses
         plan.analyses().forEach(config -> {
-            Analysis analysis = Timer.runAndCount(
-                    () -> runAnalysis(config), config.getId(), Level.INFO);
-            if (!keepAllResults) {
-                executedAnalyses.add(analysis);
-                clearUnusedResults(analysis);
+            if (fuseMethodAnalyses && isMethodAnalysis(config)) {
+                pendingMethodAnalyses.add(config);
+            } else {
+                runPendingMethodAnalyses();
+                executeAnalysis(config);
             }
         });
+        runPendingMethodAnalyses();
+    }
+
+    private void executeAnalysis(AnalysisConfig config) {
+        Analysis analysis = Timer.runAndCount(
+                () -> runAnalysis(config), config.getId(), Level.INFO);
+        onAnalysisFinish(analysis);
+    }
+
+    private void onAnalysisFinish(Analysis analysis) {
+        if (!keepAllResults) {
+            executedAnalyses.add(analysis);
+            clearUnusedResults(analysis);
+        }
     }
 
     private Analysis runAnalysis(AnalysisConfig config) {
+        Analysis analysis = createAnalysis(config);
+        // Run the analysis
+        if (analysis instanceof ProgramAnalysis<?> pa) {
+            runProgramAnalysis(pa);
+        } else if (analysis instanceof ClassAnalysis<?> ca) {
+            runClassAnalysis(ca);
+        } else if (analysis instanceof MethodAnalysis<?> ma) {
+            runMethodAnalysis(ma);
+        } else {
+            throw new ConfigException(config.getAnalysisClass() +
+                    " is not a supported analysis class");
+        }
+        return analysis;
+    }
+
+    private static boolean isMethodAnalysis(AnalysisConfig config) {
+        try {
+            return MethodAnalysis.class.isAssignableFrom(
+                    Class.forName(config.getAnalysisClass()));
+        } catch (ClassNotFoundException e) {
+            throw new AnalysisException("Analysis class " +
+                    config.getAnalysisClass() + " is not found", e);
+        }
+    }
+
+    private static Analysis createAnalysis(AnalysisConfig config) {
         Analysis analysis;
         // Create analysis instance
         try {
@@ -130,17 +184,6 @@ public class AnalysisManager {
             throw new ConfigException(
                     config.getAnalysisClass() + " is not an analysis class");
         }
-        // Run the analysis
-        if (analysis instanceof ProgramAnalysis<?> pa) {
-            runProgramAnalysis(pa);
-        } else if (analysis instanceof ClassAnalysis<?> ca) {
-            runClassAnalysis(ca);
-        } else if (analysis instanceof MethodAnalysis<?> ma) {
-            runMethodAnalysis(ma);
-        } else {
-            throw new ConfigException(config.getAnalysisClass() +
-                    " is not a supported analysis class");
-        }
         return analysis;
     }
 
@@ -197,6 +240,83 @@ public class AnalysisManager {
                         ir.storeResult(analysis.getId(), result);
                     }
                 });
+        analysis.onFinish();
+    }
+
+    /**
+     * Runs the pending chain of consecutive method analyses. If the chain
+     * contains more than one analysis, the whole chain is applied to each
+     * method in one pass, and the methods are processed in parallel
+     * (on the work-stealing common pool, like other method analyses).
+     */
+    private void runPendingMethodAnalyses() {
+        if (pendingMethodAnalyses.size() == 1) {
+            executeAnalysis(pendingMethodAnalyses.get(0));
+        } else if (pendingMethodAnalyses.size() > 1) {
+            List<AnalysisConfig> configs = List.copyOf(pendingMethodAnalyses);
+            List<String> ids = configs.stream().map(AnalysisConfig::getId).toList();
+            List<MethodAnalysis<?>> analyses = Timer.runAndCount(() -> {
+                List<MethodAnalysis<?>> chain = configs.stream()
+                        .<MethodAnalysis<?>>map(c -> (MethodAnalysis<?>) createAnalysis(c))
+                        .toList();
+                runMethodAnalyses(configs, chain);
+                return chain;
+            }, "fused " + ids, Level.INFO);
+            analyses.forEach(this::onAnalysisFinish);
+        }
+        pendingMethodAnalyses.clear();
+    }
+
+    private void runMethodAnalyses(List<AnalysisConfig> configs,
+                                   List<MethodAnalysis<?>> analyses) {
+        List<List<String>> releases = computeReleases(configs);
+        getMethodScope()
+                .parallelStream()
+                .forEach(m -> {
+                    IR ir = m.getIR();
+                    for (int i = 0; i < analyses.size(); ++i) {
+                        MethodAnalysis<?> analysis = analyses.get(i);
+                        Object result = analysis.analyze(ir);
+                        if (result != null) {
+                            ir.storeResult(analysis.getId(), result);
+                        }
+                        releases.get(i).forEach(ir::clearResult);
+                    }
+                });
+        analyses.forEach(MethodAnalysis::onFinish);
+    }
+
+    /**
+     * For each analysis in given chain, computes the IDs of the analyses
+     * whose per-method results can be released after it finishes on
+     * a method, i.e., the results which are not kept and whose consumers
+     * are all in the chain and have finished.
+     */
+    private List<List<String>> computeReleases(List<AnalysisConfig> configs) {
+        List<List<String>> releases = new ArrayList<>();
+        configs.forEach(__ -> releases.add(new ArrayList<>()));
+        if (keepAllResults) {
+            return releases;
+        }
+        for (int i = 0; i < configs.size(); ++i) {
+            AnalysisConfig config = configs.get(i);
+            if (plan.keepResult().contains(config.getId())) {
+                continue;
+            }
+            int lastConsumer = i;
+            for (AnalysisConfig consumer : plan.dependenceGraph().getSuccsOf(config)) {
+                int index = configs.indexOf(consumer);
+                if (index == -1) { // consumed by analysis out of the chain
+                    lastConsumer = -1;
+                    break;
+                }
+                lastConsumer = Math.max(lastConsumer, index);
+            }
+            if (lastConsumer != -1) {
+                releases.get(lastConsumer).add(config.getId());
+            }
+        }
+        return releases;
     }
 
     private List<JMethod> getMethodScope() {
@@ -47,4 +47,12 @@ public abstract class MethodAnalysis<R> extends Analysis {
      * @return the analysis result for given ir.
      */
     public abstract R analyze(IR ir);
+
+    /**
+     * Invoked after this analysis has been run for all methods in
+     * the analysis scope. Subclasses can override this method to
+     * report statistics or release resources of the analysis.
+     */
+    public void onFinish() {
+    }
 }
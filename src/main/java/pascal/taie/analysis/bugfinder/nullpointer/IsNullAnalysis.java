@@ -66,7 +66,7 @@ public class IsNullAnalysis extends AnalysisDriver<Stmt, IsNullFact> {
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, IsNullFact> {
+    static class Analysis extends AbstractDataflowAnalysis<Stmt, IsNullFact> {
 
         public Analysis(CFG<Stmt> cfg) {
             super(cfg);
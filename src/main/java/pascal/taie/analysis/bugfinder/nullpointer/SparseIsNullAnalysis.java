@@ -0,0 +1,101 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.bugfinder.nullpointer;
+
+import pascal.taie.analysis.ssa.SSA;
+import pascal.taie.analysis.ssa.SparseAnalysis;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.ReferenceType;
+
+import java.util.Map;
+
+/**
+ * Sparse null value analysis on SSA form. The value of each version is
+ * computed by applying the transfer function of {@link IsNullAnalysis} on
+ * its definition, thus the definitions (e.g., {@code new}, literals, loads
+ * and annotated calls) are handled in the same way.
+ * <p>
+ * Unlike {@link IsNullAnalysis}, this analysis does not refine the values
+ * of variables after null checks and dereferences, as such information is
+ * attached to control-flow edges instead of definitions. Hence, it is less
+ * precise, and it is suitable for the clients that only need the nullness
+ * determined by definitions.
+ */
+public class SparseIsNullAnalysis extends SparseAnalysis<IsNullValue> {
+
+    public static final String ID = "sparse-is-null";
+
+    public SparseIsNullAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    protected Problem<IsNullValue> makeProblem(SSA ssa) {
+        IsNullAnalysis.Analysis analysis = new IsNullAnalysis.Analysis(
+                ssa.getCFG().getStmtCFG());
+        IsNullFact entryFact = analysis.newBoundaryFact(ssa.getIR());
+        return new Problem<>() {
+
+            @Override
+            public boolean isRelevant(Var var) {
+                return var.getType() instanceof ReferenceType;
+            }
+
+            @Override
+            public IsNullValue getInitialValue(Var var) {
+                return entryFact.get(var);
+            }
+
+            @Override
+            public IsNullValue getTop() {
+                return IsNullValue.UNDEF;
+            }
+
+            @Override
+            public IsNullValue meet(IsNullValue v1, IsNullValue v2) {
+                return IsNullValue.merge(v1, v2);
+            }
+
+            @Override
+            public IsNullValue transfer(Stmt stmt, Var def,
+                                        Map<Var, IsNullValue> useValues) {
+                IsNullFact in = analysis.newInitialFact();
+                useValues.forEach(in::update);
+                IsNullFact out = analysis.newInitialFact();
+                analysis.transferNode(stmt, in, out);
+                IsNullValue value = out.get(def);
+                // copy and cast propagate the values of their operands,
+                // which may be UNDEF; other definitions that are not
+                // modeled by the transfer function (e.g., catch and
+                // invokedynamic) are treated conservatively
+                return value == IsNullValue.UNDEF &&
+                        !(stmt instanceof Copy || stmt instanceof Cast) ?
+                        IsNullValue.UNKNOWN : value;
+            }
+        };
+    }
+}
@@ -22,30 +22,135 @@
 
 package pascal.taie.analysis.dataflow.analysis;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.MethodAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.CompactNodeResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.solver.Solver;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Driver for performing a specific kind of data-flow analysis for a method.
  */
 public abstract class AnalysisDriver<Node, Fact>
-        extends MethodAnalysis<DataflowResult<Node, Fact>> {
+        extends MethodAnalysis<NodeResult<Node, Fact>> {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisDriver.class);
+
+    /**
+     * Kind of the solver used by this analysis.
+     */
+    private final String solverKind;
+
+    private final Solver<Node, Fact> solver;
+
+    /**
+     * Whether this analysis is solved on basic-block CFG.
+     */
+    private final boolean blockLevel;
+
+    /**
+     * Solver for solving this analysis on basic-block CFG.
+     */
+    private final Solver<BasicBlock, Fact> blockSolver;
+
+    /**
+     * Kind of the facts kept in {@link CompactNodeResult}:
+     * {@code all}, {@code in} or {@code out}, or {@code null}
+     * if the results are not compacted. The results are compacted
+     * after solving, so this does not affect the memory used by solvers.
+     */
+    private final String compactKind;
+
+    /**
+     * Number of CFG nodes and number of distinct facts in compact results.
+     */
+    private final LongAdder nNodes = new LongAdder();
+
+    private final LongAdder nFacts = new LongAdder();
+
+    /**
+     * Number of CFG nodes and number of blocks in block-level solving.
+     */
+    private final LongAdder nStmtNodes = new LongAdder();
+
+    private final LongAdder nBlocks = new LongAdder();
 
     protected AnalysisDriver(AnalysisConfig config) {
         super(config);
+        solverKind = getOptions().has("solver") ?
+                getOptions().getString("solver") : "worklist";
+        solver = Solver.makeSolver(solverKind);
+        blockLevel = getOptions().has("block") &&
+                getOptions().getBoolean("block");
+        blockSolver = blockLevel ? Solver.makeSolver(solverKind) : null;
+        String compact = getOptions().has("compact-result") ?
+                getOptions().getString("compact-result") : "none";
+        compactKind = switch (compact) {
+            case "none" -> null;
+            case "all", "in", "out" -> compact;
+            default -> throw new ConfigException(
+                    "Unknown compact-result kind: " + compact);
+        };
     }
 
     @Override
-    public DataflowResult<Node, Fact> analyze(IR ir) {
+    public NodeResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
         DataflowAnalysis<Node, Fact> analysis = makeAnalysis(cfg);
-        Solver<Node, Fact> solver = Solver.getSolver();
-        return solver.solve(analysis);
+        NodeResult<Node, Fact> result = blockLevel ?
+                solveOnBlocks(analysis) : solver.solve(analysis);
+        if (compactKind != null) {
+            CompactNodeResult<Node, Fact> compactResult = new CompactNodeResult<>(
+                    cfg, result, !compactKind.equals("out"), !compactKind.equals("in"));
+            nNodes.add(cfg.getNumberOfNodes());
+            nFacts.add(compactResult.getNumberOfFacts());
+            result = compactResult;
+        }
+        return result;
+    }
+
+    /**
+     * Solves given analysis on the basic-block CFG of its CFG, and
+     * returns a result which derives the facts of stmts on demand.
+     * Block-level solving only applies to the analyses on stmt CFGs.
+     */
+    @SuppressWarnings("unchecked")
+    private NodeResult<Node, Fact> solveOnBlocks(DataflowAnalysis<Node, Fact> analysis) {
+        DataflowAnalysis<Stmt, Fact> stmtAnalysis = (DataflowAnalysis<Stmt, Fact>) analysis;
+        BlockCFG blockCFG = new BlockCFG(stmtAnalysis.getCFG());
+        BlockAnalysis<Fact> blockAnalysis = new BlockAnalysis<>(stmtAnalysis, blockCFG);
+        NodeResult<BasicBlock, Fact> blockResult = blockSolver.solve(blockAnalysis);
+        nStmtNodes.add(stmtAnalysis.getCFG().getNumberOfNodes());
+        nBlocks.add(blockCFG.getNumberOfNodes());
+        return (NodeResult<Node, Fact>) new BlockNodeResult<>(blockAnalysis, blockResult);
+    }
+
+    @Override
+    public void onFinish() {
+        if (blockLevel) {
+            logger.info("{} performed {} block transfers with {} solver" +
+                            " on {} blocks of {} nodes",
+                    getId(), blockSolver.getTransferCount(), solverKind,
+                    nBlocks.sum(), nStmtNodes.sum());
+        } else {
+            logger.info("{} performed {} node transfers with {} solver",
+                    getId(), solver.getTransferCount(), solverKind);
+        }
+        if (compactKind != null) {
+            logger.info("{} keeps {} distinct facts ({}) for {} nodes in compact results",
+                    getId(), nFacts.sum(), compactKind, nNodes.sum());
+        }
     }
 
     /**
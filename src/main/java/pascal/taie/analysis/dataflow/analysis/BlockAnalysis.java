@@ -0,0 +1,153 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.BlockEdge;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.CollectionUtils;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Lifts a data-flow analysis on stmt CFG to the corresponding
+ * {@link BlockCFG}, so that the solvers only keep the facts of blocks.
+ * The node transfer function of a block chains the transfer functions
+ * of the stmts in the block, and the facts between the stmts are
+ * discarded after the transfer.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+class BlockAnalysis<Fact> implements DataflowAnalysis<BasicBlock, Fact> {
+
+    private final DataflowAnalysis<Stmt, Fact> analysis;
+
+    private final BlockCFG cfg;
+
+    BlockAnalysis(DataflowAnalysis<Stmt, Fact> analysis, BlockCFG cfg) {
+        this.analysis = analysis;
+        this.cfg = cfg;
+    }
+
+    @Override
+    public boolean isForward() {
+        return analysis.isForward();
+    }
+
+    @Override
+    public Fact newBoundaryFact() {
+        return analysis.newBoundaryFact();
+    }
+
+    @Override
+    public Fact newInitialFact() {
+        return analysis.newInitialFact();
+    }
+
+    @Override
+    public void meetInto(Fact fact, Fact target) {
+        analysis.meetInto(fact, target);
+    }
+
+    @Override
+    public boolean transferNode(BasicBlock block, Fact in, Fact out) {
+        if (isForward()) {
+            Fact fact = transferInner(block, in, null, null);
+            return analysis.transferNode(block.getLast(), fact, out);
+        } else {
+            Fact fact = transferInner(block, out, null, null);
+            return analysis.transferNode(block.getFirst(), in, fact);
+        }
+    }
+
+    /**
+     * Transfers given fact through the stmts in given block, except the
+     * last (first) stmt in forward (backward) analysis, which is the one
+     * whose out (in) fact is the out (in) fact of the block.
+     *
+     * @param fact the in (out) fact of the block in forward (backward) analysis
+     * @param ins  if not {@code null}, the in facts of the transferred stmts
+     *             are recorded in it by the positions of the stmts
+     * @param outs if not {@code null}, the out facts of the transferred stmts
+     *             are recorded in it by the positions of the stmts
+     * @return the in (out) fact of the last (first) stmt in forward
+     * (backward) analysis.
+     */
+    Fact transferInner(BasicBlock block, Fact fact,
+                       @Nullable List<Fact> ins, @Nullable List<Fact> outs) {
+        List<Stmt> stmts = block.getStmts();
+        if (isForward()) {
+            for (int i = 0; i < stmts.size() - 1; ++i) {
+                Stmt stmt = stmts.get(i);
+                Fact out = analysis.newInitialFact();
+                analysis.transferNode(stmt, fact, out);
+                if (ins != null && outs != null) {
+                    ins.set(i, fact);
+                    outs.set(i, out);
+                }
+                fact = transferInnerEdge(stmt, out);
+            }
+        } else {
+            for (int i = stmts.size() - 1; i > 0; --i) {
+                Stmt stmt = stmts.get(i);
+                Fact in = analysis.newInitialFact();
+                analysis.transferNode(stmt, in, fact);
+                if (ins != null && outs != null) {
+                    ins.set(i, in);
+                    outs.set(i, fact);
+                }
+                fact = transferInnerEdge(stmts.get(i - 1), in);
+            }
+        }
+        return fact;
+    }
+
+    /**
+     * Applies the edge transfer function on the only out edge of
+     * given stmt, which connects it to the next stmt in the same block.
+     */
+    private Fact transferInnerEdge(Stmt stmt, Fact nodeFact) {
+        CFGEdge<Stmt> edge = CollectionUtils.getOne(
+                cfg.getStmtCFG().getOutEdgesOf(stmt));
+        return analysis.needTransferEdge(edge) ?
+                analysis.transferEdge(edge, nodeFact) : nodeFact;
+    }
+
+    @Override
+    public boolean needTransferEdge(CFGEdge<BasicBlock> edge) {
+        return analysis.needTransferEdge(((BlockEdge) edge).getStmtEdge());
+    }
+
+    @Override
+    public Fact transferEdge(CFGEdge<BasicBlock> edge, Fact nodeFact) {
+        return analysis.transferEdge(((BlockEdge) edge).getStmtEdge(), nodeFact);
+    }
+
+    @Override
+    public BlockCFG getCFG() {
+        return cfg;
+    }
+}
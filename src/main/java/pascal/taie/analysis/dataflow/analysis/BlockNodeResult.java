@@ -0,0 +1,105 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data-flow result of stmts which only keeps the facts of basic blocks.
+ * The facts of the stmts in a block are derived on demand from the facts
+ * of the block, and the facts of the most recently queried block are
+ * cached, as the clients usually query the stmts of a block together.
+ *
+ * @param <Fact> type of data-flow facts
+ */
+class BlockNodeResult<Fact> implements NodeResult<Stmt, Fact> {
+
+    private final BlockAnalysis<Fact> analysis;
+
+    private final NodeResult<BasicBlock, Fact> blockResult;
+
+    private BasicBlock cachedBlock;
+
+    private List<Fact> cachedInFacts;
+
+    private List<Fact> cachedOutFacts;
+
+    BlockNodeResult(BlockAnalysis<Fact> analysis,
+                    NodeResult<BasicBlock, Fact> blockResult) {
+        this.analysis = analysis;
+        this.blockResult = blockResult;
+    }
+
+    @Override
+    public synchronized Fact getInFact(Stmt stmt) {
+        BlockCFG cfg = analysis.getCFG();
+        BasicBlock block = cfg.getBlockOf(stmt);
+        if (block.size() == 1) {
+            return blockResult.getInFact(block);
+        }
+        computeFacts(block);
+        return cachedInFacts.get(cfg.getPositionOf(stmt));
+    }
+
+    @Override
+    public synchronized Fact getOutFact(Stmt stmt) {
+        BlockCFG cfg = analysis.getCFG();
+        BasicBlock block = cfg.getBlockOf(stmt);
+        if (block.size() == 1) {
+            return blockResult.getOutFact(block);
+        }
+        computeFacts(block);
+        return cachedOutFacts.get(cfg.getPositionOf(stmt));
+    }
+
+    /**
+     * Computes the facts of the stmts in given block if they are not cached.
+     */
+    private void computeFacts(BasicBlock block) {
+        if (block == cachedBlock) {
+            return;
+        }
+        List<Fact> ins = new ArrayList<>(Collections.nCopies(block.size(), null));
+        List<Fact> outs = new ArrayList<>(Collections.nCopies(block.size(), null));
+        Fact blockIn = blockResult.getInFact(block);
+        Fact blockOut = blockResult.getOutFact(block);
+        int last = block.size() - 1;
+        if (analysis.isForward()) {
+            ins.set(last, analysis.transferInner(block, blockIn, ins, outs));
+            outs.set(last, blockOut);
+        } else {
+            outs.set(0, analysis.transferInner(block, blockOut, ins, outs));
+            ins.set(0, blockIn);
+        }
+        cachedBlock = block;
+        cachedInFacts = ins;
+        cachedOutFacts = outs;
+    }
+}
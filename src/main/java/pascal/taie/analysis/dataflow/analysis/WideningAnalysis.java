@@ -0,0 +1,62 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis;
+
+/**
+ * Data-flow analysis whose lattice may contain infinite (or very long)
+ * ascending chains, and thus requires widening to terminate (quickly).
+ * <p>
+ * Widening is applied only by solvers that are aware of widening points,
+ * e.g., the WTO-based solver, which widens the in (out) facts of the heads
+ * of the weak topological order for forward (backward) analysis.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+public interface WideningAnalysis<Node, Fact> extends DataflowAnalysis<Node, Fact> {
+
+    /**
+     * @return a copy of given fact. The solver uses it to retain the fact
+     * of a widening point before the fact is updated.
+     */
+    Fact copyFact(Fact fact);
+
+    /**
+     * Widens {@code target} with respect to {@code previous}, i.e.,
+     * updates {@code target} to {@code previous ∇ target}.
+     *
+     * @param node     the widening point
+     * @param previous the fact of the widening point before current iteration
+     * @param target   the fact of the widening point in current iteration,
+     *                 which is updated in place
+     */
+    void widenInto(Node node, Fact previous, Fact target);
+
+    /**
+     * @return the number of iterations over a component before widening
+     * is applied at its head. Delaying widening usually improves precision.
+     */
+    default int getWideningDelay() {
+        return 1;
+    }
+}
@@ -60,31 +60,43 @@ public final class Evaluator {
             BinaryExp.Op op = binary.getOperator();
             Value v1 = evaluate(binary.getOperand1(), in);
             Value v2 = evaluate(binary.getOperand2(), in);
-            // handle division-by-zero by returning UNDEF
-            if ((op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM) &&
-                    v2.isConstant() && v2.getConstant() == 0) {
-                return Value.getUndef();
-            }
-            if (v1.isConstant() && v2.isConstant()) {
-                int i1 = v1.getConstant();
-                int i2 = v2.getConstant();
-                return Value.makeConstant(evaluate(op, i1, i2));
-            }
-            // handle zero * NAC by returning 0
-            if (op == ArithmeticExp.Op.MUL
-                    && (v1.isConstant() && v1.getConstant() == 0 && v2.isNAC() || // 0 * NAC
-                    v2.isConstant() && v2.getConstant() == 0 && v1.isNAC())) { // NAC * 0
-                return Value.makeConstant(0);
-            }
-            if (v1.isNAC() || v2.isNAC()) {
-                return Value.getNAC();
-            }
-            return Value.getUndef();
+            return evaluate(op, v1, v2);
         }
         // return NAC for other cases
         return Value.getNAC();
     }
 
+    /**
+     * Evaluates the {@link Value} of a binary operation on given operands.
+     *
+     * @param op the operator
+     * @param v1 value of the first operand
+     * @param v2 value of the second operand
+     * @return the resulting {@link Value}
+     */
+    public static Value evaluate(BinaryExp.Op op, Value v1, Value v2) {
+        // handle division-by-zero by returning UNDEF
+        if ((op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM) &&
+                v2.isConstant() && v2.getConstant() == 0) {
+            return Value.getUndef();
+        }
+        if (v1.isConstant() && v2.isConstant()) {
+            int i1 = v1.getConstant();
+            int i2 = v2.getConstant();
+            return Value.makeConstant(evaluate(op, i1, i2));
+        }
+        // handle zero * NAC by returning 0
+        if (op == ArithmeticExp.Op.MUL
+                && (v1.isConstant() && v1.getConstant() == 0 && v2.isNAC() || // 0 * NAC
+                v2.isConstant() && v2.getConstant() == 0 && v1.isNAC())) { // NAC * 0
+            return Value.makeConstant(0);
+        }
+        if (v1.isNAC() || v2.isNAC()) {
+            return Value.getNAC();
+        }
+        return Value.getUndef();
+    }
+
     private static int evaluate(BinaryExp.Op op, int i1, int i2) {
         if (op instanceof ArithmeticExp.Op) {
             return switch ((ArithmeticExp.Op) op) {
@@ -0,0 +1,90 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import pascal.taie.analysis.ssa.SSA;
+import pascal.taie.analysis.ssa.SparseAnalysis;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.exp.Exps;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Map;
+
+/**
+ * Sparse constant propagation for int values on SSA form. It uses the same
+ * lattice and expression evaluation as {@link ConstantPropagation}, and
+ * computes the same values for the variables used in reachable stmts as
+ * {@link ConstantPropagation} without edge refinement, but it keeps one
+ * {@link Value} per version of variable instead of one {@link CPFact}
+ * per stmt.
+ */
+public class SparseConstantPropagation extends SparseAnalysis<Value> {
+
+    public static final String ID = "sparse-const-prop";
+
+    public SparseConstantPropagation(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    protected Problem<Value> makeProblem(SSA ssa) {
+        ConstantPropagation.Analysis cp = new ConstantPropagation.Analysis(
+                ssa.getCFG().getStmtCFG(), false);
+        CPFact entryFact = cp.newBoundaryFact(ssa.getIR());
+        return new Problem<>() {
+
+            @Override
+            public boolean isRelevant(Var var) {
+                return Exps.holdsInt(var);
+            }
+
+            @Override
+            public Value getInitialValue(Var var) {
+                return entryFact.get(var);
+            }
+
+            @Override
+            public Value getTop() {
+                return Value.getUndef();
+            }
+
+            @Override
+            public Value meet(Value v1, Value v2) {
+                return cp.meetValue(v1, v2);
+            }
+
+            @Override
+            public Value transfer(Stmt stmt, Var def, Map<Var, Value> useValues) {
+                if (stmt instanceof DefinitionStmt<?, ?> defStmt &&
+                        defStmt.getLValue() == def) {
+                    CPFact in = new CPFact();
+                    useValues.forEach(in::update);
+                    return Evaluator.evaluate(defStmt.getRValue(), in);
+                }
+                return Value.getNAC();
+            }
+        };
+    }
+}
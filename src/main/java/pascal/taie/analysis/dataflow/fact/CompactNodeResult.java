@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Map;
+
+/**
+ * Compact {@link NodeResult} which stores data-flow facts in arrays
+ * indexed by {@link CFG#getIndex(Object)}.
+ * <p>
+ * Equal facts (e.g., the in and out facts of a node whose transfer does
+ * not change anything, or the facts along a straight-line code) are stored
+ * only once and shared. In addition, in facts or out facts that are never
+ * queried by the clients can be discarded.
+ * <p>
+ * Since the facts are shared, they must not be modified after
+ * being put into this result.
+ * <p>
+ * This result is built from a solved result, thus it only reduces the
+ * memory retained by the results after solving. The solver still keeps
+ * a separate in and out fact for every node while solving, so the peak
+ * memory of solving a single method is not reduced.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <Fact> type of data-flow facts
+ */
+public class CompactNodeResult<Node, Fact> implements NodeResult<Node, Fact> {
+
+    private final CFG<Node> cfg;
+
+    /**
+     * In facts indexed by node index, or {@code null} if discarded.
+     */
+    private final Fact[] inFacts;
+
+    /**
+     * Out facts indexed by node index, or {@code null} if discarded.
+     */
+    private final Fact[] outFacts;
+
+    /**
+     * Number of distinct fact objects stored in this result.
+     */
+    private final int nFacts;
+
+    /**
+     * Creates a compact copy of given result.
+     *
+     * @param cfg     the CFG on which {@code result} is computed
+     * @param result  the result to be compacted
+     * @param keepIn  whether to keep in facts
+     * @param keepOut whether to keep out facts
+     */
+    public CompactNodeResult(CFG<Node> cfg, NodeResult<Node, Fact> result,
+                             boolean keepIn, boolean keepOut) {
+        this.cfg = cfg;
+        int nNodes = cfg.getNumberOfNodes();
+        inFacts = keepIn ? newArray(nNodes) : null;
+        outFacts = keepOut ? newArray(nNodes) : null;
+        // canonical object of each distinct fact
+        Map<Fact, Fact> canonical = Maps.newMap();
+        for (Node node : cfg) {
+            int i = cfg.getIndex(node);
+            if (keepIn) {
+                inFacts[i] = canonicalize(canonical, result.getInFact(node));
+            }
+            if (keepOut) {
+                outFacts[i] = canonicalize(canonical, result.getOutFact(node));
+            }
+        }
+        nFacts = canonical.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <Fact> Fact[] newArray(int length) {
+        return (Fact[]) new Object[length];
+    }
+
+    private static <Fact> Fact canonicalize(Map<Fact, Fact> canonical, Fact fact) {
+        return fact == null ? null : canonical.computeIfAbsent(fact, f -> f);
+    }
+
+    @Override
+    public Fact getInFact(Node node) {
+        if (inFacts == null) {
+            throw new UnsupportedOperationException(
+                    "In facts have been discarded");
+        }
+        return inFacts[cfg.getIndex(node)];
+    }
+
+    @Override
+    public Fact getOutFact(Node node) {
+        if (outFacts == null) {
+            throw new UnsupportedOperationException(
+                    "Out facts have been discarded");
+        }
+        return outFacts[cfg.getIndex(node)];
+    }
+
+    /**
+     * @return the number of distinct fact objects stored in this result.
+     */
+    public int getNumberOfFacts() {
+        return nFacts;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+/**
+ * Edge function that maps every value to the top value of the lattice.
+ * In IDE, it represents the absence of paths, thus it is the initial
+ * jump function and the neutral element of meet.
+ */
+public record AllTop<V>(V topValue) implements EdgeFunction<V> {
+
+    @Override
+    public V computeTarget(V source) {
+        return topValue;
+    }
+
+    /**
+     * Composing any function after non-existent paths
+     * still results in non-existent paths.
+     */
+    @Override
+    public EdgeFunction<V> composeWith(EdgeFunction<V> second) {
+        return this;
+    }
+
+    @Override
+    public EdgeFunction<V> meetWith(EdgeFunction<V> other) {
+        return other;
+    }
+
+    @Override
+    public String toString() {
+        return "λ.⊤";
+    }
+}
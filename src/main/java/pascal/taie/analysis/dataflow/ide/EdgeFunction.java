@@ -0,0 +1,53 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+/**
+ * Edge function of IDE problems, which transforms the value of a fact
+ * at the source of an (exploded super-graph) edge to the value of a fact
+ * at the target of the edge.
+ * <p>
+ * Edge functions are compared by {@link Object#equals(Object)}, thus the
+ * implementations should override it (or be canonicalized), otherwise,
+ * the solver may fail to reach fixed point.
+ *
+ * @param <V> type of values
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the result of applying this function to given value.
+     */
+    V computeTarget(V source);
+
+    /**
+     * @return the composition of this function and given function, i.e.,
+     * the function that first applies this function, then {@code second}.
+     */
+    EdgeFunction<V> composeWith(EdgeFunction<V> second);
+
+    /**
+     * @return the meet of this function and given function.
+     */
+    EdgeFunction<V> meetWith(EdgeFunction<V> other);
+}
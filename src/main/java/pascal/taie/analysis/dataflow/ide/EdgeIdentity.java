@@ -0,0 +1,64 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+/**
+ * The identity edge function, which is shared by all IDE problems.
+ */
+public final class EdgeIdentity<V> implements EdgeFunction<V> {
+
+    @SuppressWarnings("rawtypes")
+    private static final EdgeIdentity INSTANCE = new EdgeIdentity();
+
+    private EdgeIdentity() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> EdgeIdentity<V> get() {
+        return (EdgeIdentity<V>) INSTANCE;
+    }
+
+    @Override
+    public V computeTarget(V source) {
+        return source;
+    }
+
+    @Override
+    public EdgeFunction<V> composeWith(EdgeFunction<V> second) {
+        return second;
+    }
+
+    @Override
+    public EdgeFunction<V> meetWith(EdgeFunction<V> other) {
+        if (other == this || other instanceof AllTop<V>) {
+            return this;
+        }
+        // let the other function decide the meet
+        return other.meetWith(this);
+    }
+
+    @Override
+    public String toString() {
+        return "id";
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+/**
+ * Interface of IDE (interprocedural distributive environment) problems.
+ * An IDE problem extends IFDS problem by associating each edge of the
+ * exploded super-graph with an {@link EdgeFunction}, which transforms
+ * the values of the facts along the edge.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of values of the facts
+ */
+public interface IDEProblem<Method, Node, D, V> extends IFDSProblem<Method, Node, D> {
+
+    /**
+     * @return the top value of the value lattice.
+     */
+    V topValue();
+
+    /**
+     * @return the bottom value of the value lattice, which is also
+     * the value of zero fact at the entries of the entry methods.
+     */
+    V bottomValue();
+
+    /**
+     * @return the meet of two values.
+     */
+    V meetValue(V v1, V v2);
+
+    /**
+     * @return the edge function that maps all values to top value.
+     */
+    default EdgeFunction<V> allTopFunction() {
+        return new AllTop<>(topValue());
+    }
+
+    EdgeFunction<V> getNormalEdgeFunction(
+            NormalEdge<Node> edge, D source, D target);
+
+    EdgeFunction<V> getCallToReturnEdgeFunction(
+            CallToReturnEdge<Node> edge, D source, D target);
+
+    EdgeFunction<V> getCallEdgeFunction(
+            CallEdge<Node> edge, D source, D target);
+
+    EdgeFunction<V> getReturnEdgeFunction(
+            ReturnEdge<Node> edge, D source, D target);
+}
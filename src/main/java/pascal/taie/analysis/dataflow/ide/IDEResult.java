@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of IDE solver, which maps each pair of node and fact
+ * to the value of the fact before the node.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of values of the facts
+ */
+public class IDEResult<Node, D, V> {
+
+    private final TwoKeyMap<Node, D, V> values;
+
+    private final D zero;
+
+    private final V top;
+
+    IDEResult(TwoKeyMap<Node, D, V> values, D zero, V top) {
+        this.values = values;
+        this.zero = zero;
+        this.top = top;
+    }
+
+    /**
+     * @return the value of given fact before given node. If the fact
+     * does not hold at the node, then returns the top value.
+     */
+    public V getValue(Node node, D fact) {
+        return values.getOrDefault(node, fact, top);
+    }
+
+    /**
+     * @return the facts (except the zero fact) and their values before
+     * given node.
+     */
+    public Map<D, V> getValuesAt(Node node) {
+        Map<D, V> result = values.get(node);
+        if (result == null) {
+            return Map.of();
+        }
+        if (result.containsKey(zero)) {
+            result = Maps.newHybridMap(result);
+            result.remove(zero);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return the facts (except the zero fact) that hold before given node.
+     */
+    public Set<D> getFactsAt(Node node) {
+        return getValuesAt(node).keySet();
+    }
+
+    /**
+     * @return {@code true} if given node is reachable from the seeds
+     * of the problem, otherwise {@code false}.
+     */
+    public boolean isReachable(Node node) {
+        return values.containsKey(node, zero);
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Solver for {@link IDEProblem}s, which implements the two-phase
+ * tabulation algorithm of Sagiv et al.
+ * <ol>
+ *     <li>Phase 1 computes jump functions from the start points of methods
+ *     to the nodes of the methods. When a path edge reaches the exit of
+ *     a method, an end summary of the method is recorded for the fact at
+ *     the start point. The end summaries are memoized and applied directly
+ *     to all (current and future) call sites that pass the same fact to
+ *     the method, so each method is analyzed at most once per fact.</li>
+ *     <li>Phase 2 computes the values of facts: the values are first
+ *     propagated to the start points and call sites along the call graph,
+ *     then the values at other nodes are computed by applying
+ *     the jump functions to the values at the start points.</li>
+ * </ol>
+ * The value of a fact at a node is the value <i>before</i> the node.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of values of the facts
+ */
+public class IDESolver<Method, Node, D, V> {
+
+    private static final Logger logger = LogManager.getLogger(IDESolver.class);
+
+    private final IDEProblem<Method, Node, D, V> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final D zero;
+
+    private final EdgeFunction<V> allTop;
+
+    /**
+     * Jump functions: (n, d2) -> {d1 -> f}, where d1 is a fact at the start
+     * point of the method containing n, and f is the edge function of the
+     * same-level realizable paths from (start point, d1) to (n, d2).
+     */
+    private final TwoKeyMap<Node, D, Map<D, EdgeFunction<V>>> jumpFn =
+            Maps.newTwoKeyMap();
+
+    /**
+     * End summaries: (start point, d1) -> {d2 -> f}, where d2 is a fact
+     * at the exit of the method.
+     */
+    private final TwoKeyMap<Node, D, Map<D, EdgeFunction<V>>> endSummary =
+            Maps.newTwoKeyMap();
+
+    /**
+     * Incoming call edges: (start point, d3) -> {call edge -> d2}, where
+     * d2 is the fact at the call site which is mapped to d3 by the call edge.
+     */
+    private final TwoKeyMap<Node, D, MultiMap<CallEdge<Node>, D>> incoming =
+            Maps.newTwoKeyMap();
+
+    /**
+     * Call sites of the methods: start point -> call sites.
+     */
+    private final MultiMap<Node, Node> callSitesOf = Maps.newMultiMap();
+
+    /**
+     * Cache of return edges: exit -> {call site -> return edges}.
+     */
+    private final Map<Node, MultiMap<Node, ReturnEdge<Node>>> returnEdges =
+            Maps.newMap();
+
+    private final Queue<PathEdge<Node, D>> workList = new ArrayDeque<>();
+
+    private long processedPathEdges;
+
+    private long reusedSummaries;
+
+    public IDESolver(IDEProblem<Method, Node, D, V> problem) {
+        this.problem = problem;
+        this.icfg = problem.getICFG();
+        this.zero = problem.zeroValue();
+        this.allTop = problem.allTopFunction();
+    }
+
+    /**
+     * Solves the problem.
+     *
+     * @return the values of facts at the nodes.
+     */
+    public IDEResult<Node, D, V> solve() {
+        computeJumpFunctions();
+        IDEResult<Node, D, V> result = computeValues();
+        logStatistics();
+        return result;
+    }
+
+    /**
+     * Solves the problem again after the edge functions of the out edges
+     * of given nodes have decreased, i.e., each new edge function is lower
+     * than or equal to the old one. The jump functions and end summaries
+     * computed so far are kept, and only the path edges that reach given
+     * nodes are processed again, so that phase 1 merely propagates the
+     * changes. This method must be called after {@link #solve()}.
+     *
+     * @return the values of facts at the nodes.
+     */
+    public IDEResult<Node, D, V> update(Collection<Node> nodes) {
+        for (Node node : nodes) {
+            Map<D, Map<D, EdgeFunction<V>>> fs = jumpFn.get(node);
+            if (fs != null) {
+                fs.forEach((d2, fromStart) -> fromStart.keySet().forEach(d1 ->
+                        workList.add(new PathEdge<>(d1, node, d2))));
+            }
+        }
+        processWorkList();
+        IDEResult<Node, D, V> result = computeValues();
+        logStatistics();
+        return result;
+    }
+
+    /**
+     * Computes only the jump functions, i.e., the phase 1 of the algorithm,
+     * which is sufficient for IFDS problems.
+     *
+     * @return the facts that hold at the nodes.
+     */
+    MultiMap<Node, D> solveReachability() {
+        computeJumpFunctions();
+        MultiMap<Node, D> facts = Maps.newMultiMap();
+        jumpFn.forEach((node, fact, __) -> {
+            if (!fact.equals(zero)) {
+                facts.put(node, fact);
+            }
+        });
+        logStatistics();
+        return facts;
+    }
+
+    private void logStatistics() {
+        logger.info("IDE solver processed {} path edges, computed {} end summaries," +
+                        " reused end summaries {} times",
+                processedPathEdges,
+                endSummary.values().stream().mapToInt(Map::size).sum(),
+                reusedSummaries);
+    }
+
+    // ---------- phase 1: computing jump functions ----------
+
+    private void computeJumpFunctions() {
+        problem.getSeeds().forEach(seed ->
+                propagate(zero, seed, zero, EdgeIdentity.get()));
+        processWorkList();
+    }
+
+    private void processWorkList() {
+        while (!workList.isEmpty()) {
+            PathEdge<Node, D> edge = workList.poll();
+            ++processedPathEdges;
+            Node node = edge.target();
+            EdgeFunction<V> f = jumpFn.get(node, edge.fact()).get(edge.source());
+            if (icfg.isCallSite(node)) {
+                processCall(edge, f);
+            } else if (isExit(node)) {
+                processExit(edge, f);
+            } else {
+                processNormal(edge, f);
+            }
+        }
+    }
+
+    private void processNormal(PathEdge<Node, D> pathEdge, EdgeFunction<V> f) {
+        D d1 = pathEdge.source();
+        D d2 = pathEdge.fact();
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(pathEdge.target())) {
+            if (edge instanceof NormalEdge<Node> normalEdge) {
+                FlowFunction<D> flow = problem.getNormalFlowFunction(normalEdge);
+                for (D d3 : flow.compute(d2)) {
+                    EdgeFunction<V> f3 = problem.getNormalEdgeFunction(
+                            normalEdge, d2, d3);
+                    propagate(d1, normalEdge.target(), d3, f.composeWith(f3));
+                }
+            }
+        }
+    }
+
+    private void processCall(PathEdge<Node, D> pathEdge, EdgeFunction<V> f) {
+        D d1 = pathEdge.source();
+        Node callSite = pathEdge.target();
+        D d2 = pathEdge.fact();
+        callSitesOf.put(getStartPointOf(callSite), callSite);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            if (edge instanceof CallEdge<Node> callEdge) {
+                Node startPoint = callEdge.target();
+                FlowFunction<D> flow = problem.getCallFlowFunction(callEdge);
+                for (D d3 : flow.compute(d2)) {
+                    incoming.computeIfAbsent(startPoint, d3,
+                                    (__, ___) -> Maps.newMultiMap())
+                            .put(callEdge, d2);
+                    // start analyzing the callee with d3
+                    propagate(d3, startPoint, d3, EdgeIdentity.get());
+                    // apply the existing end summaries of the callee
+                    Map<D, EdgeFunction<V>> summaries = endSummary.get(startPoint, d3);
+                    if (summaries != null && !summaries.isEmpty()) {
+                        ++reusedSummaries;
+                        EdgeFunction<V> fCall = f.composeWith(
+                                problem.getCallEdgeFunction(callEdge, d2, d3));
+                        Node exit = icfg.getExitOf(icfg.getContainingMethodOf(startPoint));
+                        summaries.forEach((d4, fEnd) ->
+                                applyReturn(callSite, exit, d4, d1,
+                                        fCall.composeWith(fEnd)));
+                    }
+                }
+            } else if (edge instanceof CallToReturnEdge<Node> c2rEdge) {
+                FlowFunction<D> flow = problem.getCallToReturnFlowFunction(c2rEdge);
+                for (D d3 : flow.compute(d2)) {
+                    EdgeFunction<V> f3 = problem.getCallToReturnEdgeFunction(
+                            c2rEdge, d2, d3);
+                    propagate(d1, c2rEdge.target(), d3, f.composeWith(f3));
+                }
+            }
+        }
+    }
+
+    /**
+     * Propagates fact {@code d4} at the exit of a callee
+     * to the return sites of {@code callSite}.
+     *
+     * @param d1 the fact at the start point of the caller
+     * @param f  the edge function from (caller start point, d1) to (exit, d4)
+     */
+    private void applyReturn(Node callSite, Node exit, D d4, D d1, EdgeFunction<V> f) {
+        for (ReturnEdge<Node> retEdge : getReturnEdges(exit, callSite)) {
+            FlowFunction<D> flow = problem.getReturnFlowFunction(retEdge);
+            for (D d5 : flow.compute(d4)) {
+                EdgeFunction<V> f5 = problem.getReturnEdgeFunction(retEdge, d4, d5);
+                propagate(d1, retEdge.target(), d5, f.composeWith(f5));
+            }
+        }
+    }
+
+    private void processExit(PathEdge<Node, D> pathEdge, EdgeFunction<V> f) {
+        D d1 = pathEdge.source();
+        Node exit = pathEdge.target();
+        D d2 = pathEdge.fact();
+        Node startPoint = getStartPointOf(exit);
+        // memoize the end summary
+        Map<D, EdgeFunction<V>> summaries = endSummary.computeIfAbsent(
+                startPoint, d1, (__, ___) -> Maps.newHybridMap());
+        EdgeFunction<V> oldSummary = summaries.get(d2);
+        EdgeFunction<V> summary = oldSummary == null ? f : oldSummary.meetWith(f);
+        summaries.put(d2, summary);
+        // apply the summary to the call sites that have reached the method
+        MultiMap<CallEdge<Node>, D> callers = incoming.get(startPoint, d1);
+        if (callers == null) {
+            return;
+        }
+        callers.forEach((callEdge, d4) -> {
+            Node callSite = callEdge.source();
+            Map<D, EdgeFunction<V>> callerJumpFns = jumpFn.get(callSite, d4);
+            if (callerJumpFns == null) {
+                return;
+            }
+            EdgeFunction<V> fCall = problem.getCallEdgeFunction(callEdge, d4, d1);
+            EdgeFunction<V> fPrime = fCall.composeWith(summary);
+            callerJumpFns.forEach((d3, f3) ->
+                    applyReturn(callSite, exit, d2, d3, f3.composeWith(fPrime)));
+        });
+    }
+
+    private void propagate(D d1, Node node, D d2, EdgeFunction<V> f) {
+        if (f.equals(allTop)) {
+            // no realizable path
+            return;
+        }
+        Map<D, EdgeFunction<V>> fs = jumpFn.computeIfAbsent(
+                node, d2, (__, ___) -> Maps.newHybridMap());
+        EdgeFunction<V> oldF = fs.get(d1);
+        EdgeFunction<V> newF = oldF == null ? f : oldF.meetWith(f);
+        if (!newF.equals(oldF)) {
+            fs.put(d1, newF);
+            workList.add(new PathEdge<>(d1, node, d2));
+        }
+    }
+
+    private Set<ReturnEdge<Node>> getReturnEdges(Node exit, Node callSite) {
+        return returnEdges.computeIfAbsent(exit, e -> {
+            MultiMap<Node, ReturnEdge<Node>> edges = Maps.newMultiMap();
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(e)) {
+                if (edge instanceof ReturnEdge<Node> retEdge) {
+                    edges.put(retEdge.getCallSite(), retEdge);
+                }
+            }
+            return edges;
+        }).get(callSite);
+    }
+
+    private Node getStartPointOf(Node node) {
+        return icfg.getEntryOf(icfg.getContainingMethodOf(node));
+    }
+
+    private boolean isExit(Node node) {
+        return node.equals(icfg.getExitOf(icfg.getContainingMethodOf(node)));
+    }
+
+    // ---------- phase 2: computing values ----------
+
+    private IDEResult<Node, D, V> computeValues() {
+        // phase 2(i): propagates values to start points and call sites
+        TwoKeyMap<Node, D, V> values = Maps.newTwoKeyMap();
+        Queue<Node> valueWorkList = new ArrayDeque<>();
+        Queue<D> factWorkList = new ArrayDeque<>();
+        problem.getSeeds().forEach(seed -> {
+            values.put(seed, zero, problem.bottomValue());
+            valueWorkList.add(seed);
+            factWorkList.add(zero);
+        });
+        while (!valueWorkList.isEmpty()) {
+            Node node = valueWorkList.poll();
+            D fact = factWorkList.poll();
+            V value = values.get(node, fact);
+            if (icfg.isCallSite(node)) {
+                // propagate the value to the start points of callees
+                for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                    if (edge instanceof CallEdge<Node> callEdge) {
+                        Node startPoint = callEdge.target();
+                        for (D d3 : problem.getCallFlowFunction(callEdge).compute(fact)) {
+                            V v3 = problem.getCallEdgeFunction(callEdge, fact, d3)
+                                    .computeTarget(value);
+                            if (updateValue(values, startPoint, d3, v3)) {
+                                valueWorkList.add(startPoint);
+                                factWorkList.add(d3);
+                            }
+                        }
+                    }
+                }
+            } else {
+                // node is a start point,
+                // propagate the value to the call sites in the method
+                for (Node callSite : callSitesOf.get(node)) {
+                    Map<D, Map<D, EdgeFunction<V>>> fs = jumpFn.get(callSite);
+                    if (fs == null) {
+                        continue;
+                    }
+                    fs.forEach((d2, fromStart) -> {
+                        EdgeFunction<V> f = fromStart.get(fact);
+                        if (f != null &&
+                                updateValue(values, callSite, d2, f.computeTarget(value))) {
+                            valueWorkList.add(callSite);
+                            factWorkList.add(d2);
+                        }
+                    });
+                }
+            }
+        }
+        // phase 2(ii): computes values of the other nodes
+        // by the jump functions from the start points
+        TwoKeyMap<Node, D, V> results = Maps.newTwoKeyMap();
+        jumpFn.forEach((node, d2, fromStart) -> {
+            Node startPoint = getStartPointOf(node);
+            V value = problem.topValue();
+            for (var e : fromStart.entrySet()) {
+                V startValue = values.get(startPoint, e.getKey());
+                if (startValue != null) {
+                    value = problem.meetValue(value,
+                            e.getValue().computeTarget(startValue));
+                }
+            }
+            results.put(node, d2, value);
+        });
+        return new IDEResult<>(results, zero, problem.topValue());
+    }
+
+    private boolean updateValue(TwoKeyMap<Node, D, V> values,
+                                Node node, D fact, V value) {
+        V oldValue = values.get(node, fact);
+        V newValue = oldValue == null ? value : problem.meetValue(oldValue, value);
+        if (!newValue.equals(oldValue)) {
+            values.put(node, fact, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Path edge of the exploded super-graph from (start point, source)
+     * to (target, fact). The start point is implied by the target.
+     */
+    private record PathEdge<Node, D>(D source, Node target, D fact) {
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.stream.Stream;
+
+/**
+ * Interface of IFDS (interprocedural, finite, distributive, subset) problems.
+ * An IFDS problem is specified by flow functions on the four kinds of
+ * ICFG edges, and it is solved as a reachability problem on the
+ * exploded super-graph, where the nodes are pairs of ICFG nodes and facts.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public interface IFDSProblem<Method, Node, D> {
+
+    /**
+     * @return the ICFG on which this problem is defined.
+     */
+    ICFG<Method, Node> getICFG();
+
+    /**
+     * @return the special zero (Λ) fact, which holds at every
+     * reachable node and generates facts out of nothing.
+     */
+    D zeroValue();
+
+    /**
+     * @return the nodes where the analysis starts with zero fact.
+     * By default, they are the entries of the entry methods of the ICFG.
+     * Clients that only explore a part of the program can override it.
+     */
+    default Stream<Node> getSeeds() {
+        ICFG<Method, Node> icfg = getICFG();
+        return icfg.entryMethods().map(icfg::getEntryOf);
+    }
+
+    /**
+     * @return flow function for the edge within a method.
+     */
+    FlowFunction<D> getNormalFlowFunction(NormalEdge<Node> edge);
+
+    /**
+     * @return flow function for the edge from a call site to its return site,
+     * which handles the facts that are not passed to callees.
+     */
+    FlowFunction<D> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge);
+
+    /**
+     * @return flow function for the edge from a call site to the entry
+     * of a callee, which maps the facts of caller to the callee.
+     */
+    FlowFunction<D> getCallFlowFunction(CallEdge<Node> edge);
+
+    /**
+     * @return flow function for the edge from the exit of a callee
+     * to a return site, which maps the facts of callee back to the caller.
+     */
+    FlowFunction<D> getReturnFlowFunction(ReturnEdge<Node> edge);
+}
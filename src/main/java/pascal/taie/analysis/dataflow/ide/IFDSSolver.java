@@ -0,0 +1,143 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.stream.Stream;
+
+/**
+ * Solver for {@link IFDSProblem}s. An IFDS problem is solved as an IDE
+ * problem whose edge functions are all identity, and only the phase 1
+ * (i.e., computing jump functions) of {@link IDESolver} is needed.
+ *
+ * @param <Method> type of methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, D> {
+
+    private final IFDSProblem<Method, Node, D> problem;
+
+    public IFDSSolver(IFDSProblem<Method, Node, D> problem) {
+        this.problem = problem;
+    }
+
+    /**
+     * Solves the problem.
+     *
+     * @return the facts (except the zero fact) that hold before each node.
+     */
+    public MultiMap<Node, D> solve() {
+        return new IDESolver<>(new IDEAdapter<>(problem)).solveReachability();
+    }
+
+    /**
+     * Adapts an IFDS problem to an IDE problem on a two-point lattice.
+     */
+    private record IDEAdapter<Method, Node, D>(IFDSProblem<Method, Node, D> problem)
+            implements IDEProblem<Method, Node, D, Boolean> {
+
+        @Override
+        public ICFG<Method, Node> getICFG() {
+            return problem.getICFG();
+        }
+
+        @Override
+        public D zeroValue() {
+            return problem.zeroValue();
+        }
+
+        @Override
+        public Stream<Node> getSeeds() {
+            return problem.getSeeds();
+        }
+
+        @Override
+        public FlowFunction<D> getNormalFlowFunction(NormalEdge<Node> edge) {
+            return problem.getNormalFlowFunction(edge);
+        }
+
+        @Override
+        public FlowFunction<D> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge) {
+            return problem.getCallToReturnFlowFunction(edge);
+        }
+
+        @Override
+        public FlowFunction<D> getCallFlowFunction(CallEdge<Node> edge) {
+            return problem.getCallFlowFunction(edge);
+        }
+
+        @Override
+        public FlowFunction<D> getReturnFlowFunction(ReturnEdge<Node> edge) {
+            return problem.getReturnFlowFunction(edge);
+        }
+
+        /**
+         * {@code false} means that a fact does not hold.
+         */
+        @Override
+        public Boolean topValue() {
+            return false;
+        }
+
+        @Override
+        public Boolean bottomValue() {
+            return true;
+        }
+
+        @Override
+        public Boolean meetValue(Boolean v1, Boolean v2) {
+            return v1 || v2;
+        }
+
+        @Override
+        public EdgeFunction<Boolean> getNormalEdgeFunction(
+                NormalEdge<Node> edge, D source, D target) {
+            return EdgeIdentity.get();
+        }
+
+        @Override
+        public EdgeFunction<Boolean> getCallToReturnEdgeFunction(
+                CallToReturnEdge<Node> edge, D source, D target) {
+            return EdgeIdentity.get();
+        }
+
+        @Override
+        public EdgeFunction<Boolean> getCallEdgeFunction(
+                CallEdge<Node> edge, D source, D target) {
+            return EdgeIdentity.get();
+        }
+
+        @Override
+        public EdgeFunction<Boolean> getReturnEdgeFunction(
+                ReturnEdge<Node> edge, D source, D target) {
+            return EdgeIdentity.get();
+        }
+    }
+}
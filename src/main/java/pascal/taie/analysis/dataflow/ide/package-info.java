@@ -0,0 +1,40 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Provides summary-based inter-procedural data-flow analysis
+ * by IFDS/IDE tabulation algorithms, i.e.,
+ * <ul>
+ *     <li>Reps et al., "Precise interprocedural dataflow analysis via
+ *     graph reachability", POPL 1995, and</li>
+ *     <li>Sagiv et al., "Precise interprocedural dataflow analysis with
+ *     applications to constant propagation", TCS 1996.</li>
+ * </ul>
+ * Compared to {@link pascal.taie.analysis.dataflow.inter.InterDataflowAnalysis},
+ * which propagates facts of whole methods over the ICFG, the problems here
+ * are formulated on individual data-flow facts, so that the effects of
+ * each method are summarized once per fact and reused at all call sites.
+ *
+ * @see pascal.taie.analysis.dataflow.ide.IFDSProblem
+ * @see pascal.taie.analysis.dataflow.ide.IDEProblem
+ */
+package pascal.taie.analysis.dataflow.ide;
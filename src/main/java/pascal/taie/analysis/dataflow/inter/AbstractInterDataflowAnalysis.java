@@ -121,9 +121,22 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public DataflowResult<Node, Fact> analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
+        solver = makeSolver();
         DataflowResult<Node, Fact> result = solver.solve();
         finish();
         return result;
     }
+
+    /**
+     * Creates the solver according to option {@code solver} (if present):
+     * {@code parallel} for {@link ParallelInterSolver}, and
+     * {@link InterSolver} otherwise.
+     */
+    private InterSolver<Method, Node, Fact> makeSolver() {
+        if (getOptions().has("solver") &&
+                getOptions().getString("solver").equals("parallel")) {
+            return new ParallelInterSolver<>(this, icfg);
+        }
+        return new InterSolver<>(this, icfg);
+    }
 }
@@ -0,0 +1,539 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.Evaluator;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.ide.AllTop;
+import pascal.taie.analysis.dataflow.ide.EdgeFunction;
+import pascal.taie.analysis.dataflow.ide.EdgeIdentity;
+import pascal.taie.analysis.dataflow.ide.FlowFunction;
+import pascal.taie.analysis.dataflow.ide.IDEProblem;
+import pascal.taie.analysis.dataflow.ide.IDEResult;
+import pascal.taie.analysis.dataflow.ide.IDESolver;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.IntType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static pascal.taie.ir.exp.Exps.holdsInt;
+
+/**
+ * Formulates interprocedural constant propagation for int values
+ * as an {@link IDEProblem}, where the facts are int variables and
+ * the values are {@link Value}s.
+ * <p>
+ * The edge functions can express constants and the chains of binary
+ * operations with constant operands (e.g., {@code x = y * 2 + 1}), which
+ * subsumes linear constant propagation. Binary operations on two
+ * non-constant variables are not distributive, so their results are
+ * treated as constants generated from the zero fact: these constants
+ * start as UNDEF and are re-evaluated from the values of the operands
+ * after each run of {@link IDESolver}. The changed constants are then
+ * propagated by {@link IDESolver#update}, which keeps the jump functions
+ * and end summaries computed so far, until none of them changes. Since
+ * the constants only go down the lattice, this terminates. The effects
+ * of each method are summarized and reused across its callers.
+ */
+class IDEConstantPropagation implements IDEProblem<JMethod, Stmt, Var, Value> {
+
+    /**
+     * The zero fact. It is never used as a real variable.
+     */
+    private static final Var ZERO = new Var(null, "<zero>", IntType.INT, -1);
+
+    private static final EdgeFunction<Value> ALL_TOP = new AllTop<>(Value.getUndef());
+
+    private static final EdgeFunction<Value> ALL_BOTTOM =
+            new ConstantFunction(Value.getNAC());
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    /**
+     * Entries of the entry methods, at which the parameters are NAC.
+     */
+    private final Set<Stmt> entries;
+
+    /**
+     * Current values of the binary operations on two non-constant variables.
+     */
+    private final Map<Stmt, Value> binaryValues = Maps.newMap();
+
+    IDEConstantPropagation(ICFG<JMethod, Stmt> icfg) {
+        this.icfg = icfg;
+        this.entries = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Solves the problem and converts the result to the form
+     * of {@link InterConstantPropagation}.
+     */
+    DataflowResult<Stmt, CPFact> solve() {
+        IDESolver<JMethod, Stmt, Var, Value> solver = new IDESolver<>(this);
+        IDEResult<Stmt, Var, Value> ideResult = solver.solve();
+        Set<Stmt> changed = updateBinaryValues(ideResult);
+        while (!changed.isEmpty()) {
+            ideResult = solver.update(changed);
+            changed = updateBinaryValues(ideResult);
+        }
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt stmt : icfg) {
+            CPFact in = new CPFact();
+            ideResult.getValuesAt(stmt).forEach(in::update);
+            result.setInFact(stmt, in);
+            result.setOutFact(stmt, computeOutFact(stmt, ideResult));
+        }
+        return result;
+    }
+
+    /**
+     * Re-evaluates the binary operations on two non-constant variables
+     * with the values of their operands in given result.
+     *
+     * @return the operations whose values change.
+     */
+    private Set<Stmt> updateBinaryValues(IDEResult<Stmt, Var, Value> ideResult) {
+        Set<Stmt> changed = Sets.newHybridSet();
+        for (Map.Entry<Stmt, Value> entry : binaryValues.entrySet()) {
+            Stmt stmt = entry.getKey();
+            BinaryExp binary = (BinaryExp) ((DefinitionStmt<?, ?>) stmt).getRValue();
+            Value v = Evaluator.evaluate(binary.getOperator(),
+                    ideResult.getValue(stmt, binary.getOperand1()),
+                    ideResult.getValue(stmt, binary.getOperand2()));
+            Value newValue = meet(entry.getValue(), v);
+            if (!newValue.equals(entry.getValue())) {
+                entry.setValue(newValue);
+                changed.add(stmt);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Computes the out fact of given stmt by applying the flow and edge
+     * functions of its intra-procedural out edge to the values before it.
+     */
+    private CPFact computeOutFact(Stmt stmt, IDEResult<Stmt, Var, Value> ideResult) {
+        CPFact out = new CPFact();
+        ICFGEdge<Stmt> edge = icfg.getOutEdgesOf(stmt)
+                .stream()
+                .filter(e -> e instanceof NormalEdge<Stmt> ||
+                        e instanceof CallToReturnEdge<Stmt>)
+                .findFirst()
+                .orElse(null);
+        if (edge == null) { // exit node
+            ideResult.getValuesAt(stmt).forEach(out::update);
+            return out;
+        }
+        if (!ideResult.isReachable(stmt)) {
+            return out;
+        }
+        Map<Var, Value> values = ideResult.getValuesAt(stmt);
+        Set<Var> facts = Sets.newHybridSet(values.keySet());
+        facts.add(ZERO);
+        for (Var d : facts) {
+            Value value = ideResult.getValue(stmt, d);
+            if (edge instanceof NormalEdge<Stmt> normalEdge) {
+                for (Var d2 : getNormalFlowFunction(normalEdge).compute(d)) {
+                    if (d2 != ZERO) {
+                        Value v2 = getNormalEdgeFunction(normalEdge, d, d2)
+                                .computeTarget(value);
+                        out.update(d2, meetValue(out.get(d2), v2));
+                    }
+                }
+            } else {
+                CallToReturnEdge<Stmt> c2rEdge = (CallToReturnEdge<Stmt>) edge;
+                for (Var d2 : getCallToReturnFlowFunction(c2rEdge).compute(d)) {
+                    if (d2 != ZERO) {
+                        out.update(d2, meetValue(out.get(d2), value));
+                    }
+                }
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public ICFG<JMethod, Stmt> getICFG() {
+        return icfg;
+    }
+
+    @Override
+    public Var zeroValue() {
+        return ZERO;
+    }
+
+    @Override
+    public Value topValue() {
+        return Value.getUndef();
+    }
+
+    @Override
+    public Value bottomValue() {
+        return Value.getNAC();
+    }
+
+    @Override
+    public EdgeFunction<Value> allTopFunction() {
+        return ALL_TOP;
+    }
+
+    @Override
+    public Value meetValue(Value v1, Value v2) {
+        return meet(v1, v2);
+    }
+
+    private static Value meet(Value v1, Value v2) {
+        if (v1.isUndef()) {
+            return v2;
+        } else if (v2.isUndef()) {
+            return v1;
+        } else if (v1.equals(v2)) {
+            return v1;
+        } else {
+            return Value.getNAC();
+        }
+    }
+
+    @Override
+    public FlowFunction<Var> getNormalFlowFunction(NormalEdge<Stmt> edge) {
+        Stmt stmt = edge.source();
+        if (entries.contains(stmt)) {
+            // make conservative assumption about parameters of entry methods
+            List<Var> params = icfg.getContainingMethodOf(stmt).getIR().getParams();
+            return d -> {
+                if (d == ZERO) {
+                    Set<Var> result = Sets.newHybridSet();
+                    result.add(ZERO);
+                    params.stream()
+                            .filter(p -> holdsInt(p))
+                            .forEach(result::add);
+                    return result;
+                }
+                return Set.of(d);
+            };
+        }
+        Var lhs = getIntLValue(stmt);
+        if (lhs == null) {
+            return FlowFunction.identity();
+        }
+        Exp rhs = ((DefinitionStmt<?, ?>) stmt).getRValue();
+        Var operand = getOperand(rhs);
+        return d -> {
+            if (d == ZERO) {
+                return operand == null && !isUndef(rhs) ?
+                        Set.of(ZERO, lhs) : Set.of(ZERO);
+            } else if (d.equals(operand)) {
+                return d.equals(lhs) ? Set.of(lhs) : Set.of(d, lhs);
+            } else {
+                return d.equals(lhs) ? Set.of() : Set.of(d);
+            }
+        };
+    }
+
+    @Override
+    public EdgeFunction<Value> getNormalEdgeFunction(
+            NormalEdge<Stmt> edge, Var source, Var target) {
+        Stmt stmt = edge.source();
+        if (entries.contains(stmt)) {
+            return source == ZERO && target != ZERO ?
+                    ALL_BOTTOM : EdgeIdentity.get();
+        }
+        Var lhs = getIntLValue(stmt);
+        if (lhs == null || !target.equals(lhs)) {
+            return EdgeIdentity.get();
+        }
+        Exp rhs = ((DefinitionStmt<?, ?>) stmt).getRValue();
+        if (source == ZERO) {
+            // the value of lhs does not depend on a single variable
+            if (isBinaryOnVars(rhs)) {
+                return new ConstantFunction(binaryValues.computeIfAbsent(
+                        stmt, __ -> Value.getUndef()));
+            }
+            return new ConstantFunction(evaluateConstant(rhs));
+        }
+        if (rhs instanceof BinaryExp binary) {
+            Var op1 = binary.getOperand1();
+            UnaryOp op = source.equals(op1) ?
+                    new UnaryOp(binary.getOperator(),
+                            getConstant(binary.getOperand2()), true) :
+                    new UnaryOp(binary.getOperator(), getConstant(op1), false);
+            return new UnaryFunction(List.of(op));
+        }
+        // copy
+        return EdgeIdentity.get();
+    }
+
+    /**
+     * @return the LHS variable of given stmt if it is an int variable
+     * defined by the stmt, otherwise {@code null}.
+     */
+    private static Var getIntLValue(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                !(stmt instanceof Invoke) &&
+                def.getLValue() instanceof Var lhs && holdsInt(lhs)) {
+            return lhs;
+        }
+        return null;
+    }
+
+    /**
+     * @return the only non-constant int variable that the value of
+     * given expression depends on, or {@code null} if such variable
+     * does not exist, e.g., the expression is constant or depends
+     * on multiple variables.
+     */
+    private static Var getOperand(Exp rhs) {
+        if (rhs instanceof Var var) {
+            return holdsInt(var) && !isIntConst(var) ? var : null;
+        } else if (rhs instanceof BinaryExp binary) {
+            Var op1 = binary.getOperand1();
+            Var op2 = binary.getOperand2();
+            if (!holdsInt(op1) || !holdsInt(op2)) {
+                return null;
+            }
+            if (isIntConst(op1) && !isIntConst(op2)) {
+                return op2;
+            } else if (!isIntConst(op1) && isIntConst(op2)) {
+                return op1;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} if given expression is a binary operation
+     * on two non-constant int variables.
+     */
+    private static boolean isBinaryOnVars(Exp rhs) {
+        return rhs instanceof BinaryExp binary &&
+                holdsInt(binary.getOperand1()) && !isIntConst(binary.getOperand1()) &&
+                holdsInt(binary.getOperand2()) && !isIntConst(binary.getOperand2());
+    }
+
+    /**
+     * @return {@code true} if the value of given expression is
+     * definitely undefined, e.g., division by zero.
+     */
+    private static boolean isUndef(Exp rhs) {
+        return evaluateConstant(rhs).isUndef();
+    }
+
+    /**
+     * @return the value of given expression which does not depend on
+     * any non-constant variables, otherwise NAC.
+     */
+    private static Value evaluateConstant(Exp rhs) {
+        if (rhs instanceof IntLiteral literal) {
+            return Value.makeConstant(literal.getValue());
+        } else if (rhs instanceof Var var && isIntConst(var)) {
+            return Value.makeConstant(getConstant(var));
+        } else if (rhs instanceof BinaryExp binary &&
+                isIntConst(binary.getOperand1()) &&
+                isIntConst(binary.getOperand2())) {
+            return Evaluator.evaluate(binary.getOperator(),
+                    Value.makeConstant(getConstant(binary.getOperand1())),
+                    Value.makeConstant(getConstant(binary.getOperand2())));
+        }
+        return Value.getNAC();
+    }
+
+    private static boolean isIntConst(Var var) {
+        return holdsInt(var) && var.isConst() &&
+                var.getConstValue() instanceof IntLiteral;
+    }
+
+    private static int getConstant(Var var) {
+        return ((IntLiteral) var.getConstValue()).getValue();
+    }
+
+    @Override
+    public FlowFunction<Var> getCallToReturnFlowFunction(CallToReturnEdge<Stmt> edge) {
+        // kill the value of LHS variable
+        Var lhs = ((Invoke) edge.source()).getResult();
+        return lhs == null ? FlowFunction.identity() :
+                d -> d.equals(lhs) ? Set.of() : Set.of(d);
+    }
+
+    @Override
+    public EdgeFunction<Value> getCallToReturnEdgeFunction(
+            CallToReturnEdge<Stmt> edge, Var source, Var target) {
+        return EdgeIdentity.get();
+    }
+
+    @Override
+    public FlowFunction<Var> getCallFlowFunction(CallEdge<Stmt> edge) {
+        // pass arguments at call site to parameters of the callee
+        InvokeExp invokeExp = ((Invoke) edge.source()).getInvokeExp();
+        JMethod callee = edge.getCallee();
+        if (invokeExp instanceof InvokeDynamic ||
+                !invokeExp.getMethodRef().getSubsignature()
+                        .equals(callee.getSubsignature())) {
+            // skip invokedynamic and the special call edges
+            // whose call-site subsignature does not equal to callee's
+            return d -> d == ZERO ? Set.of(ZERO) : Set.of();
+        }
+        List<Var> args = invokeExp.getArgs();
+        List<Var> params = callee.getIR().getParams();
+        return d -> {
+            if (d == ZERO) {
+                return Set.of(ZERO);
+            }
+            Set<Var> result = Sets.newHybridSet();
+            for (int i = 0; i < args.size(); ++i) {
+                if (args.get(i).equals(d) && holdsInt(params.get(i))) {
+                    result.add(params.get(i));
+                }
+            }
+            return result;
+        };
+    }
+
+    @Override
+    public EdgeFunction<Value> getCallEdgeFunction(
+            CallEdge<Stmt> edge, Var source, Var target) {
+        return EdgeIdentity.get();
+    }
+
+    @Override
+    public FlowFunction<Var> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+        // pass return values to the LHS of the call statement
+        Var lhs = ((Invoke) edge.getCallSite()).getResult();
+        boolean passReturn = lhs != null && holdsInt(lhs);
+        return d -> {
+            if (d == ZERO) {
+                return Set.of(ZERO);
+            }
+            return passReturn && edge.getReturnVars().contains(d) ?
+                    Set.of(lhs) : Set.of();
+        };
+    }
+
+    @Override
+    public EdgeFunction<Value> getReturnEdgeFunction(
+            ReturnEdge<Stmt> edge, Var source, Var target) {
+        return EdgeIdentity.get();
+    }
+
+    /**
+     * Edge function that maps all values to a constant value.
+     */
+    private record ConstantFunction(Value value) implements EdgeFunction<Value> {
+
+        @Override
+        public Value computeTarget(Value source) {
+            return value;
+        }
+
+        @Override
+        public EdgeFunction<Value> composeWith(EdgeFunction<Value> second) {
+            return new ConstantFunction(second.computeTarget(value));
+        }
+
+        @Override
+        public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+            if (other instanceof ConstantFunction c) {
+                return new ConstantFunction(meet(value, c.value));
+            }
+            return other.equals(ALL_TOP) ? this : ALL_BOTTOM;
+        }
+    }
+
+    /**
+     * Binary operation with a constant operand.
+     *
+     * @param constantOnRight whether the constant is the second operand
+     */
+    private record UnaryOp(BinaryExp.Op op, int constant, boolean constantOnRight) {
+
+        private Value apply(Value v) {
+            Value c = Value.makeConstant(constant);
+            return constantOnRight ?
+                    Evaluator.evaluate(op, v, c) :
+                    Evaluator.evaluate(op, c, v);
+        }
+    }
+
+    /**
+     * Edge function that applies a sequence of {@link UnaryOp}s.
+     */
+    private record UnaryFunction(List<UnaryOp> ops) implements EdgeFunction<Value> {
+
+        @Override
+        public Value computeTarget(Value source) {
+            Value v = source;
+            for (UnaryOp op : ops) {
+                v = op.apply(v);
+            }
+            return v;
+        }
+
+        @Override
+        public EdgeFunction<Value> composeWith(EdgeFunction<Value> second) {
+            if (second instanceof UnaryFunction u) {
+                List<UnaryOp> newOps = new ArrayList<>(ops.size() + u.ops.size());
+                newOps.addAll(ops);
+                newOps.addAll(u.ops);
+                return new UnaryFunction(newOps);
+            } else if (second instanceof EdgeIdentity<Value>) {
+                return this;
+            } else {
+                // constant function or all-top function
+                return second;
+            }
+        }
+
+        @Override
+        public EdgeFunction<Value> meetWith(EdgeFunction<Value> other) {
+            if (equals(other) || other.equals(ALL_TOP)) {
+                return this;
+            }
+            return ALL_BOTTOM;
+        }
+    }
+}
@@ -26,14 +26,17 @@ import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.analysis.pta.PointerAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeDynamic;
 import pascal.taie.ir.exp.InvokeExp;
@@ -77,6 +80,13 @@ public class InterConstantPropagation extends
      */
     private final boolean aliasAware;
 
+    /**
+     * Whether to solve the analysis with the summary-based IDE solver.
+     *
+     * @see IDEConstantPropagation
+     */
+    private final boolean useIDE;
+
     /**
      * Map from store statements to the corresponding load statements,
      * including both static and instance field stores and loads.
@@ -97,9 +107,24 @@ public class InterConstantPropagation extends
         super(config);
         edgeRefine = getOptions().getBoolean("edge-refine");
         aliasAware = getOptions().getBoolean("alias-aware");
+        String solver = getOptions().getString("solver");
+        useIDE = solver.equals("ide");
+        if (aliasAware && !solver.equals("worklist")) {
+            throw new ConfigException(solver + " solver of " + ID +
+                    " does not support alias-aware mode");
+        }
         cp = new ConstantPropagation.Analysis(null, edgeRefine);
     }
 
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze() {
+        if (useIDE) {
+            icfg = World.get().getResult(ICFGBuilder.ID);
+            return new IDEConstantPropagation(icfg).solve();
+        }
+        return super.analyze();
+    }
+
     @Override
     protected void initialize() {
         if (!aliasAware) {
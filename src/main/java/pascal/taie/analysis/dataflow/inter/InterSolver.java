@@ -37,9 +37,9 @@ import java.util.stream.Collectors;
  */
 class InterSolver<Method, Node, Fact> {
 
-    private final InterDataflowAnalysis<Node, Fact> analysis;
+    protected final InterDataflowAnalysis<Node, Fact> analysis;
 
-    private final ICFG<Method, Node> icfg;
+    protected final ICFG<Method, Node> icfg;
 
     private DataflowResult<Node, Fact> result;
 
@@ -0,0 +1,392 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel solver for inter-procedural data-flow analysis.
+ * <p>
+ * The solver partitions the ICFG by the strongly-connected components
+ * of the call graph. Each component owns the facts of the nodes in its
+ * methods (stored per method), and is solved by at most one thread at a time.
+ * Facts that flow along ICFG edges crossing two components are transferred
+ * by the thread of the source component, and then met into the mailbox of
+ * the target node, which re-schedules the target component.
+ * Components are released top-down, i.e., in topological order of the
+ * condensed call graph, thus a component usually starts after the facts
+ * from its callers are available, and independent components are solved
+ * concurrently on a {@link ForkJoinPool}.
+ * <p>
+ * As the in facts are only accumulated by meet, this solver reaches
+ * the same fixed point as {@link InterSolver}.
+ * <p>
+ * {@link #propagate(Object)} is routed to the component that owns the
+ * given node, which re-processes the node and sends its out fact to the
+ * successors, as if its transfer changed the out fact.
+ * {@link #getOutFact(Object)} returns the fact that is owned by the
+ * component of the given node, thus an analysis which accesses the facts
+ * of the nodes in other methods during transfer must synchronize
+ * the accesses by itself, as the components are solved concurrently.
+ */
+class ParallelInterSolver<Method, Node, Fact> extends InterSolver<Method, Node, Fact> {
+
+    /**
+     * Facts of the nodes in each method.
+     */
+    private Map<Method, DataflowResult<Node, Fact>> methodResults;
+
+    private Map<Method, Component> componentOf;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Number of submitted but unfinished component tasks.
+     */
+    private AtomicInteger pending;
+
+    private CountDownLatch done;
+
+    /**
+     * The first exception thrown by the component tasks.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    ParallelInterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                        ICFG<Method, Node> icfg) {
+        super(analysis, icfg);
+    }
+
+    @Override
+    DataflowResult<Node, Fact> solve() {
+        initialize();
+        doSolve();
+        DataflowResult<Node, Fact> result = new DataflowResult<>();
+        icfg.forEach(node -> {
+            DataflowResult<Node, Fact> methodResult = getResult(node);
+            result.setInFact(node, methodResult.getInFact(node));
+            result.setOutFact(node, methodResult.getOutFact(node));
+        });
+        return result;
+    }
+
+    private void initialize() {
+        // build call graph from the ICFG
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        icfg.forEach(node -> {
+            Method method = icfg.getContainingMethodOf(node);
+            callGraph.addNode(method);
+            if (icfg.isCallSite(node)) {
+                icfg.getCalleesOf(node).forEach(callee ->
+                        callGraph.addEdge(method, callee));
+            }
+        });
+        // create components and connect them according to the condensed
+        // call graph, in which the edges go from callers to callees
+        MergedSCCGraph<Method> sccGraph = new MergedSCCGraph<>(callGraph);
+        Map<MergedNode<Method>, Component> components =
+                Maps.newMap(sccGraph.getNumberOfNodes());
+        componentOf = Maps.newMap(callGraph.getNumberOfNodes());
+        sccGraph.forEach(scc -> {
+            Component component = new Component(sccGraph.getInDegreeOf(scc));
+            components.put(scc, component);
+            scc.getNodes().forEach(m -> componentOf.put(m, component));
+        });
+        sccGraph.forEach(scc -> sccGraph.getSuccsOf(scc).forEach(succ ->
+                components.get(scc).succs.add(components.get(succ))));
+        // initialize facts, and add all nodes to the work-lists
+        methodResults = Maps.newMap(callGraph.getNumberOfNodes());
+        callGraph.forEach(m -> methodResults.put(m, new DataflowResult<>()));
+        Set<Node> entryNodes = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toSet());
+        icfg.forEach(node -> {
+            DataflowResult<Node, Fact> result = getResult(node);
+            if (entryNodes.contains(node)) {
+                result.setInFact(node, analysis.newBoundaryFact(node));
+                result.setOutFact(node, analysis.newBoundaryFact(node));
+            } else {
+                result.setInFact(node, analysis.newInitialFact());
+                result.setOutFact(node, analysis.newInitialFact());
+            }
+            getComponent(node).workList.add(node);
+        });
+    }
+
+    private void doSolve() {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        // the solver itself holds one pending count until all
+        // root components have been released
+        pending = new AtomicInteger(1);
+        done = new CountDownLatch(1);
+        componentOf.values()
+                .stream()
+                .distinct()
+                .filter(c -> c.unfinishedPreds.get() == 0)
+                .toList() // collect roots before any component is released
+                .forEach(Component::release);
+        finishTask();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdown();
+        }
+        Throwable e = failure.get();
+        if (e instanceof RuntimeException re) {
+            throw re;
+        } else if (e instanceof Error err) {
+            throw err;
+        } else if (e != null) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void submit(Component component) {
+        pending.incrementAndGet();
+        pool.execute(component);
+    }
+
+    private void finishTask() {
+        if (pending.decrementAndGet() == 0) {
+            done.countDown();
+        }
+    }
+
+    private DataflowResult<Node, Fact> getResult(Node node) {
+        return methodResults.get(icfg.getContainingMethodOf(node));
+    }
+
+    private Component getComponent(Node node) {
+        return componentOf.get(icfg.getContainingMethodOf(node));
+    }
+
+    @Override
+    void propagate(Node node) {
+        getComponent(node).schedule(node);
+    }
+
+    @Override
+    Fact getOutFact(Node node) {
+        return getResult(node).getOutFact(node);
+    }
+
+    /**
+     * A strongly-connected component of the call graph, which is
+     * solved by at most one thread at a time.
+     */
+    private class Component implements Runnable {
+
+        /**
+         * Successors of this component in the condensed call graph.
+         */
+        private final List<Component> succs = new ArrayList<>();
+
+        /**
+         * Number of predecessors which have not drained their work-lists
+         * for the first time. This component is released when it becomes 0.
+         */
+        private final AtomicInteger unfinishedPreds;
+
+        /**
+         * Nodes that have been processed, only accessed by
+         * the thread running this component.
+         */
+        private final Set<Node> visited = Sets.newSet();
+
+        // following fields are guarded by this component
+
+        private final Queue<Node> workList = new SetQueue<>();
+
+        /**
+         * Facts which flow into the nodes of this component from other
+         * components and have not been met into the in facts.
+         */
+        private final Map<Node, Fact> mailbox = Maps.newMap();
+
+        /**
+         * Nodes whose out facts must be sent to their successors
+         * when they are processed next time.
+         */
+        private final Set<Node> forced = Sets.newSet();
+
+        private boolean released = false;
+
+        private boolean running = false;
+
+        private boolean drained = false;
+
+        private Component(int nPreds) {
+            unfinishedPreds = new AtomicInteger(nPreds);
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Node node;
+                    boolean firstDrained = false;
+                    synchronized (this) {
+                        node = workList.poll();
+                        if (node == null) {
+                            running = false;
+                            firstDrained = !drained;
+                            drained = true;
+                        }
+                    }
+                    if (node == null) {
+                        if (firstDrained) {
+                            succs.forEach(Component::onPredDrained);
+                        }
+                        return;
+                    }
+                    process(node);
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                finishTask();
+            }
+        }
+
+        private void process(Node node) {
+            DataflowResult<Node, Fact> result = getResult(node);
+            // meet incoming facts
+            Fact in = result.getInFact(node);
+            for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(node)) {
+                Node source = inEdge.source();
+                if (getComponent(source) == this) {
+                    Fact predOut = getResult(source).getOutFact(source);
+                    analysis.meetInto(analysis.transferEdge(inEdge, predOut), in);
+                }
+            }
+            Fact incoming;
+            boolean force;
+            synchronized (this) {
+                incoming = mailbox.remove(node);
+                force = forced.remove(node);
+            }
+            if (incoming != null) {
+                analysis.meetInto(incoming, in);
+            }
+            Fact out = result.getOutFact(node);
+            boolean changed = analysis.transferNode(node, in, out) || force;
+            // the first out fact is always sent to other components,
+            // as they cannot pull it from the nodes of this component
+            boolean first = visited.add(node);
+            for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(node)) {
+                Node target = outEdge.target();
+                Component component = getComponent(target);
+                if (component == this) {
+                    if (changed) {
+                        synchronized (this) {
+                            workList.add(target);
+                        }
+                    }
+                } else if (changed || first) {
+                    component.receive(target,
+                            analysis.transferEdge(outEdge, out));
+                }
+            }
+        }
+
+        /**
+         * Receives a fact which flows into given node from another component.
+         */
+        private void receive(Node node, Fact fact) {
+            boolean start;
+            synchronized (this) {
+                // copy the fact, as edge transfer may return the out fact
+                // of the source node, which is owned by another component
+                Fact incoming = mailbox.computeIfAbsent(node,
+                        __ -> analysis.newInitialFact());
+                analysis.meetInto(fact, incoming);
+                workList.add(node);
+                start = released && !running;
+                if (start) {
+                    running = true;
+                }
+            }
+            if (start) {
+                submit(this);
+            }
+        }
+
+        /**
+         * Schedules given node of this component, whose out fact
+         * will be sent to its successors after it is processed.
+         */
+        private void schedule(Node node) {
+            boolean start;
+            synchronized (this) {
+                forced.add(node);
+                workList.add(node);
+                start = released && !running;
+                if (start) {
+                    running = true;
+                }
+            }
+            if (start) {
+                submit(this);
+            }
+        }
+
+        private void onPredDrained() {
+            if (unfinishedPreds.decrementAndGet() == 0) {
+                release();
+            }
+        }
+
+        private void release() {
+            boolean start;
+            synchronized (this) {
+                released = true;
+                start = !running;
+                running = true;
+            }
+            if (start) {
+                submit(this);
+            }
+        }
+    }
+}
@@ -28,6 +28,8 @@ import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
 import pascal.taie.util.collection.IndexMap;
 
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Provides common functionalities for {@link Solver}.
  *
@@ -36,6 +38,13 @@ import pascal.taie.util.collection.IndexMap;
  */
 abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
 
+    /**
+     * Counts node transfers performed by this solver. A solver may be
+     * shared by analyses of multiple methods running in parallel,
+     * thus we use {@link LongAdder} here.
+     */
+    private final LongAdder transferCount = new LongAdder();
+
     @Override
     public DataflowResult<Node, Fact> solve(DataflowAnalysis<Node, Fact> analysis) {
         DataflowResult<Node, Fact> result = initialize(analysis);
@@ -110,6 +119,23 @@ abstract class AbstractSolver<Node, Fact> implements Solver<Node, Fact> {
         }
     }
 
+    /**
+     * Applies the node transfer function of given analysis and
+     * records the transfer.
+     *
+     * @return the result of {@link DataflowAnalysis#transferNode}.
+     */
+    protected boolean transferNode(DataflowAnalysis<Node, Fact> analysis,
+                                   Node node, Fact in, Fact out) {
+        transferCount.increment();
+        return analysis.transferNode(node, in, out);
+    }
+
+    @Override
+    public long getTransferCount() {
+        return transferCount.sum();
+    }
+
     protected abstract void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
                                            DataflowResult<Node, Fact> result);
 
@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.config.ConfigException;
 
 /**
  * Interface of data-flow analysis solver.
@@ -47,10 +48,31 @@ public interface Solver<Node, Fact> {
         return (Solver<Node, Fact>) SOLVER;
     }
 
+    /**
+     * Static factory method for creating a new solver of given kind.
+     * Unlike {@link #getSolver()}, the returned solver is not shared,
+     * so that its statistics (e.g., {@link #getTransferCount()})
+     * reflect only the analysis using it.
+     *
+     * @param kind kind of the solver, i.e., "worklist" or "wto"
+     */
+    static <Node, Fact> Solver<Node, Fact> makeSolver(String kind) {
+        return switch (kind) {
+            case "worklist" -> new WorkListSolver<>();
+            case "wto" -> new WTOSolver<>();
+            default -> throw new ConfigException("Unknown data-flow solver: " + kind);
+        };
+    }
+
     /**
      * Solves the given analysis problem.
      *
      * @return the data-flow analysis result
      */
     DataflowResult<Node, Fact> solve(DataflowAnalysis<Node, Fact> analysis);
+
+    /**
+     * @return the number of node transfers performed by this solver so far.
+     */
+    long getTransferCount();
 }
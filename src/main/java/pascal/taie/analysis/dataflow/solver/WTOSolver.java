@@ -0,0 +1,188 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.WideningAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.graph.ReverseGraph;
+import pascal.taie.util.graph.WeakTopologicalOrder;
+import pascal.taie.util.graph.WeakTopologicalOrder.Component;
+import pascal.taie.util.graph.WeakTopologicalOrder.Element;
+import pascal.taie.util.graph.WeakTopologicalOrder.Vertex;
+
+import java.util.List;
+
+/**
+ * Solver that follows the recursive iteration strategy over the
+ * weak topological order (WTO) of the CFG.
+ * <p>
+ * Nodes are visited in the WTO, and each component is iterated
+ * (with its inner components stabilized first) until its head is stable.
+ * Compared to {@link WorkListSolver}, this strategy avoids re-evaluating
+ * the nodes outside loops, and it supports widening at the heads of
+ * components for {@link WideningAnalysis}.
+ * <p>
+ * This solver reuses the fact initialization and node update
+ * of {@link WorkListSolver}.
+ */
+class WTOSolver<Node, Fact> extends WorkListSolver<Node, Fact> {
+
+    @Override
+    protected void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
+                                  DataflowResult<Node, Fact> result) {
+        CFG<Node> cfg = analysis.getCFG();
+        var wto = new WeakTopologicalOrder<>(cfg, cfg.getEntry());
+        new Iteration(analysis, result, true).iterate(wto.getElements());
+    }
+
+    @Override
+    protected void doSolveBackward(DataflowAnalysis<Node, Fact> analysis,
+                                   DataflowResult<Node, Fact> result) {
+        CFG<Node> cfg = analysis.getCFG();
+        var wto = new WeakTopologicalOrder<>(
+                new ReverseGraph<>(cfg), cfg.getExit());
+        new Iteration(analysis, result, false).iterate(wto.getElements());
+    }
+
+    /**
+     * Iterates over the elements of a WTO for an analysis.
+     * Note that the boundary node (entry or exit) has no incoming edges
+     * (in the direction of the analysis), so it never becomes a head.
+     */
+    private class Iteration {
+
+        private final DataflowAnalysis<Node, Fact> analysis;
+
+        private final DataflowResult<Node, Fact> result;
+
+        private final boolean isForward;
+
+        private final CFG<Node> cfg;
+
+        /**
+         * Non-null if the analysis requires widening.
+         */
+        private final WideningAnalysis<Node, Fact> widening;
+
+        private Iteration(DataflowAnalysis<Node, Fact> analysis,
+                         DataflowResult<Node, Fact> result,
+                         boolean isForward) {
+            this.analysis = analysis;
+            this.result = result;
+            this.isForward = isForward;
+            this.cfg = analysis.getCFG();
+            this.widening = analysis instanceof WideningAnalysis<Node, Fact> wa
+                    ? wa : null;
+        }
+
+        private void iterate(List<Element<Node>> elements) {
+            for (Element<Node> element : elements) {
+                if (element instanceof Vertex<Node> v) {
+                    Node node = v.node();
+                    // the boundary node has been initialized,
+                    // and it does not need transfer
+                    if (!isBoundary(node)) {
+                        update(node);
+                    }
+                } else if (element instanceof Component<Node> c) {
+                    iterate(c);
+                }
+            }
+        }
+
+        private void iterate(Component<Node> component) {
+            Node head = component.head();
+            for (int iteration = 0; ; ++iteration) {
+                boolean changed = updateHead(head, iteration);
+                // the component is stable when its head is unchanged after
+                // the other nodes have been iterated with the head's fact
+                if (iteration > 0 && !changed) {
+                    break;
+                }
+                iterate(component.elements());
+            }
+        }
+
+        private boolean updateHead(Node head, int iteration) {
+            if (widening == null ||
+                    iteration <= widening.getWideningDelay() ||
+                    getDegree(head) <= 1) {
+                return update(head);
+            }
+            Fact confluence = isForward ?
+                    result.getInFact(head) : result.getOutFact(head);
+            Fact previous = widening.copyFact(confluence);
+            meet(head);
+            widening.widenInto(head, previous, confluence);
+            return transfer(head);
+        }
+
+        private boolean update(Node node) {
+            return isForward ?
+                    updateForward(analysis, result, node) :
+                    updateBackward(analysis, result, node);
+        }
+
+        /**
+         * Meets incoming facts into the confluence fact of given node,
+         * which has more than one incoming edge.
+         */
+        private void meet(Node node) {
+            if (isForward) {
+                Fact in = result.getInFact(node);
+                cfg.getInEdgesOf(node).forEach(inEdge -> {
+                    Fact fact = result.getOutFact(inEdge.source());
+                    if (analysis.needTransferEdge(inEdge)) {
+                        fact = analysis.transferEdge(inEdge, fact);
+                    }
+                    analysis.meetInto(fact, in);
+                });
+            } else {
+                Fact out = result.getOutFact(node);
+                cfg.getOutEdgesOf(node).forEach(outEdge -> {
+                    Fact fact = result.getInFact(outEdge.target());
+                    if (analysis.needTransferEdge(outEdge)) {
+                        fact = analysis.transferEdge(outEdge, fact);
+                    }
+                    analysis.meetInto(fact, out);
+                });
+            }
+        }
+
+        private boolean transfer(Node node) {
+            return transferNode(analysis, node,
+                    result.getInFact(node), result.getOutFact(node));
+        }
+
+        private int getDegree(Node node) {
+            return isForward ?
+                    cfg.getInDegreeOf(node) : cfg.getOutDegreeOf(node);
+        }
+
+        private boolean isBoundary(Node node) {
+            return isForward ? cfg.isEntry(node) : cfg.isExit(node);
+        }
+    }
+}
@@ -24,6 +24,7 @@ package pascal.taie.analysis.dataflow.solver;
 
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.cfg.ArrayCFG;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGEdge;
 import pascal.taie.util.collection.CollectionUtils;
@@ -91,37 +92,57 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
         });
         while (!workList.isEmpty()) {
             Node node = workList.pollFirst();
-            // meet incoming facts
-            Fact in;
-            int inDegree = cfg.getInDegreeOf(node);
-            if (inDegree > 1) {
-                in = result.getInFact(node);
-                cfg.getInEdgesOf(node).forEach(inEdge -> {
-                    Fact fact = result.getOutFact(inEdge.source());
-                    if (analysis.needTransferEdge(inEdge)) {
-                        fact = analysis.transferEdge(inEdge, fact);
+            if (updateForward(analysis, result, node)) {
+                if (cfg instanceof ArrayCFG arrayCFG) {
+                    // iterate successors by indexes to avoid creating set views
+                    int index = cfg.getIndex(node);
+                    for (int i = 0; i < arrayCFG.getOutDegreeOf(index); ++i) {
+                        workList.add(cfg.getNode(arrayCFG.getSuccOf(index, i)));
                     }
-                    analysis.meetInto(fact, in);
-                });
-            } else if (inDegree == 1) {
-                CFGEdge<Node> inEdge = CollectionUtils.getOne(cfg.getInEdgesOf(node));
-                if (analysis.needTransferEdge(inEdge)) {
-                    in = analysis.transferEdge(inEdge,
-                            result.getOutFact(inEdge.source()));
-                    result.setInFact(node, in);
                 } else {
-                    in = result.getInFact(node);
+                    workList.addAll(cfg.getSuccsOf(node));
                 }
+            }
+        }
+    }
+
+    /**
+     * Meets the incoming facts of given node and applies its transfer
+     * function in forward analysis.
+     *
+     * @return {@code true} if the out fact of the node is changed.
+     */
+    protected boolean updateForward(DataflowAnalysis<Node, Fact> analysis,
+                                    DataflowResult<Node, Fact> result,
+                                    Node node) {
+        CFG<Node> cfg = analysis.getCFG();
+        // meet incoming facts
+        Fact in;
+        int inDegree = cfg.getInDegreeOf(node);
+        if (inDegree > 1) {
+            in = result.getInFact(node);
+            cfg.getInEdgesOf(node).forEach(inEdge -> {
+                Fact fact = result.getOutFact(inEdge.source());
+                if (analysis.needTransferEdge(inEdge)) {
+                    fact = analysis.transferEdge(inEdge, fact);
+                }
+                analysis.meetInto(fact, in);
+            });
+        } else if (inDegree == 1) {
+            CFGEdge<Node> inEdge = CollectionUtils.getOne(cfg.getInEdgesOf(node));
+            if (analysis.needTransferEdge(inEdge)) {
+                in = analysis.transferEdge(inEdge,
+                        result.getOutFact(inEdge.source()));
+                result.setInFact(node, in);
             } else {
                 in = result.getInFact(node);
             }
-            // apply node transfer function
-            Fact out = result.getOutFact(node);
-            boolean changed = analysis.transferNode(node, in, out);
-            if (changed) {
-                workList.addAll(cfg.getSuccsOf(node));
-            }
+        } else {
+            in = result.getInFact(node);
         }
+        // apply node transfer function
+        Fact out = result.getOutFact(node);
+        return transferNode(analysis, node, in, out);
     }
 
     @Override
@@ -178,36 +199,56 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
         });
         while (!workList.isEmpty()) {
             Node node = workList.pollFirst();
-            // meet incoming facts
-            Fact out;
-            int outDegree = cfg.getOutDegreeOf(node);
-            if (outDegree > 1) {
-                out = result.getOutFact(node);
-                cfg.getOutEdgesOf(node).forEach(outEdge -> {
-                    Fact fact = result.getInFact(outEdge.target());
-                    if (analysis.needTransferEdge(outEdge)) {
-                        fact = analysis.transferEdge(outEdge, fact);
+            if (updateBackward(analysis, result, node)) {
+                if (cfg instanceof ArrayCFG arrayCFG) {
+                    // iterate predecessors by indexes to avoid creating set views
+                    int index = cfg.getIndex(node);
+                    for (int i = 0; i < arrayCFG.getInDegreeOf(index); ++i) {
+                        workList.add(cfg.getNode(arrayCFG.getPredOf(index, i)));
                     }
-                    analysis.meetInto(fact, out);
-                });
-            } else if (outDegree == 1) {
-                CFGEdge<Node> outEdge = CollectionUtils.getOne(cfg.getOutEdgesOf(node));
-                if (analysis.needTransferEdge(outEdge)) {
-                    out = analysis.transferEdge(outEdge,
-                            result.getInFact(outEdge.target()));
-                    result.setOutFact(node, out);
                 } else {
-                    out = result.getOutFact(node);
+                    workList.addAll(cfg.getPredsOf(node));
                 }
+            }
+        }
+    }
+
+    /**
+     * Meets the incoming facts of given node and applies its transfer
+     * function in backward analysis.
+     *
+     * @return {@code true} if the in fact of the node is changed.
+     */
+    protected boolean updateBackward(DataflowAnalysis<Node, Fact> analysis,
+                                     DataflowResult<Node, Fact> result,
+                                     Node node) {
+        CFG<Node> cfg = analysis.getCFG();
+        // meet incoming facts
+        Fact out;
+        int outDegree = cfg.getOutDegreeOf(node);
+        if (outDegree > 1) {
+            out = result.getOutFact(node);
+            cfg.getOutEdgesOf(node).forEach(outEdge -> {
+                Fact fact = result.getInFact(outEdge.target());
+                if (analysis.needTransferEdge(outEdge)) {
+                    fact = analysis.transferEdge(outEdge, fact);
+                }
+                analysis.meetInto(fact, out);
+            });
+        } else if (outDegree == 1) {
+            CFGEdge<Node> outEdge = CollectionUtils.getOne(cfg.getOutEdgesOf(node));
+            if (analysis.needTransferEdge(outEdge)) {
+                out = analysis.transferEdge(outEdge,
+                        result.getInFact(outEdge.target()));
+                result.setOutFact(node, out);
             } else {
                 out = result.getOutFact(node);
             }
-            // apply node transfer function
-            Fact in = result.getInFact(node);
-            boolean changed = analysis.transferNode(node, in, out);
-            if (changed) {
-                workList.addAll(cfg.getPredsOf(node));
-            }
+        } else {
+            out = result.getOutFact(node);
         }
+        // apply node transfer function
+        Fact in = result.getInFact(node);
+        return transferNode(analysis, node, in, out);
     }
 }
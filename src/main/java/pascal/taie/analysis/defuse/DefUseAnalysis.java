@@ -24,7 +24,7 @@ package pascal.taie.analysis.defuse;
 
 import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.ReachingDefinition;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
@@ -63,7 +63,7 @@ public class DefUseAnalysis extends MethodAnalysis<DefUse> {
 
     @Override
     public DefUse analyze(IR ir) {
-        DataflowResult<Stmt, SetFact<Stmt>> rdResult = ir.getResult(ReachingDefinition.ID);
+        NodeResult<Stmt, SetFact<Stmt>> rdResult = ir.getResult(ReachingDefinition.ID);
         TwoKeyMultiMap<Stmt, Var, Stmt> defs = computeDefs ?
                 Maps.newTwoKeyMultiMap(new IndexMap<>(ir, ir.getStmts().size()),
                         () -> Maps.newMultiMap(Maps.newHybridMap()))
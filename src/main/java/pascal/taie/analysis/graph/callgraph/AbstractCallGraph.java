@@ -162,4 +162,14 @@ public abstract class AbstractCallGraph<CallSite, Method>
     public Set<Method> getNodes() {
         return Collections.unmodifiableSet(reachableMethods);
     }
+
+    /**
+     * @return the number of entries in the maps and sets that store this
+     * call graph, where each key-value pair of a multimap is an entry.
+     */
+    public long getNumberOfEntries() {
+        return (long) callSiteToEdges.size() + calleeToEdges.size() +
+                callSiteToContainer.size() + callSitesIn.size() +
+                entryMethods.size() + reachableMethods.size();
+    }
 }
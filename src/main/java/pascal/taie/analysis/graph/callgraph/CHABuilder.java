@@ -36,12 +36,16 @@ import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.classes.Subsignature;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.TwoKeyMap;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -76,7 +80,17 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
      */
     private final int calleeLimit;
 
+    /**
+     * Whether resolve the call sites of newly reachable methods in parallel.
+     */
+    private final boolean parallel;
+
     CHABuilder(String algorithm) {
+        this(algorithm, false);
+    }
+
+    CHABuilder(String algorithm, boolean parallel) {
+        this.parallel = parallel;
         switch (algorithm) {
             case "cha" -> { // default setting, ignore Object's methods
                 ignoreObjectMethods = true;
@@ -99,11 +113,12 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     @Override
     public CallGraph<Invoke, JMethod> build() {
-        return buildCallGraph(World.get().getMainMethod());
+        JMethod entry = World.get().getMainMethod();
+        return parallel ?
+                buildCallGraphInParallel(entry) : buildCallGraph(entry);
     }
 
-    private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
-        logger.info("Building call graph by CHA");
+    private void initialize() {
         if (ignoreObjectMethods) {
             logger.info("Ignore methods of java.lang.Object");
         }
@@ -117,6 +132,11 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
                 .stream()
                 .map(JMethod::getSubsignature)
                 .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
+        logger.info("Building call graph by CHA");
+        initialize();
         resolveTable = Maps.newTwoKeyMap();
         DefaultCallGraph callGraph = new DefaultCallGraph();
         callGraph.addEntryMethod(entry);
@@ -140,6 +160,62 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
         return callGraph;
     }
 
+    /**
+     * Builds call graph round by round. In each round, the IR and call sites
+     * of the methods that become reachable in the previous round are built
+     * and resolved in parallel, and then the resulting call edges are added
+     * to the call graph sequentially, which gives the same call graph as
+     * {@link #buildCallGraph(JMethod)}.
+     */
+    private CallGraph<Invoke, JMethod> buildCallGraphInParallel(JMethod entry) {
+        logger.info("Building call graph by CHA in parallel ({} threads)",
+                ForkJoinPool.getCommonPoolParallelism());
+        initialize();
+        resolveTable = Maps.newTwoKeyMap(
+                Maps.newConcurrentMap(), Maps::newConcurrentMap);
+        DefaultCallGraph callGraph = new DefaultCallGraph();
+        callGraph.addEntryMethod(entry);
+        List<JMethod> newMethods = List.of(entry);
+        int rounds = 0;
+        while (!newMethods.isEmpty()) {
+            ++rounds;
+            List<List<Edge<Invoke, JMethod>>> edges = newMethods.parallelStream()
+                    .map(this::resolveEdgesOf)
+                    .toList();
+            newMethods.forEach(callGraph::addReachableMethod);
+            Set<JMethod> callees = Sets.newHybridOrderedSet();
+            edges.forEach(methodEdges -> methodEdges.forEach(edge -> {
+                if (!callGraph.contains(edge.getCallee())) {
+                    callees.add(edge.getCallee());
+                }
+                callGraph.addEdge(edge);
+            }));
+            newMethods = new ArrayList<>(callees);
+        }
+        logger.info("Resolved call sites of {} methods in {} rounds",
+                callGraph.getNumberOfMethods(), rounds);
+        return callGraph;
+    }
+
+    /**
+     * Builds IR of given method and resolves the call edges of its call sites.
+     * This method is safe to be called in parallel for different methods.
+     */
+    private List<Edge<Invoke, JMethod>> resolveEdgesOf(JMethod method) {
+        if (method.isAbstract()) {
+            return List.of();
+        }
+        List<Edge<Invoke, JMethod>> edges = new ArrayList<>();
+        method.getIR().forEach(stmt -> {
+            if (stmt instanceof Invoke invoke) {
+                CallKind kind = CallGraphs.getCallKind(invoke);
+                resolveCalleesOf(invoke).forEach(callee ->
+                        edges.add(new Edge<>(kind, invoke, callee)));
+            }
+        });
+        return edges;
+    }
+
     /**
      * Resolves callees of a call site via class hierarchy analysis.
      */
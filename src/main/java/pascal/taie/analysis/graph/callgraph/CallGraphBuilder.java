@@ -48,9 +48,15 @@ public class CallGraphBuilder extends ProgramAnalysis<CallGraph<Invoke, JMethod>
 
     private final String algorithm;
 
+    private final boolean parallel;
+
+    private final boolean freeze;
+
     public CallGraphBuilder(AnalysisConfig config) {
         super(config);
         algorithm = config.getOptions().getString("algorithm");
+        parallel = config.getOptions().getBoolean("parallel");
+        freeze = config.getOptions().getBoolean("freeze");
     }
 
     @Override
@@ -59,17 +65,41 @@ public class CallGraphBuilder extends ProgramAnalysis<CallGraph<Invoke, JMethod>
         if (algorithm.equals("pta")) {
             builder = new PTABasedBuilder();
         } else if (algorithm.startsWith("cha")) {
-            builder = new CHABuilder(algorithm);
+            builder = new CHABuilder(algorithm, parallel);
+        } else if (algorithm.equals("rta")) {
+            builder = new RTABuilder();
+        } else if (algorithm.equals("xta")) {
+            builder = new XTABuilder();
         } else {
             throw new ConfigException(
                     "Unknown call graph building algorithm: " + algorithm);
         }
         CallGraph<Invoke, JMethod> callGraph = builder.build();
+        if (freeze) {
+            callGraph = freeze(callGraph);
+        }
         logStatistics(callGraph);
         processOptions(callGraph, getOptions());
         return callGraph;
     }
 
+    private static CallGraph<Invoke, JMethod> freeze(
+            CallGraph<Invoke, JMethod> callGraph) {
+        FrozenCallGraph<Invoke, JMethod> frozen = new FrozenCallGraph<>(callGraph);
+        if (callGraph instanceof AbstractCallGraph<Invoke, JMethod> hashBased) {
+            logger.info("Froze call graph: {} entries in hash-based maps/sets" +
+                            " -> {} array elements and {} map entries",
+                    hashBased.getNumberOfEntries(),
+                    frozen.getNumberOfArrayElements(),
+                    frozen.getNumberOfMapEntries());
+        } else {
+            logger.info("Froze call graph: {} array elements and {} map entries",
+                    frozen.getNumberOfArrayElements(),
+                    frozen.getNumberOfMapEntries());
+        }
+        return frozen;
+    }
+
     private static void logStatistics(CallGraph<Invoke, JMethod> callGraph) {
         logger.info("Call graph has {} reachable methods and {} edges",
                 callGraph.getNumberOfMethods(),
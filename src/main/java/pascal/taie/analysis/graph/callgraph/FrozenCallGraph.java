@@ -0,0 +1,411 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.ArraySet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable call graph stored in compressed sparse row (CSR) form.
+ * <p>
+ * The reachable methods, call sites and call edges of a finished call graph
+ * are stored in arrays and indexed by their positions. The call sites are
+ * grouped by their container methods, the edges are grouped by their
+ * call sites, and the incoming edges of each method are stored as edge
+ * indexes grouped by the callee. The positions of methods and call sites
+ * are looked up via open-addressing tables of ints, thus unlike the
+ * hash-based multimaps of {@link AbstractCallGraph}, this form does not
+ * allocate an entry object per element. Besides, all streams returned by
+ * this call graph are backed by arrays, which can be split evenly for
+ * parallel iteration.
+ *
+ * @param <CallSite> type of call sites
+ * @param <Method>   type of methods
+ */
+public class FrozenCallGraph<CallSite, Method>
+        implements CallGraph<CallSite, Method> {
+
+    private final List<Method> entryMethods;
+
+    /**
+     * Reachable methods, indexed by method IDs.
+     */
+    private final Method[] methods;
+
+    private final IdTable methodIds;
+
+    /**
+     * Call sites grouped by container methods, indexed by call site IDs.
+     * The call sites of method {@code m} are in range
+     * [{@code callSiteOffsets[m]}, {@code callSiteOffsets[m + 1]}).
+     * The call sites which are not in any reachable method (e.g., artificial
+     * call sites) are placed after {@code callSiteOffsets[methods.length]}.
+     */
+    private final CallSite[] callSites;
+
+    private final int[] callSiteOffsets;
+
+    private final IdTable callSiteIds;
+
+    /**
+     * IDs of container methods of call sites,
+     * or -1 if the call site is not in any reachable method.
+     */
+    private final int[] containers;
+
+    /**
+     * Containers of the call sites which are not in any reachable method.
+     */
+    private final Map<CallSite, Method> otherContainers;
+
+    /**
+     * Call edges grouped by call sites. The edges out of call site
+     * {@code c} are in range [{@code edgeOffsets[c]}, {@code edgeOffsets[c + 1]}).
+     */
+    private final Edge<CallSite, Method>[] edges;
+
+    private final int[] edgeOffsets;
+
+    /**
+     * Indexes of call edges grouped by callees. The edges into method
+     * {@code m} are {@code edges[inEdges[i]]} for i in range
+     * [{@code inEdgeOffsets[m]}, {@code inEdgeOffsets[m + 1]}).
+     */
+    private final int[] inEdges;
+
+    private final int[] inEdgeOffsets;
+
+    /**
+     * Freezes given call graph. The given call graph should not be
+     * modified afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    public FrozenCallGraph(CallGraph<CallSite, Method> callGraph) {
+        entryMethods = callGraph.entryMethods().toList();
+        methods = (Method[]) callGraph.reachableMethods().toArray();
+        methodIds = new IdTable(methods);
+        // collect call sites
+        Set<CallSite> callSiteSet = Sets.newLinkedSet();
+        callSiteOffsets = new int[methods.length + 1];
+        for (int i = 0; i < methods.length; ++i) {
+            callSiteOffsets[i] = callSiteSet.size();
+            callSiteSet.addAll(callGraph.getCallSitesIn(methods[i]));
+        }
+        callSiteOffsets[methods.length] = callSiteSet.size();
+        Map<CallSite, Method> others = Maps.newMap();
+        callGraph.edges().forEach(edge -> {
+            CallSite callSite = edge.getCallSite();
+            if (callSiteSet.add(callSite)) {
+                Method container = callGraph.getContainerOf(callSite);
+                if (container != null) {
+                    others.put(callSite, container);
+                }
+            }
+        });
+        otherContainers = others.isEmpty() ? Map.of() : others;
+        callSites = (CallSite[]) callSiteSet.toArray();
+        callSiteIds = new IdTable(callSites);
+        containers = new int[callSites.length];
+        Arrays.fill(containers, -1);
+        for (int i = 0; i < methods.length; ++i) {
+            Arrays.fill(containers, callSiteOffsets[i], callSiteOffsets[i + 1], i);
+        }
+        // collect out edges
+        List<Edge<CallSite, Method>> edgeList = new ArrayList<>();
+        edgeOffsets = new int[callSites.length + 1];
+        for (int i = 0; i < callSites.length; ++i) {
+            edgeOffsets[i] = edgeList.size();
+            callGraph.edgesOutOf(callSites[i]).forEach(edgeList::add);
+        }
+        edgeOffsets[callSites.length] = edgeList.size();
+        @SuppressWarnings("rawtypes")
+        Edge<CallSite, Method>[] edgeArray = edgeList.toArray(new Edge[0]);
+        edges = edgeArray;
+        // collect in edges by counting sort
+        inEdgeOffsets = new int[methods.length + 1];
+        int[] callees = new int[edges.length];
+        for (int i = 0; i < edges.length; ++i) {
+            int callee = methodIds.get(edges[i].getCallee());
+            callees[i] = callee;
+            if (callee != -1) {
+                ++inEdgeOffsets[callee + 1];
+            }
+        }
+        for (int i = 0; i < methods.length; ++i) {
+            inEdgeOffsets[i + 1] += inEdgeOffsets[i];
+        }
+        inEdges = new int[inEdgeOffsets[methods.length]];
+        int[] next = Arrays.copyOf(inEdgeOffsets, methods.length);
+        for (int i = 0; i < edges.length; ++i) {
+            if (callees[i] != -1) {
+                inEdges[next[callees[i]]++] = i;
+            }
+        }
+    }
+
+    @Override
+    public Set<CallSite> getCallersOf(Method callee) {
+        return toSet(edgesInTo(callee), Edge::getCallSite);
+    }
+
+    @Override
+    public Set<Method> getCalleesOf(CallSite callSite) {
+        return toSet(edgesOutOf(callSite), Edge::getCallee);
+    }
+
+    /**
+     * @return an unmodifiable set of the distinct elements mapped from
+     * given edges.
+     */
+    private static <E, CallSite, Method> Set<E> toSet(
+            Stream<Edge<CallSite, Method>> edges,
+            Function<Edge<CallSite, Method>, E> mapper) {
+        Set<E> set = Sets.newHybridSet();
+        edges.map(mapper).forEach(set::add);
+        return Collections.unmodifiableSet(set);
+    }
+
+    @Override
+    public Set<Method> getCalleesOfM(Method caller) {
+        return callSitesIn(caller)
+                .flatMap(this::edgesOutOf)
+                .map(Edge::getCallee)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Method getContainerOf(CallSite callSite) {
+        int id = callSiteIds.get(callSite);
+        if (id == -1) {
+            return null;
+        }
+        int container = containers[id];
+        return container != -1 ? methods[container] : otherContainers.get(callSite);
+    }
+
+    @Override
+    public Set<CallSite> getCallSitesIn(Method method) {
+        int id = methodIds.get(method);
+        if (id == -1) {
+            return Set.of();
+        }
+        return Collections.unmodifiableSet(new ArraySet<>(new ArrayList<>(
+                Arrays.asList(callSites).subList(
+                        callSiteOffsets[id], callSiteOffsets[id + 1])),
+                true));
+    }
+
+    @Override
+    public Stream<CallSite> callSitesIn(Method method) {
+        int id = methodIds.get(method);
+        return id == -1 ? Stream.of() : Arrays.stream(
+                callSites, callSiteOffsets[id], callSiteOffsets[id + 1]);
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edgesOutOf(CallSite callSite) {
+        int id = callSiteIds.get(callSite);
+        return id == -1 ? Stream.of() : Arrays.stream(
+                edges, edgeOffsets[id], edgeOffsets[id + 1]);
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edgesInTo(Method method) {
+        int id = methodIds.get(method);
+        return id == -1 ? Stream.of() : IntStream.range(
+                        inEdgeOffsets[id], inEdgeOffsets[id + 1])
+                .mapToObj(i -> edges[inEdges[i]]);
+    }
+
+    @Override
+    public Stream<Edge<CallSite, Method>> edges() {
+        return Arrays.stream(edges);
+    }
+
+    @Override
+    public int getNumberOfEdges() {
+        return edges.length;
+    }
+
+    @Override
+    public Stream<Method> entryMethods() {
+        return entryMethods.stream();
+    }
+
+    @Override
+    public Stream<Method> reachableMethods() {
+        return Arrays.stream(methods);
+    }
+
+    @Override
+    public int getNumberOfMethods() {
+        return methods.length;
+    }
+
+    @Override
+    public boolean contains(Method method) {
+        return methodIds.get(method) != -1;
+    }
+
+    /**
+     * @return the number of elements in the arrays that store
+     * this call graph, including the slots of the lookup tables.
+     */
+    public long getNumberOfArrayElements() {
+        return (long) entryMethods.size() + methods.length +
+                methodIds.slots.length + callSites.length +
+                callSiteOffsets.length + callSiteIds.slots.length +
+                containers.length + edges.length + edgeOffsets.length +
+                inEdges.length + inEdgeOffsets.length;
+    }
+
+    /**
+     * @return the number of entries in the map that stores the containers
+     * of the call sites which are absent from the reachable methods.
+     */
+    public int getNumberOfMapEntries() {
+        return otherContainers.size();
+    }
+
+    // Implementation for Graph interface.
+
+    @Override
+    public Set<MethodEdge<CallSite, Method>> getInEdgesOf(Method method) {
+        return edgesInTo(method)
+                .map(e -> new MethodEdge<>(getContainerOf(e.getCallSite()),
+                        method, e.getCallSite()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<MethodEdge<CallSite, Method>> getOutEdgesOf(Method method) {
+        return callSitesIn(method)
+                .flatMap(this::edgesOutOf)
+                .map(e -> new MethodEdge<>(method, e.getCallee(), e.getCallSite()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<Method> getPredsOf(Method node) {
+        return edgesInTo(node)
+                .map(e -> getContainerOf(e.getCallSite()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public Set<Method> getSuccsOf(Method node) {
+        return getCalleesOfM(node);
+    }
+
+    @Override
+    public Set<Method> getNodes() {
+        return Views.toMappedSet(Arrays.asList(methods),
+                Function.identity(), o -> methodIds.get(o) != -1);
+    }
+
+    // Implementation for StmtResult interface.
+
+    @Override
+    public boolean isRelevant(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public Set<Method> getResult(Stmt stmt) {
+        int id = callSiteIds.get(stmt);
+        if (id == -1) {
+            return Set.of();
+        }
+        return getCalleesOf(callSites[id]);
+    }
+
+    /**
+     * Open-addressing hash table that maps the distinct elements of
+     * an array to their positions. It only stores the positions, and
+     * compares the queried objects with the elements in the array.
+     */
+    private static final class IdTable {
+
+        private final Object[] elements;
+
+        /**
+         * Positions of the elements plus one, or 0 for empty slots.
+         */
+        private final int[] slots;
+
+        private final int mask;
+
+        private IdTable(Object[] elements) {
+            this.elements = elements;
+            // keep the load factor no more than 0.5
+            int capacity = Integer.highestOneBit(
+                    Math.max(1, elements.length) * 2 - 1) << 1;
+            slots = new int[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < elements.length; ++i) {
+                int slot = indexOf(elements[i]);
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = i + 1;
+            }
+        }
+
+        private int indexOf(Object o) {
+            int h = o.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        /**
+         * @return the position of given object in the array,
+         * or -1 if it is absent.
+         */
+        private int get(Object o) {
+            if (o == null) {
+                return -1;
+            }
+            for (int slot = indexOf(o); slots[slot] != 0; slot = (slot + 1) & mask) {
+                int id = slots[slot] - 1;
+                if (elements[id].equals(o)) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Builds call graph via rapid type analysis (RTA), which resolves
+ * virtual calls on the types instantiated in all reachable methods.
+ */
+class RTABuilder extends TypeBasedBuilder {
+
+    /**
+     * The single node holding all instantiated types.
+     */
+    private static final Object ALL = "<all>";
+
+    @Override
+    protected String getName() {
+        return "RTA";
+    }
+
+    @Override
+    protected Object getNode(JMethod method) {
+        return ALL;
+    }
+
+    @Override
+    protected Object getNode(JField field) {
+        return ALL;
+    }
+
+    @Override
+    protected Object getArrayNode() {
+        return ALL;
+    }
+
+    @Override
+    protected Object getExceptionNode() {
+        return ALL;
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.ir.stmt.Throw;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds call graph by propagating the types instantiated in reachable
+ * methods, and resolves virtual calls on the propagated types.
+ * <p>
+ * The types are propagated among <i>nodes</i>, and subclasses decide
+ * the nodes of methods, fields and array elements. Each node holds a set
+ * of types, and a virtual call site in a method is resolved on the types
+ * held by the node of the method. When a call edge is added, the types are
+ * propagated from the caller to the callee (filtered by the parameter types
+ * and declaring class of the callee), and back (filtered by the return type).
+ * Similarly, the types flow between the nodes of methods and fields via
+ * field stores and loads, and between the nodes of methods and array
+ * elements via array stores and loads. Besides, the thrown types flow
+ * from the methods that throw them to the node of exceptions, and from
+ * there to the methods that catch them (filtered by the caught types).
+ * <p>
+ * The call graph and type sets are built incrementally, i.e., each newly
+ * reachable method is scanned once, and each newly propagated type is
+ * resolved only on the call sites and propagated along the flow edges
+ * that can receive it.
+ */
+abstract class TypeBasedBuilder implements CGBuilder<Invoke, JMethod> {
+
+    private static final Logger logger = LogManager.getLogger(TypeBasedBuilder.class);
+
+    private ClassHierarchy hierarchy;
+
+    private TypeSystem typeSystem;
+
+    private JClass object;
+
+    /**
+     * The classes and interfaces that are supertypes of all arrays.
+     */
+    private Set<JClass> arraySupertypes;
+
+    private DefaultCallGraph callGraph;
+
+    /**
+     * Type set of each node.
+     */
+    private Map<Object, Set<Type>> typeSets;
+
+    /**
+     * Outgoing type flows of each node.
+     */
+    private MultiMap<Object, TypeFlow> typeFlows;
+
+    /**
+     * Virtual call sites resolved on each node, grouped by
+     * the declaring classes of their method references.
+     */
+    private Map<Object, MultiMap<JClass, Invoke>> callSites;
+
+    /**
+     * Cache of the supertypes (including itself) of each class.
+     */
+    private Map<JClass, Set<JClass>> supertypes;
+
+    private Queue<JMethod> methodWorkList;
+
+    private Queue<Entry> typeWorkList;
+
+    /**
+     * A flow of types from source node to {@code target}.
+     * A type can pass the flow if it is a subtype of any of {@code filter}.
+     */
+    private record TypeFlow(Object target, List<ReferenceType> filter) {
+    }
+
+    /**
+     * Entry of type work list, i.e., the types newly added to a node.
+     */
+    private record Entry(Object node, Set<Type> types) {
+    }
+
+    @Override
+    public CallGraph<Invoke, JMethod> build() {
+        return buildCallGraph(World.get().getMainMethod());
+    }
+
+    private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
+        logger.info("Building call graph by {}", getName());
+        hierarchy = World.get().getClassHierarchy();
+        typeSystem = World.get().getTypeSystem();
+        object = hierarchy.getJREClass(ClassNames.OBJECT);
+        arraySupertypes = Stream.of(object,
+                        hierarchy.getJREClass(ClassNames.CLONEABLE),
+                        hierarchy.getJREClass(ClassNames.SERIALIZABLE))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        callGraph = new DefaultCallGraph();
+        typeSets = Maps.newMap();
+        typeFlows = Maps.newMultiMap();
+        callSites = Maps.newMap();
+        supertypes = Maps.newMap();
+        methodWorkList = new ArrayDeque<>();
+        typeWorkList = new ArrayDeque<>();
+        callGraph.addEntryMethod(entry);
+        methodWorkList.add(entry);
+        // the arguments of entry method are created by JVM
+        addTypes(getNode(entry), entry.getParamTypes());
+        while (!methodWorkList.isEmpty() || !typeWorkList.isEmpty()) {
+            while (!methodWorkList.isEmpty()) {
+                JMethod method = methodWorkList.poll();
+                if (callGraph.addReachableMethod(method)) {
+                    processNewMethod(method);
+                }
+            }
+            while (!typeWorkList.isEmpty()) {
+                Entry newTypes = typeWorkList.poll();
+                processNewTypes(newTypes.node(), newTypes.types());
+            }
+        }
+        logger.info("{} types are instantiated in reachable methods",
+                typeSets.values()
+                        .stream()
+                        .flatMap(Set::stream)
+                        .distinct()
+                        .count());
+        return callGraph;
+    }
+
+    /**
+     * @return name of the algorithm.
+     */
+    protected abstract String getName();
+
+    /**
+     * @return the node holding the types of given method.
+     */
+    protected abstract Object getNode(JMethod method);
+
+    /**
+     * @return the node holding the types of given field.
+     */
+    protected abstract Object getNode(JField field);
+
+    /**
+     * @return the node holding the types of array elements.
+     */
+    protected abstract Object getArrayNode();
+
+    /**
+     * @return the node holding the types of thrown exceptions.
+     */
+    protected abstract Object getExceptionNode();
+
+    private void processNewMethod(JMethod method) {
+        if (method.isAbstract()) {
+            return;
+        }
+        Object node = getNode(method);
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof New newStmt) {
+                addTypes(node, List.of(newStmt.getRValue().getType()));
+            } else if (stmt instanceof AssignLiteral assign) {
+                if (assign.getRValue() instanceof ReferenceLiteral literal &&
+                        !(literal instanceof NullLiteral)) {
+                    addTypes(node, List.of(literal.getType()));
+                }
+            } else if (stmt instanceof StoreField store) {
+                JField field = store.getFieldRef().resolveNullable();
+                if (field != null) {
+                    addTypeFlow(node, getNode(field), field.getType());
+                }
+            } else if (stmt instanceof LoadField load) {
+                JField field = load.getFieldRef().resolveNullable();
+                if (field != null) {
+                    addTypeFlow(getNode(field), node, field.getType());
+                }
+            } else if (stmt instanceof StoreArray store) {
+                addTypeFlow(node, getArrayNode(),
+                        store.getArrayAccess().getType());
+            } else if (stmt instanceof LoadArray load) {
+                addTypeFlow(getArrayNode(), node,
+                        load.getArrayAccess().getType());
+            } else if (stmt instanceof Throw throwStmt) {
+                addTypeFlow(node, getExceptionNode(),
+                        throwStmt.getExceptionRef().getType());
+            } else if (stmt instanceof Invoke invoke) {
+                processInvoke(node, invoke);
+            }
+        }
+        List<Type> caughtTypes = method.getIR()
+                .getExceptionEntries()
+                .stream()
+                .map(entry -> (Type) entry.catchType())
+                .distinct()
+                .toList();
+        if (!caughtTypes.isEmpty()) {
+            addTypeFlow(getExceptionNode(), node, caughtTypes);
+        }
+    }
+
+    private void processInvoke(Object node, Invoke invoke) {
+        switch (CallGraphs.getCallKind(invoke)) {
+            case INTERFACE, VIRTUAL -> {
+                JClass declaringClass = invoke.getMethodRef().getDeclaringClass();
+                callSites.computeIfAbsent(node, __ -> Maps.newMultiMap())
+                        .put(declaringClass, invoke);
+                for (Type type : getTypesOf(node, declaringClass)) {
+                    dispatch(invoke, type);
+                }
+            }
+            case SPECIAL, STATIC -> addEdge(invoke,
+                    invoke.getMethodRef().resolve());
+            default -> logger.debug("{} cannot resolve {}", getName(), invoke);
+        }
+    }
+
+    /**
+     * @return the types held by given node, which are subtypes of given class.
+     */
+    private Collection<Type> getTypesOf(Object node, JClass jclass) {
+        Set<Type> types = typeSets.getOrDefault(node, Set.of());
+        if (jclass == object) {
+            // copy the types as dispatching may add types to the node
+            return List.copyOf(types);
+        }
+        Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(jclass);
+        List<Type> result = new ArrayList<>();
+        // array types are not subclasses, so scan the types
+        // if they may be subtypes of the class
+        if (types.size() <= subclasses.size() ||
+                arraySupertypes.contains(jclass)) {
+            ClassType classType = jclass.getType();
+            types.forEach(type -> {
+                if (typeSystem.isSubtype(classType, type)) {
+                    result.add(type);
+                }
+            });
+        } else {
+            // avoid scanning large type sets, e.g., the single type set of RTA
+            subclasses.forEach(subclass -> {
+                if (types.contains(subclass.getType())) {
+                    result.add(subclass.getType());
+                }
+            });
+        }
+        return result;
+    }
+
+    private void dispatch(Invoke invoke, Type type) {
+        JMethod callee = hierarchy.dispatch(type, invoke.getMethodRef());
+        if (callee != null) {
+            addEdge(invoke, callee);
+        }
+    }
+
+    private void addEdge(Invoke invoke, JMethod callee) {
+        if (callGraph.addEdge(new Edge<>(
+                CallGraphs.getCallKind(invoke), invoke, callee))) {
+            if (!callGraph.contains(callee)) {
+                methodWorkList.add(callee);
+            }
+            Object callerNode = getNode(invoke.getContainer());
+            Object calleeNode = getNode(callee);
+            List<Type> paramTypes = new ArrayList<>(callee.getParamTypes());
+            if (!callee.isStatic()) {
+                paramTypes.add(callee.getDeclaringClass().getType());
+            }
+            addTypeFlow(callerNode, calleeNode, paramTypes);
+            addTypeFlow(calleeNode, callerNode, List.of(callee.getReturnType()));
+        }
+    }
+
+    private void addTypeFlow(Object source, Object target, Type type) {
+        addTypeFlow(source, target, List.of(type));
+    }
+
+    private void addTypeFlow(Object source, Object target, List<Type> types) {
+        if (source.equals(target)) {
+            return;
+        }
+        List<ReferenceType> filter = types.stream()
+                .filter(t -> t instanceof ReferenceType)
+                .map(t -> (ReferenceType) t)
+                .distinct()
+                .toList();
+        if (!filter.isEmpty() &&
+                typeFlows.put(source, new TypeFlow(target, filter))) {
+            Set<Type> sourceTypes = typeSets.get(source);
+            if (sourceTypes != null) {
+                addTypes(target, filterTypes(sourceTypes, filter));
+            }
+        }
+    }
+
+    private List<Type> filterTypes(Collection<Type> types,
+                                   List<ReferenceType> filter) {
+        return types.stream()
+                .filter(type -> filter.stream()
+                        .anyMatch(t -> typeSystem.isSubtype(t, type)))
+                .toList();
+    }
+
+    private void addTypes(Object node, Collection<Type> types) {
+        Set<Type> typeSet = typeSets.computeIfAbsent(node, __ -> Sets.newHybridSet());
+        Set<Type> diff = Sets.newHybridSet();
+        for (Type type : types) {
+            if (type instanceof ReferenceType && typeSet.add(type)) {
+                diff.add(type);
+            }
+        }
+        if (!diff.isEmpty()) {
+            typeWorkList.add(new Entry(node, diff));
+        }
+    }
+
+    private void processNewTypes(Object node, Set<Type> types) {
+        MultiMap<JClass, Invoke> nodeCallSites = callSites.get(node);
+        if (nodeCallSites != null) {
+            for (Type type : types) {
+                for (JClass supertype : getSupertypesOf(type)) {
+                    for (Invoke invoke : nodeCallSites.get(supertype)) {
+                        dispatch(invoke, type);
+                    }
+                }
+            }
+        }
+        for (TypeFlow flow : typeFlows.get(node)) {
+            addTypes(flow.target(), filterTypes(types, flow.filter()));
+        }
+    }
+
+    /**
+     * @return the classes that may declare the methods
+     * which are dispatched on given type.
+     */
+    private Set<JClass> getSupertypesOf(Type type) {
+        if (type instanceof ClassType classType) {
+            return supertypes.computeIfAbsent(classType.getJClass(), c -> {
+                Set<JClass> result = Sets.newHybridSet();
+                addSupertypes(c, result);
+                return result;
+            });
+        } else if (type instanceof ArrayType) {
+            // methods of arrays are declared in java.lang.Object, and they
+            // may be called on the interfaces implemented by arrays
+            return arraySupertypes;
+        } else {
+            return Set.of();
+        }
+    }
+
+    private static void addSupertypes(JClass jclass, Set<JClass> result) {
+        if (result.add(jclass)) {
+            if (jclass.getSuperClass() != null) {
+                addSupertypes(jclass.getSuperClass(), result);
+            }
+            jclass.getInterfaces().forEach(iface -> addSupertypes(iface, result));
+        }
+    }
+}
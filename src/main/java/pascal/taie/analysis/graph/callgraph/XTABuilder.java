@@ -0,0 +1,70 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Builds call graph via XTA, which keeps a separate set of types for each
+ * method and field, and resolves virtual calls in a method on the types
+ * that may flow into the method. All array elements share one type set,
+ * and so do all thrown exceptions.
+ */
+class XTABuilder extends TypeBasedBuilder {
+
+    /**
+     * The node holding the types of all array elements.
+     */
+    private static final Object ARRAY = "<array>";
+
+    /**
+     * The node holding the types of all thrown exceptions.
+     */
+    private static final Object EXCEPTION = "<exception>";
+
+    @Override
+    protected String getName() {
+        return "XTA";
+    }
+
+    @Override
+    protected Object getNode(JMethod method) {
+        return method;
+    }
+
+    @Override
+    protected Object getNode(JField field) {
+        return field;
+    }
+
+    @Override
+    protected Object getArrayNode() {
+        return ARRAY;
+    }
+
+    @Override
+    protected Object getExceptionNode() {
+        return EXCEPTION;
+    }
+}
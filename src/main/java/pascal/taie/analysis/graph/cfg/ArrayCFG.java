@@ -0,0 +1,306 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Views;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable CFG with {@code Stmt} as nodes, which stores the edges in
+ * arrays indexed by node indexes. The indexes of nodes are the same as
+ * {@link StmtCFG}, i.e., entry is 0, stmt {@code s} is
+ * {@code s.getIndex() + 1}, and exit is {@code ir.getStmts().size() + 1}.
+ * <p>
+ * The out edges of node {@code n} are {@code outEdges[i]} for i in range
+ * [{@code outOffsets[n]}, {@code outOffsets[n + 1]}), and {@code succs[i]}
+ * is the index of the target of {@code outEdges[i]}. The in edges are
+ * stored in the same way. The edge objects are kept in the arrays
+ * parallel to the adjacency arrays, so that edge kinds and the information
+ * of {@link ExceptionalEdge} and {@link SwitchCaseEdge} are preserved.
+ * <p>
+ * Besides the {@link CFG} interface, this class provides index-based
+ * methods, e.g., {@link #getOutDegreeOf(int)} and {@link #getSuccOf(int, int)},
+ * which iterate over successors and predecessors without allocating any
+ * objects or hashing nodes.
+ */
+public class ArrayCFG implements CFG<Stmt> {
+
+    private final IR ir;
+
+    /**
+     * Nodes indexed by their indexes.
+     */
+    private final Stmt[] nodes;
+
+    private final int[] outOffsets;
+
+    private final int[] succs;
+
+    private final CFGEdge<Stmt>[] outEdges;
+
+    private final int[] inOffsets;
+
+    private final int[] preds;
+
+    private final CFGEdge<Stmt>[] inEdges;
+
+    /**
+     * Converts given CFG into the array-based form.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    ArrayCFG(CFG<Stmt> cfg) {
+        ir = cfg.getIR();
+        int nNodes = ir.getStmts().size() + 2;
+        nodes = new Stmt[nNodes];
+        for (int i = 0; i < nNodes; ++i) {
+            nodes[i] = cfg.getNode(i);
+        }
+        outOffsets = new int[nNodes + 1];
+        inOffsets = new int[nNodes + 1];
+        for (int i = 0; i < nNodes; ++i) {
+            outOffsets[i + 1] = outOffsets[i] + cfg.getOutDegreeOf(nodes[i]);
+            inOffsets[i + 1] = inOffsets[i] + cfg.getInDegreeOf(nodes[i]);
+        }
+        succs = new int[outOffsets[nNodes]];
+        outEdges = new CFGEdge[succs.length];
+        preds = new int[inOffsets[nNodes]];
+        inEdges = new CFGEdge[preds.length];
+        for (int i = 0; i < nNodes; ++i) {
+            int j = outOffsets[i];
+            for (CFGEdge<Stmt> edge : cfg.getOutEdgesOf(nodes[i])) {
+                outEdges[j] = edge;
+                succs[j++] = cfg.getIndex(edge.target());
+            }
+            j = inOffsets[i];
+            for (CFGEdge<Stmt> edge : cfg.getInEdgesOf(nodes[i])) {
+                inEdges[j] = edge;
+                preds[j++] = cfg.getIndex(edge.source());
+            }
+        }
+    }
+
+    @Override
+    public IR getIR() {
+        return ir;
+    }
+
+    @Override
+    public JMethod getMethod() {
+        return ir.getMethod();
+    }
+
+    @Override
+    public Stmt getEntry() {
+        return nodes[0];
+    }
+
+    @Override
+    public Stmt getExit() {
+        return nodes[nodes.length - 1];
+    }
+
+    @Override
+    public boolean isEntry(Stmt node) {
+        return node == getEntry();
+    }
+
+    @Override
+    public boolean isExit(Stmt node) {
+        return node == getExit();
+    }
+
+    @Override
+    public int getIndex(Stmt stmt) {
+        if (isEntry(stmt)) {
+            return 0;
+        } else if (isExit(stmt)) {
+            return nodes.length - 1;
+        } else {
+            return stmt.getIndex() + 1;
+        }
+    }
+
+    @Override
+    public Stmt getNode(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * @return the number of out edges of the node at given index.
+     */
+    public int getOutDegreeOf(int index) {
+        return outOffsets[index + 1] - outOffsets[index];
+    }
+
+    /**
+     * @return the index of the target of the i-th out edge
+     * of the node at given index.
+     */
+    public int getSuccOf(int index, int i) {
+        return succs[outOffsets[index] + i];
+    }
+
+    /**
+     * @return the i-th out edge of the node at given index.
+     */
+    public CFGEdge<Stmt> getOutEdgeOf(int index, int i) {
+        return outEdges[outOffsets[index] + i];
+    }
+
+    /**
+     * @return the number of in edges of the node at given index.
+     */
+    public int getInDegreeOf(int index) {
+        return inOffsets[index + 1] - inOffsets[index];
+    }
+
+    /**
+     * @return the index of the source of the i-th in edge
+     * of the node at given index.
+     */
+    public int getPredOf(int index, int i) {
+        return preds[inOffsets[index] + i];
+    }
+
+    /**
+     * @return the i-th in edge of the node at given index.
+     */
+    public CFGEdge<Stmt> getInEdgeOf(int index, int i) {
+        return inEdges[inOffsets[index] + i];
+    }
+
+    @Override
+    public Set<CFGEdge<Stmt>> getInEdgesOf(Stmt node) {
+        int index = getIndex(node);
+        return new ArrayRangeSet<>(inEdges, inOffsets[index], inOffsets[index + 1]);
+    }
+
+    @Override
+    public Set<CFGEdge<Stmt>> getOutEdgesOf(Stmt node) {
+        int index = getIndex(node);
+        return new ArrayRangeSet<>(outEdges, outOffsets[index], outOffsets[index + 1]);
+    }
+
+    @Override
+    public int getInDegreeOf(Stmt node) {
+        return getInDegreeOf(getIndex(node));
+    }
+
+    @Override
+    public int getOutDegreeOf(Stmt node) {
+        return getOutDegreeOf(getIndex(node));
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt node) {
+        return Views.toMappedSet(getInEdgesOf(node), CFGEdge::source);
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt node) {
+        return Views.toMappedSet(getOutEdgesOf(node), CFGEdge::target);
+    }
+
+    @Override
+    public boolean hasNode(Stmt node) {
+        int index = getIndex(node);
+        return 0 <= index && index < nodes.length && nodes[index] == node;
+    }
+
+    @Override
+    public Set<Stmt> getNodes() {
+        return Views.toMappedSet(Arrays.asList(nodes), Function.identity(),
+                o -> o instanceof Stmt stmt && hasNode(stmt));
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return nodes.length;
+    }
+
+    /**
+     * Unmodifiable set view of a range of an array,
+     * whose elements are distinct.
+     */
+    private static class ArrayRangeSet<E> extends AbstractSet<E> {
+
+        private final E[] array;
+
+        private final int from;
+
+        private final int to;
+
+        private ArrayRangeSet(E[] array, int from, int to) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            for (int i = from; i < to; ++i) {
+                if (array[i].equals(o)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<E> iterator() {
+            return new Iterator<>() {
+
+                private int i = from;
+
+                @Override
+                public boolean hasNext() {
+                    return i < to;
+                }
+
+                @Override
+                public E next() {
+                    if (i >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return array[i++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.stmt.Stmt;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Represents a basic block, i.e., a maximal sequence of {@link Stmt}s
+ * which is always executed from the first one to the last one.
+ * In a {@link BlockCFG}, the control flows only enter a block at its
+ * first stmt, and only leave a block at its last stmt.
+ */
+public class BasicBlock implements Iterable<Stmt> {
+
+    private final int index;
+
+    private final List<Stmt> stmts;
+
+    BasicBlock(int index, List<Stmt> stmts) {
+        this.index = index;
+        this.stmts = List.copyOf(stmts);
+    }
+
+    /**
+     * @return index of this block in its {@link BlockCFG}.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return the stmts in this block in execution order.
+     */
+    public List<Stmt> getStmts() {
+        return stmts;
+    }
+
+    public Stmt getFirst() {
+        return stmts.get(0);
+    }
+
+    public Stmt getLast() {
+        return stmts.get(stmts.size() - 1);
+    }
+
+    /**
+     * @return number of stmts in this block.
+     */
+    public int size() {
+        return stmts.size();
+    }
+
+    @Override
+    @Nonnull
+    public Iterator<Stmt> iterator() {
+        return stmts.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return "B" + index + stmts;
+    }
+}
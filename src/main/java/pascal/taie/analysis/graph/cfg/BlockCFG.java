@@ -0,0 +1,182 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.ArraySet;
+import pascal.taie.util.collection.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CFG with {@link BasicBlock}s as nodes, which is built from a CFG of
+ * {@link Stmt}s. Two adjacent stmts {@code s1} and {@code s2} are put
+ * in the same block if {@code s1} has exactly one successor {@code s2},
+ * and {@code s2} has exactly one predecessor {@code s1}. The entry
+ * and exit of the stmt CFG are always in their own blocks, which are
+ * the entry and exit of the block CFG.
+ * <p>
+ * The blocks are indexed in the order of the indexes of their first stmts
+ * (except the blocks of unreachable cycles, which are indexed at last),
+ * thus the entry block is always mapped to index 0.
+ */
+public class BlockCFG extends AbstractCFG<BasicBlock> {
+
+    private final CFG<Stmt> stmtCFG;
+
+    private final BasicBlock[] blocks;
+
+    /**
+     * Indexes of the blocks containing the nodes of {@link #stmtCFG},
+     * indexed by the indexes of the nodes.
+     */
+    private final int[] blockIndexes;
+
+    /**
+     * Positions of the nodes of {@link #stmtCFG} in their blocks,
+     * indexed by the indexes of the nodes.
+     */
+    private final int[] positions;
+
+    public BlockCFG(CFG<Stmt> stmtCFG) {
+        super(stmtCFG.getIR());
+        this.stmtCFG = stmtCFG;
+        int nNodes = stmtCFG.getIR().getStmts().size() + 2;
+        blockIndexes = new int[nNodes];
+        Arrays.fill(blockIndexes, -1);
+        positions = new int[nNodes];
+        List<BasicBlock> blockList = new ArrayList<>();
+        // build the blocks starting at leaders
+        for (int i = 0; i < nNodes; ++i) {
+            Stmt node = stmtCFG.getNode(i);
+            if (isLeader(node)) {
+                blockList.add(buildBlock(node, blockList.size()));
+            }
+        }
+        // the remaining stmts are in the cycles which are only
+        // connected by fall-through/goto edges, and can only be
+        // reached via themselves, e.g., "L: goto L;"
+        for (int i = 0; i < nNodes; ++i) {
+            if (blockIndexes[i] == -1) {
+                blockList.add(buildBlock(stmtCFG.getNode(i), blockList.size()));
+            }
+        }
+        blocks = blockList.toArray(new BasicBlock[0]);
+        for (BasicBlock block : blocks) {
+            addNode(block);
+        }
+        setEntry(getBlockOf(stmtCFG.getEntry()));
+        setExit(getBlockOf(stmtCFG.getExit()));
+        for (BasicBlock block : blocks) {
+            Stmt last = block.getLast();
+            for (CFGEdge<Stmt> edge : stmtCFG.getOutEdgesOf(last)) {
+                addEdge(new BlockEdge(block, getBlockOf(edge.target()), edge));
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code pred} and {@code succ} can be put
+     * in the same block, and {@code succ} is placed right after {@code pred}.
+     */
+    private boolean canMerge(Stmt pred, Stmt succ) {
+        return !stmtCFG.isEntry(pred) && !stmtCFG.isExit(succ) &&
+                stmtCFG.getOutDegreeOf(pred) == 1 &&
+                stmtCFG.getInDegreeOf(succ) == 1;
+    }
+
+    private boolean isLeader(Stmt node) {
+        if (stmtCFG.getInDegreeOf(node) != 1) {
+            return true;
+        }
+        Stmt pred = CollectionUtils.getOne(stmtCFG.getPredsOf(node));
+        return !canMerge(pred, node);
+    }
+
+    private BasicBlock buildBlock(Stmt leader, int index) {
+        List<Stmt> stmts = new ArrayList<>();
+        Stmt node = leader;
+        while (true) {
+            int i = stmtCFG.getIndex(node);
+            blockIndexes[i] = index;
+            positions[i] = stmts.size();
+            stmts.add(node);
+            if (stmtCFG.getOutDegreeOf(node) != 1) {
+                break;
+            }
+            Stmt succ = CollectionUtils.getOne(stmtCFG.getSuccsOf(node));
+            if (!canMerge(node, succ) ||
+                    blockIndexes[stmtCFG.getIndex(succ)] != -1) {
+                break;
+            }
+            node = succ;
+        }
+        return new BasicBlock(index, stmts);
+    }
+
+    /**
+     * @return the stmt CFG which this block CFG is built from.
+     */
+    public CFG<Stmt> getStmtCFG() {
+        return stmtCFG;
+    }
+
+    /**
+     * @return the block containing given node of the stmt CFG.
+     */
+    public BasicBlock getBlockOf(Stmt stmt) {
+        return blocks[blockIndexes[stmtCFG.getIndex(stmt)]];
+    }
+
+    /**
+     * @return the position of given node of the stmt CFG in its block.
+     */
+    public int getPositionOf(Stmt stmt) {
+        return positions[stmtCFG.getIndex(stmt)];
+    }
+
+    @Override
+    public int getIndex(BasicBlock block) {
+        return block.getIndex();
+    }
+
+    @Override
+    public BasicBlock getNode(int index) {
+        return blocks[index];
+    }
+
+    @Override
+    public Set<BasicBlock> getNodes() {
+        // keep nodes sorted to ease debugging
+        return Collections.unmodifiableSet(new ArraySet<>(Arrays.asList(blocks)));
+    }
+
+    @Override
+    public int getNumberOfNodes() {
+        return blocks.length;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.ClassType;
+
+import java.util.Set;
+
+/**
+ * Edge of {@link BlockCFG}. Each block edge corresponds to an out edge
+ * of the last stmt of its source block, and it preserves the kind
+ * and the information (e.g., exceptions) of the stmt edge.
+ */
+public class BlockEdge extends CFGEdge<BasicBlock> {
+
+    private final CFGEdge<Stmt> stmtEdge;
+
+    BlockEdge(BasicBlock source, BasicBlock target, CFGEdge<Stmt> stmtEdge) {
+        super(stmtEdge.getKind(), source, target);
+        this.stmtEdge = stmtEdge;
+    }
+
+    /**
+     * @return the stmt edge which this block edge corresponds to.
+     */
+    public CFGEdge<Stmt> getStmtEdge() {
+        return stmtEdge;
+    }
+
+    @Override
+    public int getCaseValue() {
+        return stmtEdge.getCaseValue();
+    }
+
+    @Override
+    public Set<ClassType> getExceptions() {
+        return stmtEdge.getExceptions();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return stmtEdge.equals(((BlockEdge) o).stmtEdge);
+    }
+
+    @Override
+    public int hashCode() {
+        return stmtEdge.hashCode();
+    }
+}
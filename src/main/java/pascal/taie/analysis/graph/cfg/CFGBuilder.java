@@ -58,12 +58,15 @@ public class CFGBuilder extends MethodAnalysis<CFG<Stmt>> {
 
     private final boolean isDump;
 
+    private final boolean compact;
+
     private final File dumpDir;
 
     public CFGBuilder(AnalysisConfig config) {
         super(config);
         noException = getOptions().getString("exception") == null;
         isDump = getOptions().getBoolean("dump");
+        compact = getOptions().getBoolean("compact");
         if (isDump) {
             dumpDir = new File(World.get().getOptions().getOutputDir(), CFG_DIR);
             if (!dumpDir.exists()) {
@@ -77,17 +80,28 @@ public class CFGBuilder extends MethodAnalysis<CFG<Stmt>> {
 
     @Override
     public CFG<Stmt> analyze(IR ir) {
+        CFG<Stmt> cfg = build(ir, new Nop(), new Nop());
+        if (isDump) {
+            CFGDumper.dumpDotFile(cfg, dumpDir);
+        }
+        return cfg;
+    }
+
+    /**
+     * Builds the CFG of given IR with given entry and exit nodes.
+     * Clients that build the CFG of the same method multiple times
+     * (e.g., after the previous one was discarded) can use this method
+     * to keep the entry and exit nodes of the CFGs unchanged.
+     */
+    public CFG<Stmt> build(IR ir, Nop entry, Nop exit) {
         StmtCFG cfg = new StmtCFG(ir);
-        cfg.setEntry(new Nop());
-        cfg.setExit(new Nop());
+        cfg.setEntry(entry);
+        cfg.setExit(exit);
         buildNormalEdges(cfg);
         if (!noException) {
             buildExceptionalEdges(cfg);
         }
-        if (isDump) {
-            CFGDumper.dumpDotFile(cfg, dumpDir);
-        }
-        return cfg;
+        return compact ? new ArrayCFG(cfg) : cfg;
     }
 
     private static void buildNormalEdges(StmtCFG cfg) {
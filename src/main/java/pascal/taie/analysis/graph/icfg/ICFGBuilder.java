@@ -49,15 +49,21 @@ public class ICFGBuilder extends ProgramAnalysis<ICFG<JMethod, Stmt>> {
 
     private final boolean isDump;
 
+    private final boolean isLazy;
+
     public ICFGBuilder(AnalysisConfig config) {
         super(config);
         isDump = getOptions().getBoolean("dump");
+        isLazy = getOptions().getBoolean("lazy");
     }
 
     @Override
     public ICFG<JMethod, Stmt> analyze() {
         CallGraph<Stmt, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
-        ICFG<JMethod, Stmt> icfg = new DefaultICFG(callGraph);
+        ICFG<JMethod, Stmt> icfg = isLazy ?
+                new LazyICFG(callGraph, getOptions().getString("exception"),
+                        getOptions().getInt("cfg-cache-size")) :
+                new DefaultICFG(callGraph);
         if (isDump) {
             dumpICFG(icfg);
         }
@@ -96,7 +102,8 @@ public class ICFGBuilder extends ProgramAnalysis<ICFG<JMethod, Stmt>> {
 
     private static String toLabel(Stmt stmt, ICFG<JMethod, Stmt> icfg) {
         JMethod method = icfg.getContainingMethodOf(stmt);
-        CFG<Stmt> cfg = getCFGOf(method);
+        CFG<Stmt> cfg = icfg instanceof LazyICFG lazyICFG ?
+                lazyICFG.getCFGOf(method) : getCFGOf(method);
         return CFGDumper.toLabel(stmt, cfg);
     }
 
@@ -0,0 +1,405 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import pascal.taie.analysis.exception.ThrowAnalysis;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMap;
+import pascal.taie.util.collection.Views;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ICFG whose nodes and edges are computed on demand.
+ * <p>
+ * Different from {@link DefaultICFG}, which requires the CFGs of all
+ * reachable methods and materializes all edges at construction, this ICFG
+ * builds the CFG of a method when the method is first visited, and computes
+ * the edges of a node each time they are queried. The built CFGs are kept
+ * in an LRU cache of bounded size, and the evicted CFGs are rebuilt when
+ * they are needed again. The entry and exit nodes of each method are kept
+ * out of the cache, so that the rebuilt CFGs still share them with the
+ * call and return edges held by the clients. The containing methods of the
+ * other nodes are recorded only while their CFGs are in the cache, and
+ * they are recovered from the nodes themselves after eviction, except for
+ * the nodes without any variable (e.g., {@code goto}), whose containing
+ * methods are looked up from an index that is built once on demand.
+ * The throw results (if any) that are computed for building the CFGs
+ * are stored in the IRs as long as the CFGs are in the cache.
+ * <p>
+ * Clients that only explore the part of the program reachable from some
+ * nodes (e.g., tabulation-based solvers) benefit from this ICFG. Note that
+ * {@link #getNodes()} still visits the CFGs of all reachable methods.
+ */
+class LazyICFG extends AbstractICFG<JMethod, Stmt> {
+
+    private final CFGBuilder cfgBuilder;
+
+    @Nullable
+    private final ThrowAnalysis throwAnalysis;
+
+    /**
+     * LRU cache of the CFGs built by this ICFG.
+     */
+    private final Map<JMethod, CFG<Stmt>> cfgs;
+
+    /**
+     * Entry and exit nodes of the methods whose CFGs have been built.
+     */
+    private final Map<JMethod, Nop[]> boundaries = Maps.newMap();
+
+    /**
+     * Containing methods of the nodes of the cached CFGs, and of
+     * the entry and exit nodes of all built CFGs.
+     */
+    private final Map<Stmt, JMethod> containers = Maps.newMap();
+
+    /**
+     * Containing methods of the nodes of all reachable methods that
+     * cannot be recovered from the nodes themselves. This map is built
+     * on demand, as it is only needed after eviction of CFGs.
+     */
+    private Map<Stmt, JMethod> anchorlessContainers;
+
+    /**
+     * Methods whose throw results were stored in their IRs by this ICFG.
+     */
+    private final Set<JMethod> throwResultHolders = Sets.newSet();
+
+    /**
+     * Call edges are kept so that the same call edge is returned
+     * for repeated queries, as some clients use them as keys.
+     */
+    private final TwoKeyMap<Stmt, JMethod, CallEdge<Stmt>> callEdges =
+            Maps.newTwoKeyMap();
+
+    /**
+     * Number of CFGs built by this ICFG, including the rebuilt ones.
+     */
+    private int builtCFGs;
+
+    /**
+     * @param callGraph the call graph of the program
+     * @param exception the exception mode of the CFGs built by this ICFG,
+     *                  i.e., {@code null}, {@code "explicit"} or {@code "all"}
+     * @param cacheSize the maximum number of CFGs kept in the cache
+     */
+    LazyICFG(CallGraph<Stmt, JMethod> callGraph,
+             @Nullable String exception, int cacheSize) {
+        super(callGraph);
+        cfgBuilder = new CFGBuilder(AnalysisConfig.of(CFGBuilder.ID,
+                "exception", exception, "dump", false, "compact", false));
+        throwAnalysis = exception == null ? null :
+                new ThrowAnalysis(AnalysisConfig.of(ThrowAnalysis.ID,
+                        "exception", exception, "algorithm", "intra"));
+        cfgs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<JMethod, CFG<Stmt>> eldest) {
+                if (size() > cacheSize) {
+                    CFG<Stmt> cfg = eldest.getValue();
+                    for (Stmt node : cfg) {
+                        if (!cfg.isEntry(node) && !cfg.isExit(node)) {
+                            containers.remove(node);
+                        }
+                    }
+                    JMethod method = eldest.getKey();
+                    if (throwResultHolders.remove(method)) {
+                        method.getIR().clearResult(ThrowAnalysis.ID);
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the CFG of given method. If the CFG has been built by
+     * {@link CFGBuilder} and stored in the IR, then returns it; otherwise,
+     * returns the cached CFG, or builds it if it is absent from the cache.
+     */
+    synchronized CFG<Stmt> getCFGOf(JMethod method) {
+        IR ir = method.getIR();
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        if (cfg != null) {
+            // CFGs stored in IRs are never evicted
+            if (!containers.containsKey(cfg.getEntry())) {
+                for (Stmt node : cfg) {
+                    containers.put(node, method);
+                }
+            }
+            return cfg;
+        }
+        cfg = cfgs.get(method);
+        if (cfg == null) {
+            if (throwAnalysis != null && !ir.hasResult(ThrowAnalysis.ID)) {
+                // the throw result is dropped when the CFG is evicted
+                ir.storeResult(ThrowAnalysis.ID, throwAnalysis.analyze(ir));
+                throwResultHolders.add(method);
+            }
+            Nop[] boundary = boundaries.computeIfAbsent(method,
+                    m -> new Nop[]{ new Nop(), new Nop() });
+            cfg = cfgBuilder.build(ir, boundary[0], boundary[1]);
+            for (Stmt node : cfg) {
+                containers.put(node, method);
+            }
+            // the containers of evicted nodes are removed together with the CFG
+            cfgs.put(method, cfg);
+            ++builtCFGs;
+        }
+        return cfg;
+    }
+
+    /**
+     * @return {@code true} if the CFG of given method can be built.
+     */
+    private static boolean hasCFG(JMethod method) {
+        return !method.isAbstract();
+    }
+
+    /**
+     * @return number of CFGs built by this ICFG, including the ones rebuilt
+     * after eviction from the cache.
+     */
+    int getNumberOfBuiltCFGs() {
+        return builtCFGs;
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getInEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        CFG<Stmt> cfg = getCFGOf(method);
+        Set<ICFGEdge<Stmt>> edges = Sets.newHybridSet();
+        Set<Stmt> callSites = Sets.newHybridSet();
+        cfg.getInEdgesOf(stmt).forEach(edge -> {
+            Stmt source = edge.source();
+            if (isCallSite(source)) {
+                edges.add(new CallToReturnEdge<>(edge));
+                // stmt is a return site of source
+                if (callSites.add(source)) {
+                    getCalleesOf(source).forEach(callee -> {
+                        if (hasCFG(callee)) {
+                            edges.add(newReturnEdge(callee, stmt, source));
+                        }
+                    });
+                }
+            } else {
+                edges.add(new NormalEdge<>(edge));
+            }
+        });
+        if (cfg.isEntry(stmt)) {
+            getCallersOf(method).forEach(callSite ->
+                    edges.add(getCallEdge(callSite, method)));
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    @Override
+    public Set<ICFGEdge<Stmt>> getOutEdgesOf(Stmt stmt) {
+        JMethod method = getContainingMethodOf(stmt);
+        CFG<Stmt> cfg = getCFGOf(method);
+        Set<ICFGEdge<Stmt>> edges = Sets.newHybridSet();
+        boolean isCallSite = isCallSite(stmt);
+        cfg.getOutEdgesOf(stmt).forEach(edge -> edges.add(isCallSite ?
+                new CallToReturnEdge<>(edge) : new NormalEdge<>(edge)));
+        if (isCallSite) {
+            getCalleesOf(stmt).forEach(callee -> {
+                if (hasCFG(callee)) {
+                    edges.add(getCallEdge(stmt, callee));
+                }
+            });
+        }
+        if (cfg.isExit(stmt)) {
+            getCallersOf(method).forEach(callSite ->
+                    getReturnSitesOf(callSite).forEach(retSite ->
+                            edges.add(newReturnEdge(method, retSite, callSite))));
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    private synchronized CallEdge<Stmt> getCallEdge(Stmt callSite, JMethod callee) {
+        CallEdge<Stmt> edge = callEdges.get(callSite, callee);
+        if (edge == null) {
+            edge = new CallEdge<>(callSite, getEntryOf(callee), callee);
+            callEdges.put(callSite, callee, edge);
+        }
+        return edge;
+    }
+
+    /**
+     * Creates the return edge from the exit of {@code callee} to
+     * {@code retSite}. The return variables and exceptions are collected
+     * in the same way as {@link DefaultICFG}.
+     */
+    private ReturnEdge<Stmt> newReturnEdge(
+            JMethod callee, Stmt retSite, Stmt callSite) {
+        CFG<Stmt> cfg = getCFGOf(callee);
+        Stmt exit = cfg.getExit();
+        Set<Var> retVars = Sets.newHybridSet();
+        Set<ClassType> exceptions = Sets.newHybridSet();
+        cfg.getInEdgesOf(exit).forEach(retEdge -> {
+            if (retEdge.getKind() == CFGEdge.Kind.RETURN) {
+                Return ret = (Return) retEdge.source();
+                if (ret.getValue() != null) {
+                    retVars.add(ret.getValue());
+                }
+            }
+            if (retEdge.isExceptional()) {
+                exceptions.addAll(retEdge.getExceptions());
+            }
+        });
+        return new ReturnEdge<>(exit, retSite, callSite, retVars, exceptions);
+    }
+
+    @Override
+    public Stmt getEntryOf(JMethod method) {
+        return getCFGOf(method).getEntry();
+    }
+
+    @Override
+    public Stmt getExitOf(JMethod method) {
+        return getCFGOf(method).getExit();
+    }
+
+    @Override
+    public Set<Stmt> getReturnSitesOf(Stmt callSite) {
+        assert isCallSite(callSite);
+        return getCFGOf(getContainingMethodOf(callSite)).getSuccsOf(callSite);
+    }
+
+    @Override
+    public synchronized JMethod getContainingMethodOf(Stmt stmt) {
+        JMethod method = containers.get(stmt);
+        if (method == null) {
+            // the CFG of the container has not been built yet, or
+            // it has been evicted from the cache
+            method = recoverContainingMethodOf(stmt);
+            if (method == null) {
+                if (anchorlessContainers == null) {
+                    anchorlessContainers = buildAnchorlessContainers();
+                }
+                method = anchorlessContainers.get(stmt);
+            }
+        }
+        return method;
+    }
+
+    /**
+     * Recovers the containing method of a node from the node itself,
+     * i.e., if it is an invocation or it involves any variable.
+     *
+     * @return the containing method, or {@code null} if it
+     * cannot be recovered from given node.
+     */
+    @Nullable
+    private static JMethod recoverContainingMethodOf(Stmt stmt) {
+        if (stmt instanceof Invoke invoke) {
+            return invoke.getContainer();
+        }
+        if (stmt.getDef().orElse(null) instanceof Var def) {
+            return def.getMethod();
+        }
+        for (RValue use : stmt.getUses()) {
+            if (use instanceof Var var) {
+                return var.getMethod();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the containing methods of the stmts of reachable methods
+     * whose containing methods cannot be recovered from the stmts.
+     */
+    private Map<Stmt, JMethod> buildAnchorlessContainers() {
+        Map<Stmt, JMethod> result = Maps.newMap();
+        for (JMethod method : callGraph) {
+            if (hasCFG(method)) {
+                for (Stmt stmt : method.getIR()) {
+                    if (recoverContainingMethodOf(stmt) == null) {
+                        result.put(stmt, method);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean isCallSite(Stmt stmt) {
+        return stmt instanceof Invoke;
+    }
+
+    @Override
+    public boolean hasEdge(Stmt source, Stmt target) {
+        return getOutEdgesOf(source)
+                .stream()
+                .anyMatch(edge -> edge.target().equals(target));
+    }
+
+    @Override
+    public Set<Stmt> getPredsOf(Stmt stmt) {
+        return Views.toMappedSet(getInEdgesOf(stmt), ICFGEdge::source);
+    }
+
+    @Override
+    public Set<Stmt> getSuccsOf(Stmt stmt) {
+        return Views.toMappedSet(getOutEdgesOf(stmt), ICFGEdge::target);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This method visits the CFGs of all reachable methods, and
+     * it may build the ones that have not been built or been evicted.
+     */
+    @Override
+    public Set<Stmt> getNodes() {
+        Set<Stmt> nodes = Sets.newLinkedSet();
+        callGraph.forEach(method -> {
+            if (hasCFG(method)) {
+                getCFGOf(method).forEach(nodes::add);
+            }
+        });
+        return Collections.unmodifiableSet(nodes);
+    }
+}
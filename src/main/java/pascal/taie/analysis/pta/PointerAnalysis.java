@@ -23,15 +23,19 @@
 package pascal.taie.analysis.pta;
 
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.selector.AdaptiveSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.solver.DefaultSolver;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.AdaptiveContextMonitor;
 import pascal.taie.analysis.pta.plugin.AnalysisTimer;
 import pascal.taie.analysis.pta.plugin.ClassInitializer;
 import pascal.taie.analysis.pta.plugin.CompositePlugin;
@@ -63,6 +67,8 @@ import java.util.List;
 
 public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
+    private static final Logger logger = LogManager.getLogger(PointerAnalysis.class);
+
     public static final String ID = "pta";
 
     public PointerAnalysis(AnalysisConfig config) {
@@ -84,25 +90,48 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 // run context-insensitive analysis as pre-analysis
                 PointerAnalysisResult preResult = runAnalysis(heapModel,
                         ContextSelectorFactory.makeCISelector());
-                if (advanced.startsWith("scaler")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeGuidedSelector(Scaler.run(preResult, advanced)),
-                            "Scaler", Level.INFO);
-                } else if (advanced.startsWith("zipper")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced)),
-                            "Zipper", Level.INFO);
-                } else if (advanced.equals("mahjong")) {
-                    heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
-                            "Mahjong", Level.INFO);
-                } else {
-                    throw new IllegalArgumentException(
-                            "Illegal advanced analysis argument: " + advanced);
+                // multiple advanced analyses can be chained by '+',
+                // e.g., mahjong+zipper, and they share the artifacts
+                // derived from the same pre-analysis result
+                for (String adv : advanced.split("\\+")) {
+                    if ((adv.startsWith("scaler") || adv.startsWith("zipper"))
+                            && selector != null) {
+                        throw new IllegalArgumentException(
+                                "Multiple context selections in advanced analysis: "
+                                        + advanced);
+                    }
+                    if (adv.startsWith("scaler")) {
+                        selector = Timer.runAndCount(() -> ContextSelectorFactory
+                                        .makeGuidedSelector(Scaler.run(preResult, adv)),
+                                "Scaler", Level.INFO);
+                    } else if (adv.startsWith("zipper")) {
+                        int budget = options.has("zipper-memory-budget")
+                                ? options.getInt("zipper-memory-budget") : -1;
+                        selector = Timer.runAndCount(() -> ContextSelectorFactory
+                                        .makeSelectiveSelector(cs,
+                                                Zipper.run(preResult, adv, budget)),
+                                "Zipper", Level.INFO);
+                    } else if (adv.equals("mahjong")) {
+                        heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
+                                "Mahjong", Level.INFO);
+                    } else {
+                        throw new IllegalArgumentException(
+                                "Illegal advanced analysis argument: " + advanced);
+                    }
                 }
             }
         }
+        int adaptiveBudget = options.has("adaptive-cs-budget")
+                ? options.getInt("adaptive-cs-budget") : 0;
         if (selector == null) {
-            selector = ContextSelectorFactory.makePlainSelector(cs);
+            if (adaptiveBudget > 0 && !cs.equals("ci")) {
+                selector = ContextSelectorFactory.makeAdaptiveSelector(cs);
+            } else {
+                selector = ContextSelectorFactory.makePlainSelector(cs);
+            }
+        } else if (adaptiveBudget > 0) {
+            logger.warn("Option adaptive-cs-budget is ignored" +
+                    " as advanced analysis {} is enabled", advanced);
         }
         return runAnalysis(heapModel, selector);
     }
@@ -155,6 +184,9 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 || !((List<String>) options.get("taint-config-providers")).isEmpty()) {
             plugin.addPlugin(new TaintAnalysis());
         }
+        if (solver.getContextSelector() instanceof AdaptiveSelector) {
+            plugin.addPlugin(new AdaptiveContextMonitor());
+        }
         plugin.addPlugin(new ResultProcessor());
         // add plugins specified in options
         // noinspection unchecked
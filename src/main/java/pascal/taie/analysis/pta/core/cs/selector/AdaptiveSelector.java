@@ -0,0 +1,154 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.selector;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Adaptive context selector, which applies the context sensitivity of
+ * a delegate selector to all methods at the beginning, and allows to
+ * downgrade the context sensitivity of individual methods during solving,
+ * e.g., when the analysis of the methods is too expensive.
+ * Downgrading only affects the contexts selected afterwards,
+ * and the contexts that have been selected are kept.
+ * <p>
+ * If the delegate is a k-limiting selector, each downgrading decreases
+ * the context limit of a method by 1, until the method is analyzed
+ * context-insensitively; otherwise, a downgraded method is directly
+ * analyzed context-insensitively.
+ */
+public class AdaptiveSelector implements ContextSelector {
+
+    /**
+     * Delegate context selector.
+     */
+    private final ContextSelector delegate;
+
+    /**
+     * The delegate if it is a k-limiting selector, otherwise {@code null}.
+     */
+    @Nullable
+    private final KLimitingSelector<?> kLimiting;
+
+    /**
+     * Context limit of the delegate. For the delegates that are not
+     * k-limiting, we treat their limits as 1.
+     */
+    private final int limit;
+
+    /**
+     * Map from downgraded methods to their current context limits.
+     */
+    private final Map<JMethod, Integer> limits = Maps.newMap();
+
+    AdaptiveSelector(ContextSelector delegate) {
+        this.delegate = delegate;
+        if (delegate instanceof KLimitingSelector<?> selector) {
+            kLimiting = selector;
+            limit = selector.limit;
+        } else {
+            kLimiting = null;
+            limit = 1;
+        }
+    }
+
+    /**
+     * Downgrades the context sensitivity of given method.
+     *
+     * @return {@code true} if the method is downgraded, or {@code false}
+     * if the method is already analyzed context-insensitively.
+     */
+    public boolean downgrade(JMethod method) {
+        int current = getLimitOf(method);
+        if (current == 0) {
+            return false;
+        }
+        limits.put(method, kLimiting != null ? current - 1 : 0);
+        return true;
+    }
+
+    /**
+     * @return the current context limit of given method.
+     */
+    public int getLimitOf(JMethod method) {
+        return limits.getOrDefault(method, limit);
+    }
+
+    /**
+     * @return the context limit of the delegate selector.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return an unmodifiable view of the map from downgraded methods
+     * to their current context limits.
+     */
+    public Map<JMethod, Integer> getDowngradedMethods() {
+        return Collections.unmodifiableMap(limits);
+    }
+
+    @Override
+    public Context getEmptyContext() {
+        return delegate.getEmptyContext();
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, JMethod callee) {
+        return adapt(callee, delegate.selectContext(callSite, callee));
+    }
+
+    @Override
+    public Context selectContext(CSCallSite callSite, CSObj recv, JMethod callee) {
+        return adapt(callee, delegate.selectContext(callSite, recv, callee));
+    }
+
+    @Override
+    public Context selectHeapContext(CSMethod method, Obj obj) {
+        // heap contexts are derived from the contexts of the methods,
+        // which have been adapted
+        return delegate.selectHeapContext(method, obj);
+    }
+
+    private Context adapt(JMethod callee, Context context) {
+        Integer calleeLimit = limits.get(callee);
+        if (calleeLimit == null) {
+            return context;
+        } else if (calleeLimit == 0 || kLimiting == null) {
+            return delegate.getEmptyContext();
+        } else {
+            return kLimiting.factory.makeLastK(context, calleeLimit);
+        }
+    }
+}
@@ -102,6 +102,15 @@ public class ContextSelectorFactory {
         return new SelectiveSelector(makePlainSelector(cs), isCSMethod, isCSObj);
     }
 
+    /**
+     * @return an adaptive context selector which applies given context
+     * sensitivity variant to all methods, and allows to downgrade
+     * the context sensitivity of individual methods during solving.
+     */
+    public static AdaptiveSelector makeAdaptiveSelector(String cs) {
+        return new AdaptiveSelector(makePlainSelector(cs));
+    }
+
     /**
      * @return a guided context selector which applies the context sensitivity
      * variants to the methods according to given map.
@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.selector.AdaptiveSelector;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Watches the cost of each method during solving, and downgrades the
+ * context sensitivity of the methods that exceed the budget via
+ * {@link AdaptiveSelector}, so that the analysis degrades precision
+ * instead of soundness when it is too expensive.
+ * <p>
+ * Similar to {@link Profiler}, the cost of a method is measured by
+ * the growth of points-to sets of its (context-sensitive) variables.
+ * When a method exceeds the budget, its context limit is decreased
+ * and its cost is reset, so that it can be downgraded again later.
+ * Besides, when the analysis approaches the time limit or
+ * the memory limit, the budget is halved to downgrade more methods.
+ */
+public class AdaptiveContextMonitor implements Plugin {
+
+    private static final Logger logger = LogManager.getLogger(AdaptiveContextMonitor.class);
+
+    private static final String REPORT_FILE = "pta-downgraded-methods.txt";
+
+    /**
+     * Checks the global (time and memory) budget every
+     * CHECK_INTERVAL points-to set changes.
+     */
+    private static final int CHECK_INTERVAL = 10_000;
+
+    /**
+     * The budget is tightened when the used heap exceeds
+     * this ratio of max heap.
+     */
+    private static final double MEMORY_RATIO = 0.8;
+
+    /**
+     * The budget is tightened when the elapsed time exceeds
+     * this ratio of time limit.
+     */
+    private static final double TIME_RATIO = 0.5;
+
+    private AdaptiveSelector selector;
+
+    /**
+     * Current budget of points-to growth of each method.
+     */
+    private long budget;
+
+    /**
+     * Time limit (in milliseconds), or -1 if unlimited.
+     */
+    private long timeLimit;
+
+    private long startTime;
+
+    private int events;
+
+    private final Map<JMethod, Cost> costs = Maps.newMap();
+
+    private static class Cost {
+
+        /**
+         * Number of contexts of the method.
+         */
+        private int contexts;
+
+        /**
+         * Growth of points-to sets since last downgrading.
+         */
+        private long growth;
+
+        /**
+         * Total growth of points-to sets.
+         */
+        private long totalGrowth;
+    }
+
+    @Override
+    public void setSolver(Solver solver) {
+        if (solver.getContextSelector() instanceof AdaptiveSelector s) {
+            selector = s;
+        }
+        AnalysisOptions options = solver.getOptions();
+        budget = options.getInt("adaptive-cs-budget");
+        int seconds = options.getInt("time-limit");
+        timeLimit = seconds > 0 ? seconds * 1000L : -1;
+    }
+
+    @Override
+    public void onStart() {
+        startTime = System.currentTimeMillis();
+    }
+
+    @Override
+    public void onNewCSMethod(CSMethod csMethod) {
+        if (selector != null) {
+            getCost(csMethod.getMethod()).contexts++;
+        }
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        if (selector == null) {
+            return;
+        }
+        JMethod method = csVar.getVar().getMethod();
+        Cost cost = getCost(method);
+        cost.growth += pts.size();
+        cost.totalGrowth += pts.size();
+        if (cost.growth > budget && selector.downgrade(method)) {
+            logger.debug("Downgrade {} to limit {} ({} contexts, growth {})",
+                    method, selector.getLimitOf(method),
+                    cost.contexts, cost.growth);
+            cost.growth = 0;
+        }
+        if (++events % CHECK_INTERVAL == 0) {
+            checkGlobalBudget();
+        }
+    }
+
+    private Cost getCost(JMethod method) {
+        return costs.computeIfAbsent(method, __ -> new Cost());
+    }
+
+    private void checkGlobalBudget() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = runtime.totalMemory() - runtime.freeMemory();
+        boolean memoryTight = used > runtime.maxMemory() * MEMORY_RATIO;
+        boolean timeTight = timeLimit > 0 &&
+                System.currentTimeMillis() - startTime > timeLimit * TIME_RATIO;
+        if ((memoryTight || timeTight) && budget > 1) {
+            budget /= 2;
+            logger.info("Pointer analysis approaches its {} limit," +
+                    " tighten adaptive context budget to {}",
+                    memoryTight ? "memory" : "time", budget);
+        }
+    }
+
+    @Override
+    public void onFinish() {
+        if (selector == null) {
+            logger.warn("Adaptive context budget is ignored" +
+                    " as the context selector is not adaptive");
+            return;
+        }
+        Map<JMethod, Integer> downgraded = selector.getDowngradedMethods();
+        logger.info("{} methods are downgraded by adaptive context sensitivity" +
+                " (final budget: {})", downgraded.size(), budget);
+        if (downgraded.isEmpty()) {
+            return;
+        }
+        File outFile = new File(World.get().getOptions().getOutputDir(), REPORT_FILE);
+        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+            logger.info("Dumping downgraded methods to {}", outFile.getAbsolutePath());
+            out.printf("#method\tlimit (original: %d)\t#contexts\t#CS vars\tpts growth%n",
+                    selector.getLimit());
+            downgraded.keySet()
+                    .stream()
+                    .sorted(Comparator.comparingLong(
+                            (JMethod m) -> costs.get(m).totalGrowth).reversed())
+                    .forEach(m -> {
+                        Cost cost = costs.get(m);
+                        long csVars = (long) cost.contexts
+                                * m.getIR().getVars().size();
+                        out.printf("%s\t%d\t%d\t%d\t%d%n", m, downgraded.get(m),
+                                cost.contexts, csVars, cost.totalGrowth);
+                    });
+        } catch (FileNotFoundException e) {
+            logger.warn("Failed to write downgraded methods to {}, caused by {}",
+                    outFile.getAbsolutePath(), e);
+        }
+    }
+}
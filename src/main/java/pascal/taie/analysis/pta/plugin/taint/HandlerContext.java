@@ -29,5 +29,6 @@ import pascal.taie.analysis.pta.core.solver.Solver;
  */
 record HandlerContext(Solver solver,
                       TaintManager manager,
-                      TaintConfig config) {
+                      TaintConfig config,
+                      TaintRules rules) {
 }
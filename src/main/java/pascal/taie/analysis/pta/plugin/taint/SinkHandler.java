@@ -33,9 +33,6 @@ import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
-import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.MultiMap;
-import pascal.taie.util.collection.MultiMapCollector;
 import pascal.taie.util.collection.Sets;
 
 import java.util.List;
@@ -49,9 +46,12 @@ class SinkHandler extends Handler {
 
     private final List<Sink> sinks;
 
+    private final TaintRules rules;
+
     SinkHandler(HandlerContext context) {
         super(context);
         sinks = context.config().sinks();
+        rules = context.rules();
     }
 
     Set<TaintFlow> collectTaintFlows() {
@@ -67,18 +67,13 @@ class SinkHandler extends Handler {
                     .forEach(taintFlows::addAll);
         }
         if (callSiteMode) {
-            MultiMap<JMethod, Sink> sinkMap = sinks.stream()
-                    .collect(MultiMapCollector.get(Sink::method, s -> s));
             // scan all reachable call sites to search sink calls
             result.getCallGraph()
                     .reachableMethods()
                     .flatMap(m -> m.getIR().invokes(false))
                     .forEach(callSite -> {
-                        JMethod callee = callSite.getMethodRef().resolveNullable();
-                        if (callee != null) {
-                            for (Sink sink : sinkMap.get(callee)) {
-                                taintFlows.addAll(collectTaintFlows(callSite, sink));
-                            }
+                        for (Sink sink : rules.get(callSite).sinks()) {
+                            taintFlows.addAll(collectTaintFlows(callSite, sink));
                         }
                     });
         }
@@ -41,7 +41,7 @@ import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -49,10 +49,7 @@ import java.util.Set;
  */
 class SourceHandler extends OnFlyHandler {
 
-    /**
-     * Map from a source method to its result sources.
-     */
-    private final MultiMap<JMethod, CallSource> callSources = Maps.newMultiMap();
+    private final TaintRules rules;
 
     /**
      * Map from a method to {@link Invoke} statements in the method
@@ -61,11 +58,6 @@ class SourceHandler extends OnFlyHandler {
      */
     private final MultiMap<JMethod, Invoke> callSiteSources = Maps.newMultiMap();
 
-    /**
-     * Map from a source method to its parameter sources.
-     */
-    private final MultiMap<JMethod, ParamSource> paramSources = Maps.newMultiMap();
-
     private record SourceInfo(IndexRef indexRef, Obj taint) {
     }
 
@@ -76,11 +68,6 @@ class SourceHandler extends OnFlyHandler {
      */
     private final boolean handleFieldSources;
 
-    /**
-     * Map from a source field to its field source.
-     */
-    private final Map<JField, FieldSource> fieldSources = Maps.newMap();
-
     /**
      * Maps from a method to {@link LoadField} statements in the method
      * which loads a source field.
@@ -89,16 +76,8 @@ class SourceHandler extends OnFlyHandler {
 
     SourceHandler(HandlerContext context) {
         super(context);
-        context.config().sources().forEach(src -> {
-            if (src instanceof CallSource callSrc) {
-                callSources.put(callSrc.method(), callSrc);
-            } else if (src instanceof ParamSource paramSrc) {
-                paramSources.put(paramSrc.method(), paramSrc);
-            } else if (src instanceof FieldSource fieldSrc) {
-                fieldSources.put(fieldSrc.field(), fieldSrc);
-            }
-        });
-        handleFieldSources = !fieldSources.isEmpty();
+        rules = context.rules();
+        handleFieldSources = rules.hasFieldSources();
     }
 
     /**
@@ -109,7 +88,7 @@ class SourceHandler extends OnFlyHandler {
         if (edge.getKind() == CallKind.OTHER) {
             return;
         }
-        Set<CallSource> sources = callSources.get(edge.getCallee().getMethod());
+        List<CallSource> sources = rules.get(edge.getCallee().getMethod()).callSources();
         if (!sources.isEmpty()) {
             Context context = edge.getCallSite().getContext();
             Invoke callSite = edge.getCallSite().getCallSite();
@@ -171,7 +150,7 @@ class SourceHandler extends OnFlyHandler {
             // If a {@link LoadField} loads any source fields,
             // then records the {@link LoadField} statements.
             JField field = loadField.getFieldRef().resolveNullable();
-            if (fieldSources.containsKey(field)) {
+            if (rules.getFieldSource(field) != null) {
                 loadedFieldSources.put(container, loadField);
             }
         }
@@ -181,8 +160,7 @@ class SourceHandler extends OnFlyHandler {
             // Handles call sources for the case when call-site mode is enabled.
             // If method references of any {@link Invoke}s are resolved to
             // call source method, then records the {@link Invoke} statements.
-            JMethod callee = invoke.getMethodRef().resolveNullable();
-            if (callSources.containsKey(callee)) {
+            if (!rules.get(invoke).callSources().isEmpty()) {
                 callSiteSources.put(container, invoke);
             }
         }
@@ -201,10 +179,11 @@ class SourceHandler extends OnFlyHandler {
 
     private void handleParamSource(CSMethod csMethod) {
         JMethod method = csMethod.getMethod();
-        if (paramSources.containsKey(method)) {
+        List<ParamSource> sources = rules.get(method).paramSources();
+        if (!sources.isEmpty()) {
             Context context = csMethod.getContext();
             IR ir = method.getIR();
-            paramSources.get(method).forEach(source -> {
+            sources.forEach(source -> {
                 IndexRef indexRef = source.indexRef();
                 Var param = ir.getParam(indexRef.index());
                 SourcePoint sourcePoint = new ParamSourcePoint(method, indexRef, source);
@@ -230,7 +209,7 @@ class SourceHandler extends OnFlyHandler {
             loads.forEach(load -> {
                 Var lhs = load.getLValue();
                 JField field = load.getFieldRef().resolve();
-                FieldSource fieldSrc = fieldSources.get(field);
+                FieldSource fieldSrc = rules.getFieldSource(field);
                 SourcePoint sourcePoint = new FieldSourcePoint(method, load, fieldSrc);
                 Obj taint = manager.makeTaint(sourcePoint, fieldSrc.type());
                 solver.addVarPointsTo(context, lhs, taint);
@@ -247,11 +226,9 @@ class SourceHandler extends OnFlyHandler {
         Set<Invoke> callSites = callSiteSources.get(method);
         if (!callSites.isEmpty()) {
             Context context = csMethod.getContext();
-            callSites.forEach(callSite -> {
-                JMethod callee = callSite.getMethodRef().resolve();
-                callSources.get(callee).forEach(source ->
-                        processCallSource(context, callSite, source));
-            });
+            callSites.forEach(callSite ->
+                    rules.get(callSite).callSources().forEach(source ->
+                            processCallSource(context, callSite, source)));
         }
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.Timer;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Taint analysis that runs as a standalone client of a (cheap) pointer
+ * analysis instead of as a plugin of it.
+ * <p>
+ * Rather than injecting taint objects into points-to sets and solving the
+ * whole pointer analysis again, this analysis propagates taint labels
+ * sparsely along the object flow graph produced by the pre-analysis
+ * (typically context-insensitive). Points-to sets of the pre-analysis are
+ * queried on demand, only at sources, transfers, and sinks that involve
+ * array/field {@link IndexRef}s. The detected taint flows are in the same
+ * form as the ones reported by {@link TaintAnalysis}.
+ * <p>
+ * The taint-independent part of the analysis (e.g., the indexes of call
+ * sites and field loads) and the propagation results of each source are
+ * cached in {@link SparseTaintCache} along with the pre-analysis result,
+ * and the taint flows are cached by the digest of taint configuration.
+ * Hence, analyzing the same program with different taint configurations
+ * (given by option {@code taint-configs}, or by re-running this analysis
+ * on the same pre-analysis result) only costs the propagation of
+ * the sources that have not been propagated under the same transfers
+ * and sanitizers.
+ * <p>
+ * If the pre-analysis also ran {@link TaintAnalysis}, this analysis
+ * compares its flows with the ones of the plugin and logs the numbers,
+ * which serves as a quick precision/recall benchmark of the two modes.
+ */
+public class SparseTaintAnalysis extends ProgramAnalysis<Set<TaintFlow>> {
+
+    public static final String ID = "sparse-taint";
+
+    private static final Logger logger = LogManager.getLogger(SparseTaintAnalysis.class);
+
+    /**
+     * Key of {@link SparseTaintCache} stored in pointer analysis result.
+     */
+    private static final String CACHE_KEY = ID + "-cache";
+
+    public SparseTaintAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public Set<TaintFlow> analyze() {
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        SparseTaintCache cache = pta.getKeys().contains(CACHE_KEY)
+                ? pta.getResult(CACHE_KEY) : new SparseTaintCache(pta);
+        pta.storeResult(CACHE_KEY, cache);
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        TypeSystem typeSystem = World.get().getTypeSystem();
+        TaintConfig config = TaintAnalysis.loadConfig(
+                getOptions(), hierarchy, typeSystem);
+        Set<TaintFlow> taintFlows = analyze(cache, config);
+        logger.info("Detected {} taint flow(s):", taintFlows.size());
+        taintFlows.forEach(logger::info);
+        compareWithPlugin(pta, taintFlows);
+        // analyze the program with additional taint configurations
+        @SuppressWarnings("unchecked")
+        List<String> taintConfigs = getOptions().has("taint-configs")
+                ? (List<String>) getOptions().get("taint-configs")
+                : List.of();
+        for (String path : taintConfigs) {
+            var provider = new YamlTaintConfigProvider(hierarchy, typeSystem);
+            provider.setPath(path);
+            TaintConfig extraConfig = provider.get();
+            dumpTaintFlows(path, SparseTaintCache.digest(extraConfig),
+                    analyze(cache, extraConfig));
+        }
+        return taintFlows;
+    }
+
+    private static Set<TaintFlow> analyze(SparseTaintCache cache, TaintConfig config) {
+        logger.info(config);
+        String digest = SparseTaintCache.digest(config);
+        Set<TaintFlow> taintFlows = cache.getTaintFlows(digest);
+        if (taintFlows != null) {
+            logger.info("Reuse cached taint flows of config {}", digest);
+            return taintFlows;
+        }
+        taintFlows = Timer.runAndCount(() -> cache.getPropagator(config)
+                        .collectTaintFlows(config),
+                "sparse taint propagation", Level.INFO);
+        cache.putTaintFlows(digest, taintFlows);
+        return taintFlows;
+    }
+
+    private static void dumpTaintFlows(String configPath, String digest,
+                                       Set<TaintFlow> taintFlows) {
+        File outFile = new File(World.get().getOptions().getOutputDir(),
+                "sparse-taint-flows-" + digest.substring(0, 8) + ".txt");
+        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+            logger.info("Dumping {} taint flow(s) of {} to {}", taintFlows.size(),
+                    configPath, outFile.getAbsolutePath());
+            out.printf("Taint config: %s%n", configPath);
+            out.printf("Detected %d taint flow(s):%n", taintFlows.size());
+            taintFlows.forEach(out::println);
+        } catch (FileNotFoundException e) {
+            logger.error("Failed to open output file {}", outFile);
+        }
+    }
+
+    /**
+     * Compares given taint flows with the ones detected by
+     * {@link TaintAnalysis} (if it was enabled in the pre-analysis).
+     */
+    private static void compareWithPlugin(PointerAnalysisResult pta,
+                                          Set<TaintFlow> taintFlows) {
+        String key = TaintAnalysis.class.getName();
+        if (!pta.getKeys().contains(key)) {
+            return;
+        }
+        Set<TaintFlow> pluginFlows = pta.getResult(key);
+        long common = taintFlows.stream().filter(pluginFlows::contains).count();
+        logger.info("Compared with taint plugin: {} common flow(s), " +
+                        "{} only in sparse mode, {} only in plugin",
+                common, taintFlows.size() - common, pluginFlows.size() - common);
+    }
+}
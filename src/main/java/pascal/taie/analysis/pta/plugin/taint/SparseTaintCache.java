@@ -0,0 +1,444 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.ArrayIndexNode;
+import pascal.taie.analysis.graph.flowgraph.FlowEdge;
+import pascal.taie.analysis.graph.flowgraph.Node;
+import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
+import pascal.taie.analysis.graph.flowgraph.VarNode;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Cache of {@link SparseTaintAnalysis} for a pointer analysis result.
+ * <p>
+ * The cache consists of three layers:
+ * <ul>
+ *     <li>the taint-independent indexes of the program, i.e., call sites
+ *     of methods and loads of fields, which are built lazily;</li>
+ *     <li>a {@link Propagator} for each combination of transfers,
+ *     sanitizers and call-site mode, which memoizes the propagation
+ *     result of each source;</li>
+ *     <li>taint flows of each taint configuration, keyed by its digest.</li>
+ * </ul>
+ */
+class SparseTaintCache {
+
+    private static final Logger logger = LogManager.getLogger(SparseTaintCache.class);
+
+    private final PointerAnalysisResult pta;
+
+    private final ObjectFlowGraph ofg;
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    private final TypeSystem typeSystem = World.get().getTypeSystem();
+
+    /**
+     * Map from a method to the call sites whose method references
+     * resolve to it. Used in call-site mode.
+     */
+    private MultiMap<JMethod, Invoke> resolvedCallSites;
+
+    /**
+     * Map from a field to the reachable statements that load it.
+     */
+    private MultiMap<JField, FieldLoad> fieldLoads;
+
+    private final Map<String, Propagator> propagators = Maps.newMap();
+
+    private final Map<String, Set<TaintFlow>> taintFlows = Maps.newMap();
+
+    SparseTaintCache(PointerAnalysisResult pta) {
+        this.pta = pta;
+        this.ofg = pta.getObjectFlowGraph();
+        this.callGraph = pta.getCallGraph();
+    }
+
+    /**
+     * @return the SHA-256 digest of given taint configuration.
+     */
+    static String digest(TaintConfig config) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(
+                    md.digest(config.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AnalysisException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * @return the cached taint flows of the configuration with given digest,
+     * or {@code null} if the flows are absent.
+     */
+    @Nullable
+    Set<TaintFlow> getTaintFlows(String digest) {
+        return taintFlows.get(digest);
+    }
+
+    void putTaintFlows(String digest, Set<TaintFlow> flows) {
+        taintFlows.put(digest, flows);
+    }
+
+    /**
+     * @return the propagator for the transfers, sanitizers and call-site
+     * mode of given taint configuration.
+     */
+    Propagator getPropagator(TaintConfig config) {
+        TaintConfig flowConfig = new TaintConfig(List.of(), List.of(),
+                config.transfers(), config.paramSanitizers(), config.callSiteMode());
+        return propagators.computeIfAbsent(digest(flowConfig),
+                d -> new Propagator(flowConfig));
+    }
+
+    /**
+     * @return the call sites that call given method.
+     */
+    private Set<Invoke> getCallSites(JMethod callee, boolean callSiteMode) {
+        Set<Invoke> callSites = Sets.newLinkedSet();
+        callGraph.edgesInTo(callee)
+                // skip other call edges, e.g., reflective call edges, whose
+                // arguments and results do not match the parameters and
+                // return values of the callees by index. The taint plugin
+                // skips these edges as well, thus both modes agree
+                .filter(e -> e.getKind() != CallKind.OTHER)
+                .map(Edge::getCallSite)
+                .forEach(callSites::add);
+        if (callSiteMode) {
+            if (resolvedCallSites == null) {
+                resolvedCallSites = Maps.newMultiMap();
+                callGraph.reachableMethods()
+                        .flatMap(m -> m.getIR().invokes(false))
+                        .forEach(callSite -> {
+                            JMethod method = callSite.getMethodRef().resolveNullable();
+                            if (method != null) {
+                                resolvedCallSites.put(method, callSite);
+                            }
+                        });
+            }
+            callSites.addAll(resolvedCallSites.get(callee));
+        }
+        return callSites;
+    }
+
+    private Set<FieldLoad> getFieldLoads(JField field) {
+        if (fieldLoads == null) {
+            fieldLoads = Maps.newMultiMap();
+            callGraph.reachableMethods().forEach(method ->
+                    method.getIR().forEach(stmt -> {
+                        if (stmt instanceof LoadField load) {
+                            JField f = load.getFieldRef().resolveNullable();
+                            if (f != null) {
+                                fieldLoads.put(f, new FieldLoad(method, load));
+                            }
+                        }
+                    }));
+        }
+        return fieldLoads.get(field);
+    }
+
+    private Collection<Node> getNodes(Var var, IndexRef indexRef) {
+        return getNodes(var, indexRef.kind(), indexRef.field());
+    }
+
+    /**
+     * @return the nodes that the value referenced by given variable
+     * and index reference kind are represented by.
+     */
+    private Collection<Node> getNodes(Var var, IndexRef.Kind kind,
+                                      @Nullable JField field) {
+        Set<Node> nodes = Sets.newHybridSet();
+        switch (kind) {
+            case VAR -> addIfNotNull(nodes, getVarNode(var));
+            case ARRAY -> pta.getPointsToSet(var).forEach(o ->
+                    addIfNotNull(nodes, ofg.getArrayIndexNode(o)));
+            case FIELD -> {
+                if (field != null) {
+                    pta.getPointsToSet(var).forEach(o ->
+                            addIfNotNull(nodes, ofg.getInstanceFieldNode(o, field)));
+                }
+            }
+        }
+        return nodes;
+    }
+
+    @Nullable
+    private VarNode getVarNode(@Nullable Var var) {
+        return var == null ? null : ofg.getVarNode(var);
+    }
+
+    private static void addIfNotNull(Set<Node> nodes, @Nullable Node node) {
+        if (node != null) {
+            nodes.add(node);
+        }
+    }
+
+    /**
+     * A taint label, i.e., the abstraction of a taint object
+     * which is propagated along the object flow graph.
+     */
+    private record Taint(SourcePoint sourcePoint, Type type) {
+    }
+
+    /**
+     * Edge introduced by a {@link TaintTransfer}, which does not exist
+     * in the object flow graph of the pre-analysis.
+     * If {@code type} is {@code null}, the taint labels keep their types
+     * when flowing along this edge.
+     */
+    private record TransferEdge(Node target, @Nullable Type type) {
+    }
+
+    /**
+     * Propagates taint labels of sources under fixed transfers,
+     * sanitizers, and call-site mode.
+     */
+    class Propagator {
+
+        private final boolean callSiteMode;
+
+        private final MultiMap<Node, TransferEdge> transferEdges = Maps.newMultiMap();
+
+        /**
+         * Nodes of the parameters of sanitizer methods,
+         * which taint labels never flow into.
+         */
+        private final Set<Node> sanitized = Sets.newSet();
+
+        /**
+         * Memoized propagation results of each source.
+         */
+        private final Map<Source, MultiMap<Node, Taint>> sourceTaints = Maps.newMap();
+
+        private Propagator(TaintConfig flowConfig) {
+            callSiteMode = flowConfig.callSiteMode();
+            flowConfig.paramSanitizers().forEach(sanitizer -> {
+                JMethod method = sanitizer.method();
+                if (callGraph.contains(method)) {
+                    IR ir = method.getIR();
+                    Var param = sanitizer.index() == InvokeUtils.BASE
+                            ? ir.getThis() : ir.getParam(sanitizer.index());
+                    addIfNotNull(sanitized, getVarNode(param));
+                }
+            });
+            flowConfig.transfers().forEach(transfer ->
+                    getCallSites(transfer.method(), callSiteMode).forEach(
+                            callSite -> addTransfer(callSite, transfer)));
+        }
+
+        private void addTransfer(Invoke callSite, TaintTransfer transfer) {
+            IndexRef from = transfer.from();
+            IndexRef to = transfer.to();
+            Var toVar = InvokeUtils.getVar(callSite, to.index());
+            if (toVar == null) {
+                return;
+            }
+            Var fromVar = InvokeUtils.getVar(callSite, from.index());
+            if (from.kind() != IndexRef.Kind.VAR && to.kind() != IndexRef.Kind.VAR) {
+                logger.warn("TaintTransfer {} -> {} (in {}) is not supported",
+                        transfer, from.kind(), to.kind());
+                return;
+            }
+            // on-demand alias queries: array/field references are
+            // resolved by points-to sets of the pre-analysis
+            Collection<Node> sources = getNodes(fromVar, from);
+            Collection<Node> targets = getNodes(toVar, to);
+            Type type = transfer.type();
+            sources.forEach(s -> targets.forEach(t ->
+                    transferEdges.put(s, new TransferEdge(t, type))));
+            // taint transferred to base or argument mutates the objects
+            // pointed to by it, so we back propagate the taint to
+            // the fields from which the variable is loaded
+            if (to.index() != InvokeUtils.RESULT
+                    && to.kind() == IndexRef.Kind.VAR
+                    && !(to.index() == InvokeUtils.BASE
+                    && transfer.method().isConstructor())) {
+                addBackPropagation(toVar);
+            }
+        }
+
+        private void addBackPropagation(Var var) {
+            VarNode varNode = getVarNode(var);
+            if (varNode == null) {
+                return;
+            }
+            var.getMethod().getIR().forEach(stmt -> {
+                if (stmt instanceof LoadField load
+                        && var.equals(load.getLValue())
+                        && load.getFieldAccess() instanceof InstanceFieldAccess ifa) {
+                    // found var = base.field
+                    getNodes(ifa.getBase(), IndexRef.Kind.FIELD,
+                            ifa.getFieldRef().resolveNullable())
+                            .forEach(n -> transferEdges.put(varNode,
+                                    new TransferEdge(n, null)));
+                }
+            });
+        }
+
+        /**
+         * Collects taint flows from the sources to the sinks
+         * of given taint configuration.
+         */
+        Set<TaintFlow> collectTaintFlows(TaintConfig config) {
+            List<MultiMap<Node, Taint>> taints = config.sources()
+                    .stream()
+                    .map(source -> sourceTaints.computeIfAbsent(source, this::propagate))
+                    .toList();
+            Set<TaintFlow> flows = Sets.newOrderedSet();
+            for (Sink sink : config.sinks()) {
+                IndexRef indexRef = sink.indexRef();
+                for (Invoke sinkCall : getCallSites(sink.method(), callSiteMode)) {
+                    Var arg = InvokeUtils.getVar(sinkCall, indexRef.index());
+                    SinkPoint sinkPoint = new SinkPoint(sinkCall, indexRef, sink);
+                    getNodes(arg, indexRef).stream()
+                            .flatMap(n -> taints.stream().flatMap(t -> t.get(n).stream()))
+                            .map(Taint::sourcePoint)
+                            .distinct()
+                            .sorted()
+                            .forEach(sp -> flows.add(new TaintFlow(sp, sinkPoint)));
+                }
+            }
+            return flows;
+        }
+
+        /**
+         * Propagates the taint labels generated by given source.
+         *
+         * @return the taint labels of the nodes reached by the source.
+         */
+        private MultiMap<Node, Taint> propagate(Source source) {
+            MultiMap<Node, Taint> taints = Maps.newMultiMap();
+            Deque<NodeTaint> workList = new ArrayDeque<>();
+            seed(source, (node, taint) -> addTaint(taints, workList, node, taint));
+            while (!workList.isEmpty()) {
+                NodeTaint entry = workList.poll();
+                Node node = entry.node();
+                Taint taint = entry.taint();
+                for (FlowEdge edge : ofg.getOutEdgesOf(node)) {
+                    Node target = edge.target();
+                    Type filter = switch (edge.kind()) {
+                        case CAST -> ((VarNode) target).getVar().getType();
+                        case ARRAY_STORE -> ((ArrayIndexNode) target).getBase()
+                                .getType() instanceof ArrayType arrayType
+                                ? arrayType.elementType() : null;
+                        default -> null;
+                    };
+                    if (filter == null || typeSystem.isSubtype(filter, taint.type())) {
+                        addTaint(taints, workList, target, taint);
+                    }
+                }
+                for (TransferEdge edge : transferEdges.get(node)) {
+                    addTaint(taints, workList, edge.target(), edge.type() == null
+                            ? taint : new Taint(taint.sourcePoint(), edge.type()));
+                }
+            }
+            return taints;
+        }
+
+        private void addTaint(MultiMap<Node, Taint> taints, Deque<NodeTaint> workList,
+                              Node node, Taint taint) {
+            if (!sanitized.contains(node) && taints.put(node, taint)) {
+                workList.add(new NodeTaint(node, taint));
+            }
+        }
+
+        /**
+         * Generates the initial taint labels of given source.
+         */
+        private void seed(Source source, BiConsumer<Node, Taint> seeder) {
+            if (source instanceof CallSource callSrc) {
+                IndexRef indexRef = callSrc.indexRef();
+                int index = indexRef.index();
+                for (Invoke callSite : getCallSites(callSrc.method(), callSiteMode)) {
+                    if (InvokeUtils.RESULT == index && callSite.getLValue() == null) {
+                        continue;
+                    }
+                    Var var = InvokeUtils.getVar(callSite, index);
+                    Taint taint = new Taint(new CallSourcePoint(
+                            callSite, indexRef, callSrc), callSrc.type());
+                    getNodes(var, indexRef).forEach(n -> seeder.accept(n, taint));
+                }
+            } else if (source instanceof ParamSource paramSrc) {
+                JMethod method = paramSrc.method();
+                if (callGraph.contains(method)) {
+                    IndexRef indexRef = paramSrc.indexRef();
+                    Var param = method.getIR().getParam(indexRef.index());
+                    Taint taint = new Taint(new ParamSourcePoint(
+                            method, indexRef, paramSrc), paramSrc.type());
+                    getNodes(param, indexRef).forEach(n -> seeder.accept(n, taint));
+                }
+            } else if (source instanceof FieldSource fieldSrc) {
+                for (FieldLoad fieldLoad : getFieldLoads(fieldSrc.field())) {
+                    LoadField load = fieldLoad.load();
+                    Taint taint = new Taint(new FieldSourcePoint(
+                            fieldLoad.container(), load, fieldSrc), fieldSrc.type());
+                    VarNode node = getVarNode(load.getLValue());
+                    if (node != null) {
+                        seeder.accept(node, taint);
+                    }
+                }
+            }
+        }
+    }
+
+    private record NodeTaint(Node node, Taint taint) {
+    }
+
+    private record FieldLoad(JMethod container, LoadField load) {
+    }
+}
@@ -32,8 +32,11 @@ import pascal.taie.analysis.graph.flowgraph.Node;
 import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
 import pascal.taie.analysis.graph.flowgraph.VarNode;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
@@ -53,19 +56,22 @@ import java.util.stream.Stream;
 
 /**
  * Taint flow graph builder.
+ * <p>
+ * The builder lives across the runs of taint analysis in interactive mode,
+ * and builds taint flow graphs incrementally:
+ * <ul>
+ *     <li>the taint objects pointed to by variables are collected during
+ *     pointer analysis via {@link #onNewPointsToSet},
+ *     instead of being recomputed from points-to sets of all nodes;</li>
+ *     <li>the (filtered) out edges of the nodes are cached across builds,
+ *     and only the nodes affected by the changes of taint objects (e.g.,
+ *     due to changed sources, transfers or sanitizers) are recomputed.</li>
+ * </ul>
  */
 class TFGBuilder {
 
     private static final Logger logger = LogManager.getLogger(TFGBuilder.class);
 
-    private final PointerAnalysisResult pta;
-
-    private final ObjectFlowGraph ofg;
-
-    private final Set<TaintFlow> taintFlows;
-
-    private final TaintManager taintManager;
-
     /**
      * Whether only track taint flow in application code.
      */
@@ -77,48 +83,151 @@ class TFGBuilder {
     private final boolean onlyReachSink = true;
 
     /**
-     * Map from a node to set of taint objects pointed to by the node.
+     * Map from a variable to set of taint objects pointed to by it,
+     * which is maintained during pointer analysis.
+     */
+    private Map<Var, Set<Obj>> varTaints = Maps.newMap();
+
+    /**
+     * Taint objects pointed to by each variable when last TFG was built.
+     */
+    private Map<Var, Set<Obj>> lastVarTaints = Map.of();
+
+    /**
+     * The object flow graph on which the cached edges are computed.
+     */
+    private ObjectFlowGraph cachedOFG;
+
+    /**
+     * Cached out edges of the nodes in the complete taint flow graph.
+     * The out edges of a node are absent if they need to be (re)computed.
+     */
+    private final Map<Node, List<FlowEdge>> cachedOutEdges = Maps.newMap();
+
+    // following fields are only valid during building
+
+    private PointerAnalysisResult pta;
+
+    private ObjectFlowGraph ofg;
+
+    private TaintManager taintManager;
+
+    /**
+     * Map from a node (which is not {@link VarNode})
+     * to set of taint objects pointed to by the node.
      */
     private Map<Node, Set<Obj>> node2TaintSet;
 
-    TFGBuilder(PointerAnalysisResult pta,
-               Set<TaintFlow> taintFlows,
-               TaintManager taintManager) {
+    /**
+     * Records the taint objects in given new points-to set of a variable.
+     */
+    void onNewPointsToSet(CSVar csVar, PointsToSet pts, TaintManager manager) {
+        for (CSObj csObj : pts) {
+            Obj obj = csObj.getObject();
+            if (manager.isTaint(obj)) {
+                varTaints.computeIfAbsent(csVar.getVar(),
+                        __ -> Sets.newHybridSet()).add(obj);
+            }
+        }
+    }
+
+    /**
+     * Clears the collected taint objects. This should be called
+     * when taint objects are removed from the points-to sets.
+     */
+    void clearTaints() {
+        varTaints = Maps.newMap();
+    }
+
+    /**
+     * Builds a taint flow graph for given pointer analysis result
+     * and taint flows.
+     */
+    TaintFlowGraph build(PointerAnalysisResult pta,
+                         Set<TaintFlow> taintFlows,
+                         TaintManager taintManager) {
         this.pta = pta;
         this.ofg = pta.getObjectFlowGraph();
-        this.taintFlows = taintFlows;
         this.taintManager = taintManager;
+        node2TaintSet = Maps.newMap();
+        try {
+            return build(buildComplete(taintFlows));
+        } finally {
+            this.pta = null;
+            this.ofg = null;
+            this.taintManager = null;
+            node2TaintSet = null;
+        }
     }
 
     /**
      * Builds a complete taint flow graph.
      */
-    private TaintFlowGraph buildComplete() {
+    private TaintFlowGraph buildComplete(Set<TaintFlow> taintFlows) {
+        invalidateCache();
         // builds taint flow graph
-        node2TaintSet = Maps.newMap();
         TaintFlowGraph tfg = new TaintFlowGraph(
-                collectSourceNodes(), collectSinkNode());
+                collectSourceNodes(), collectSinkNode(taintFlows));
         Set<Node> visitedNodes = Sets.newSet();
         Deque<Node> workList = new ArrayDeque<>(
                 tfg.getSourceNodes());
+        int nComputed = 0;
         while (!workList.isEmpty()) {
             Node node = workList.poll();
             if (visitedNodes.add(node)) {
-                getOutEdges(node).forEach(edge -> {
+                List<FlowEdge> outEdges = cachedOutEdges.get(node);
+                if (outEdges == null) {
+                    outEdges = getOutEdges(node);
+                    cachedOutEdges.put(node, outEdges);
+                    ++nComputed;
+                }
+                outEdges.forEach(edge -> {
                     Node target = edge.target();
-                    if (!onlyApp || isApp(target)) {
-                        tfg.addEdge(edge);
-                        if (!visitedNodes.contains(target)) {
-                            workList.add(target);
-                        }
+                    tfg.addEdge(edge);
+                    if (!visitedNodes.contains(target)) {
+                        workList.add(target);
                     }
                 });
             }
         }
-        node2TaintSet = null;
+        logger.info("Computed out edges of {} of {} nodes in taint flow graph",
+                nComputed, visitedNodes.size());
         return tfg;
     }
 
+    /**
+     * Removes the cached out edges that may be changed since last build.
+     */
+    private void invalidateCache() {
+        if (ofg != cachedOFG) {
+            cachedOutEdges.clear();
+            cachedOFG = ofg;
+        }
+        // collect the variable nodes whose taint objects have changed
+        Set<Node> changed = Sets.newSet();
+        Stream.concat(varTaints.keySet().stream(), lastVarTaints.keySet().stream())
+                .distinct()
+                .filter(v -> !getTaintSet(v).equals(
+                        lastVarTaints.getOrDefault(v, Set.of())))
+                .map(ofg::getVarNode)
+                .filter(Objects::nonNull)
+                .forEach(changed::add);
+        lastVarTaints = Maps.newMap(varTaints.size());
+        varTaints.forEach((v, taints) -> lastVarTaints.put(v, Set.copyOf(taints)));
+        // out edges of a node depend on the taint objects of the node and
+        // of the targets of filtered edges (see getOutEdges()), and the
+        // taint objects of non-variable nodes are not maintained incrementally
+        cachedOutEdges.keySet().removeIf(node -> !(node instanceof VarNode));
+        changed.forEach(node -> {
+            cachedOutEdges.remove(node);
+            ofg.getInEdgesOf(node).forEach(edge -> {
+                if (isFiltered(edge)) {
+                    cachedOutEdges.remove(edge.source());
+                }
+            });
+        });
+    }
+
     private Map<Node, SourcePoint> collectSourceNodes() {
         Map<Node, SourcePoint> sourceNode2SourcePoint = Maps.newMap();
         for (Obj taintObj : taintManager.getTaintObjs()) {
@@ -146,7 +255,7 @@ class TFGBuilder {
         return sourceNode2SourcePoint;
     }
 
-    private Map<Node, SinkPoint> collectSinkNode() {
+    private Map<Node, SinkPoint> collectSinkNode(Set<TaintFlow> taintFlows) {
         Map<Node, SinkPoint> sinkNode2SinkPoint = Maps.newMap();
         taintFlows.forEach(taintFlow -> {
             SinkPoint sinkPoint = taintFlow.sinkPoint();
@@ -185,6 +294,9 @@ class TFGBuilder {
         List<FlowEdge> edges = new ArrayList<>();
         // collect OFG edges
         ofg.getOutEdgesOf(source).forEach(edge -> {
+            if (onlyApp && !isApp(edge.target())) {
+                return;
+            }
             switch (edge.kind()) {
                 case LOCAL_ASSIGN, INSTANCE_STORE, ARRAY_STORE,
                         THIS_PASSING, PARAMETER_PASSING, OTHER -> {
@@ -203,7 +315,25 @@ class TFGBuilder {
         return edges;
     }
 
+    /**
+     * @return {@code true} if given edge is included in taint flow graph
+     * only when its source and target share taint objects.
+     */
+    private static boolean isFiltered(FlowEdge edge) {
+        return switch (edge.kind()) {
+            case CAST, INSTANCE_LOAD, ARRAY_LOAD, RETURN -> true;
+            default -> false;
+        };
+    }
+
+    private Set<Obj> getTaintSet(Var var) {
+        return varTaints.getOrDefault(var, Set.of());
+    }
+
     private Set<Obj> getTaintSet(Node node) {
+        if (node instanceof VarNode varNode) {
+            return getTaintSet(varNode.getVar());
+        }
         Set<Obj> taintSet = node2TaintSet.get(node);
         if (taintSet == null) {
             taintSet = getPointsToSet(node)
@@ -230,8 +360,11 @@ class TFGBuilder {
         }
     }
 
-    TaintFlowGraph build() {
-        TaintFlowGraph complete = buildComplete();
+    /**
+     * Extracts the part of complete taint flow graph that is interesting
+     * to the users.
+     */
+    private TaintFlowGraph build(TaintFlowGraph complete) {
         TaintFlowGraph tfg = new TaintFlowGraph(
                 complete.getSourceNode2SourcePoint(),
                 complete.getSinkNode2SinkPoint());
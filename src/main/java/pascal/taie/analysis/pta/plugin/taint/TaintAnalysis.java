@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.pta.plugin.taint;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
@@ -90,6 +91,8 @@ public class TaintAnalysis extends CompositePlugin {
 
     private static final String TAINT_FLOW_GRAPH_FILE = "taint-flow-graph.dot";
 
+    private static final String TAINT_WITNESS_FILE = "taint-flow-witnesses.jsonl";
+
     private Solver solver;
 
     private boolean isInteractive;
@@ -103,10 +106,17 @@ public class TaintAnalysis extends CompositePlugin {
 
     private HandlerContext context;
 
+    /**
+     * Builder of taint flow graph, which lives across the runs of
+     * taint analysis in interactive mode.
+     */
+    private TFGBuilder tfgBuilder;
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
         isInteractive = solver.getOptions().getBoolean("taint-interactive-mode");
+        tfgBuilder = new TFGBuilder();
         initialize();
     }
 
@@ -123,41 +133,17 @@ public class TaintAnalysis extends CompositePlugin {
                 }
                 p.removeEdgesIf(TaintTransferEdge.class::isInstance);
             });
+            tfgBuilder.clearTaints();
         }
         // load taint configuration and create new handlers
-        AnalysisOptions options = solver.getOptions();
-        TaintConfig config = TaintConfig.EMPTY;
-        if (options.getString("taint-config") != null) {
-            var provider = new YamlTaintConfigProvider(
-                    solver.getHierarchy(), solver.getTypeSystem());
-            provider.setPath(options.getString("taint-config"));
-            config = provider.get();
-        }
-        // load programmatic taint configuration
-        List<String> taintConfigProviders = (List<String>) solver
-                .getOptions().get("taint-config-providers");
-        for (String taintConfigProvider : taintConfigProviders) {
-            try {
-                Class<?> clazz = Class.forName(taintConfigProvider);
-                Constructor<?> ctor = clazz.getConstructor(
-                        ClassHierarchy.class, TypeSystem.class);
-                var provider = (TaintConfigProvider) ctor.newInstance(
-                        solver.getHierarchy(), solver.getTypeSystem());
-                config = config.mergeWith(provider.get());
-            } catch (ClassNotFoundException e) {
-                throw new ConfigException(
-                        "Taint config class " + taintConfigProvider + " is not found");
-            } catch (IllegalAccessException | NoSuchMethodException e) {
-                throw new AnalysisException(
-                        "Failed to access constructor of " + taintConfigProvider, e);
-            } catch (InvocationTargetException | InstantiationException e) {
-                throw new AnalysisException(
-                        "Failed to create plugin instance for " + taintConfigProvider, e);
-            }
-        }
+        TaintConfig config = Timer.runAndCount(() -> loadConfig(
+                        solver.getOptions(), solver.getHierarchy(), solver.getTypeSystem()),
+                "TaintConfig loading", Level.INFO);
         logger.info(config);
+        TaintRules rules = Timer.runAndCount(() -> new TaintRules(config),
+                "TaintRules indexing", Level.INFO);
         context = new HandlerContext(solver, new TaintManager(
-                solver.getHeapModel()), config);
+                solver.getHeapModel()), config, rules);
         addPlugin(new SourceHandler(context),
                 new TransferHandler(context),
                 new SanitizerHandler(context));
@@ -178,12 +164,59 @@ public class TaintAnalysis extends CompositePlugin {
                 csMethod.getEdges().forEach(this::onNewCallEdge);
                 ir.getParams().forEach(param -> {
                     CSVar csParam = csManager.getCSVar(ctxt, param);
-                    onNewPointsToSet(csParam, csParam.getPointsToSet());
+                    PointsToSet pts = csParam.getPointsToSet();
+                    if (pts != null) {
+                        onNewPointsToSet(csParam, pts);
+                    }
                 });
             });
         }
     }
 
+    /**
+     * Loads taint configuration from the config file and the config
+     * providers specified in given options.
+     */
+    static TaintConfig loadConfig(AnalysisOptions options,
+                                  ClassHierarchy hierarchy,
+                                  TypeSystem typeSystem) {
+        TaintConfig config = TaintConfig.EMPTY;
+        if (options.getString("taint-config") != null) {
+            var provider = new YamlTaintConfigProvider(hierarchy, typeSystem);
+            provider.setPath(options.getString("taint-config"));
+            config = provider.get();
+        }
+        // load programmatic taint configuration
+        List<String> taintConfigProviders = (List<String>) options
+                .get("taint-config-providers");
+        for (String taintConfigProvider : taintConfigProviders) {
+            try {
+                Class<?> clazz = Class.forName(taintConfigProvider);
+                Constructor<?> ctor = clazz.getConstructor(
+                        ClassHierarchy.class, TypeSystem.class);
+                var provider = (TaintConfigProvider) ctor.newInstance(
+                        hierarchy, typeSystem);
+                config = config.mergeWith(provider.get());
+            } catch (ClassNotFoundException e) {
+                throw new ConfigException(
+                        "Taint config class " + taintConfigProvider + " is not found");
+            } catch (IllegalAccessException | NoSuchMethodException e) {
+                throw new AnalysisException(
+                        "Failed to access constructor of " + taintConfigProvider, e);
+            } catch (InvocationTargetException | InstantiationException e) {
+                throw new AnalysisException(
+                        "Failed to create plugin instance for " + taintConfigProvider, e);
+            }
+        }
+        return config;
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        super.onNewPointsToSet(csVar, pts);
+        tfgBuilder.onNewPointsToSet(csVar, pts, context.manager());
+    }
+
     @Override
     public void onPhaseFinish() {
         if (isInteractive) {
@@ -249,11 +282,21 @@ public class TaintAnalysis extends CompositePlugin {
         Set<TaintFlow> taintFlows = new SinkHandler(context).collectTaintFlows();
         logger.info("Detected {} taint flow(s):", taintFlows.size());
         taintFlows.forEach(logger::info);
+        logger.info(context.rules());
         solver.getResult().storeResult(getClass().getName(), taintFlows);
         TaintManager manager = context.manager();
+        File outputDir = World.get().getOptions().getOutputDir();
+        TaintFlowGraph tfg = Timer.runAndCount(
+                () -> tfgBuilder.build(solver.getResult(), taintFlows, manager),
+                "TFGBuilder", Level.INFO);
         Timer.runAndCount(() -> new TFGDumper().dump(
-                        new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
-                        new File(World.get().getOptions().getOutputDir(), TAINT_FLOW_GRAPH_FILE)),
+                        tfg, new File(outputDir, TAINT_FLOW_GRAPH_FILE)),
                 "TFGDumper");
+        int witnessPaths = solver.getOptions().getInt("taint-witness-paths");
+        if (witnessPaths > 0) {
+            Timer.runAndCount(() -> new TaintPathFinder(tfg, witnessPaths).dump(
+                            taintFlows, new File(outputDir, TAINT_WITNESS_FILE)),
+                    "TaintPathFinder");
+        }
     }
 }
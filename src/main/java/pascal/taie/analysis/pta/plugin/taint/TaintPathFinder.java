@@ -0,0 +1,273 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.flowgraph.FlowEdge;
+import pascal.taie.analysis.graph.flowgraph.Node;
+import pascal.taie.analysis.graph.flowgraph.OtherFlowEdge;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Computes witness paths of taint flows on a {@link TaintFlowGraph},
+ * i.e., the (k-)shortest paths from the source nodes to the sink nodes
+ * of each taint flow.
+ * <p>
+ * For each sink node, the distances of all nodes that can reach it are
+ * computed once by a backward BFS and memoized, as many taint flows share
+ * the same sinks. With these exact distances, a forward best-first search
+ * from the source nodes only expands nodes on shortest (or near-shortest)
+ * paths, so that a shortest path is found in time linear to its length.
+ * Taint flows are grouped by sink points and processed in parallel,
+ * and the witnesses are streamed to a JSON Lines file.
+ */
+class TaintPathFinder {
+
+    private static final Logger logger = LogManager.getLogger(TaintPathFinder.class);
+
+    /**
+     * Maximum number of partial paths expanded when searching
+     * the paths of a taint flow, which bounds the cost of k-shortest
+     * path search on graphs with many cycles.
+     */
+    private static final int MAX_EXPANSIONS = 100_000;
+
+    private final TaintFlowGraph tfg;
+
+    /**
+     * Number of paths computed for each taint flow.
+     */
+    private final int k;
+
+    private final MultiMap<SourcePoint, Node> sourceNodes = Maps.newMultiMap();
+
+    private final MultiMap<SinkPoint, Node> sinkNodes = Maps.newMultiMap();
+
+    /**
+     * Memoized distances to each sink node.
+     */
+    private final Map<Node, Map<Node, Integer>> distances = new ConcurrentHashMap<>();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    TaintPathFinder(TaintFlowGraph tfg, int k) {
+        this.tfg = tfg;
+        this.k = k;
+        tfg.getSourceNode2SourcePoint().forEach((n, p) -> sourceNodes.put(p, n));
+        tfg.getSinkNode2SinkPoint().forEach((n, p) -> sinkNodes.put(p, n));
+    }
+
+    /**
+     * Computes the witness paths of given taint flows in parallel, and
+     * dumps them to given file, one taint flow per line.
+     */
+    void dump(Set<TaintFlow> taintFlows, File output) {
+        logger.info("Dumping taint flow witnesses to {}", output.getAbsolutePath());
+        Map<SinkPoint, List<TaintFlow>> groups = taintFlows.stream()
+                .collect(Collectors.groupingBy(TaintFlow::sinkPoint));
+        AtomicInteger noPath = new AtomicInteger();
+        try (PrintStream out = new PrintStream(new FileOutputStream(output))) {
+            groups.values().parallelStream().forEach(group -> {
+                List<String> lines = new ArrayList<>(group.size());
+                for (TaintFlow taintFlow : group) {
+                    List<List<FlowEdge>> paths = findPaths(taintFlow);
+                    if (paths.isEmpty()) {
+                        noPath.incrementAndGet();
+                    }
+                    lines.add(toJson(taintFlow, paths));
+                }
+                synchronized (out) {
+                    lines.forEach(out::println);
+                }
+            });
+        } catch (FileNotFoundException e) {
+            logger.error("Failed to open output file {}", output);
+        }
+        if (noPath.get() > 0) {
+            logger.warn("No witness path is found for {} taint flow(s)", noPath.get());
+        }
+    }
+
+    /**
+     * @return up to k shortest paths (in ascending order of length) from
+     * the source nodes to the sink nodes of given taint flow. Each path is
+     * represented by its edges, and it is empty if a source node is
+     * also a sink node.
+     */
+    List<List<FlowEdge>> findPaths(TaintFlow taintFlow) {
+        Collection<Node> sources = sourceNodes.get(taintFlow.sourcePoint());
+        Collection<Node> sinks = sinkNodes.get(taintFlow.sinkPoint());
+        if (sources.isEmpty() || sinks.isEmpty()) {
+            return List.of();
+        }
+        List<Map<Node, Integer>> dists = sinks.stream()
+                .map(sink -> distances.computeIfAbsent(sink, this::computeDistances))
+                .toList();
+        // best-first search ordered by (length + exact distance to sinks)
+        AtomicInteger counter = new AtomicInteger();
+        Queue<Path> queue = new PriorityQueue<>(
+                Comparator.comparingInt(Path::estimate)
+                        .thenComparingInt(Path::order));
+        for (Node source : sources) {
+            int d = getDistance(dists, source);
+            if (d != Integer.MAX_VALUE) {
+                queue.add(new Path(source, null, null, 0, d, counter.getAndIncrement()));
+            }
+        }
+        List<List<FlowEdge>> paths = new ArrayList<>(k);
+        int expansions = 0;
+        while (!queue.isEmpty() && paths.size() < k
+                && expansions++ < MAX_EXPANSIONS) {
+            Path path = queue.poll();
+            if (sinks.contains(path.node())) {
+                paths.add(path.toEdges());
+                continue;
+            }
+            for (FlowEdge edge : tfg.getOutEdgesOf(path.node())) {
+                Node target = edge.target();
+                int d = getDistance(dists, target);
+                if (d != Integer.MAX_VALUE && !path.contains(target)) {
+                    int length = path.length() + 1;
+                    queue.add(new Path(target, edge, path, length,
+                            length + d, counter.getAndIncrement()));
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Computes distances from the nodes that can reach given sink node
+     * to the sink node by a backward BFS.
+     */
+    private Map<Node, Integer> computeDistances(Node sink) {
+        Map<Node, Integer> dist = Maps.newMap();
+        dist.put(sink, 0);
+        Queue<Node> workList = new ArrayDeque<>();
+        workList.add(sink);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            int d = dist.get(node) + 1;
+            for (Node pred : tfg.getPredsOf(node)) {
+                if (!dist.containsKey(pred)) {
+                    dist.put(pred, d);
+                    workList.add(pred);
+                }
+            }
+        }
+        return dist;
+    }
+
+    private static int getDistance(List<Map<Node, Integer>> dists, Node node) {
+        int min = Integer.MAX_VALUE;
+        for (Map<Node, Integer> dist : dists) {
+            Integer d = dist.get(node);
+            if (d != null && d < min) {
+                min = d;
+            }
+        }
+        return min;
+    }
+
+    private String toJson(TaintFlow taintFlow, List<List<FlowEdge>> paths) {
+        Map<String, Object> json = Maps.newLinkedHashMap();
+        json.put("source", taintFlow.sourcePoint().toString());
+        json.put("sink", taintFlow.sinkPoint().toString());
+        json.put("paths", paths.stream().map(TaintPathFinder::toJson).toList());
+        try {
+            return mapper.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new AnalysisException("Failed to serialize witness of " + taintFlow, e);
+        }
+    }
+
+    private static List<Map<String, String>> toJson(List<FlowEdge> path) {
+        List<Map<String, String>> steps = new ArrayList<>(path.size());
+        for (FlowEdge edge : path) {
+            Map<String, String> step = Maps.newLinkedHashMap();
+            step.put("kind", edge.kind().name());
+            step.put("source", edge.source().toString());
+            step.put("target", edge.target().toString());
+            if (edge instanceof OtherFlowEdge fe
+                    && fe.rawEdge() instanceof TaintTransferEdge e) {
+                step.put("transfer", e.getTransfer().toString());
+            }
+            steps.add(step);
+        }
+        return steps;
+    }
+
+    /**
+     * A (partial) path in the search, represented by its last node,
+     * the edge to the node, and the path before the edge.
+     *
+     * @param estimate length of the path plus the distance
+     *                 from its last node to the sinks
+     * @param order    the order of creation, used to break ties
+     */
+    private record Path(Node node, @Nullable FlowEdge edge, @Nullable Path prev,
+                        int length, int estimate, int order) {
+
+        private boolean contains(Node n) {
+            for (Path p = this; p != null; p = p.prev) {
+                if (p.node.equals(n)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private List<FlowEdge> toEdges() {
+            FlowEdge[] edges = new FlowEdge[length];
+            Path p = this;
+            for (int i = length - 1; i >= 0; --i) {
+                edges[i] = p.edge;
+                p = p.prev;
+            }
+            return List.of(edges);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Precompiled index of the rules in a {@link TaintConfig}.
+ * <p>
+ * All rules related to a method are grouped into one {@link MethodRules},
+ * so that the handlers of taint analysis obtain every relevant rule of
+ * a call edge or a method by a single lookup. In call-site mode,
+ * the rules of a call site (i.e., of the method its method reference
+ * resolves to) are cached, so that each call site is resolved at most once.
+ */
+class TaintRules {
+
+    /**
+     * Rules related to a method.
+     */
+    record MethodRules(List<CallSource> callSources,
+                       List<ParamSource> paramSources,
+                       List<TaintTransfer> transfers,
+                       List<Sink> sinks,
+                       List<ParamSanitizer> sanitizers) {
+
+        static final MethodRules EMPTY = new MethodRules(
+                List.of(), List.of(), List.of(), List.of(), List.of());
+
+        boolean isEmpty() {
+            return this == EMPTY;
+        }
+    }
+
+    private final Map<JMethod, MethodRules> methodRules;
+
+    private final Map<JField, FieldSource> fieldSources;
+
+    /**
+     * Cache of rules of call sites, used in call-site mode.
+     */
+    private final Map<Invoke, MethodRules> callSiteRules = Maps.newMap();
+
+    /**
+     * Number of rule lookups and the lookups that find any rules.
+     */
+    private long lookups, hits;
+
+    TaintRules(TaintConfig config) {
+        Map<JMethod, Builder> builders = Maps.newLinkedHashMap();
+        Function<JMethod, Builder> builderOf = m ->
+                builders.computeIfAbsent(m, k -> new Builder());
+        fieldSources = Maps.newMap();
+        config.sources().forEach(src -> {
+            if (src instanceof CallSource callSrc) {
+                builderOf.apply(callSrc.method()).callSources.add(callSrc);
+            } else if (src instanceof ParamSource paramSrc) {
+                builderOf.apply(paramSrc.method()).paramSources.add(paramSrc);
+            } else if (src instanceof FieldSource fieldSrc) {
+                fieldSources.put(fieldSrc.field(), fieldSrc);
+            }
+        });
+        config.transfers().forEach(t -> builderOf.apply(t.method()).transfers.add(t));
+        config.sinks().forEach(s -> builderOf.apply(s.method()).sinks.add(s));
+        config.paramSanitizers().forEach(s ->
+                builderOf.apply(s.method()).sanitizers.add(s));
+        methodRules = Maps.newMap(builders.size());
+        builders.forEach((m, b) -> methodRules.put(m, b.build()));
+    }
+
+    /**
+     * @return the rules related to given method, or {@link MethodRules#EMPTY}
+     * if there is no such rule.
+     */
+    MethodRules get(JMethod method) {
+        ++lookups;
+        MethodRules rules = methodRules.get(method);
+        if (rules != null) {
+            ++hits;
+            return rules;
+        }
+        return MethodRules.EMPTY;
+    }
+
+    /**
+     * @return the rules related to the method that the method reference
+     * of given call site resolves to. Dynamic call sites have no rules.
+     */
+    MethodRules get(Invoke callSite) {
+        return callSiteRules.computeIfAbsent(callSite, invoke -> {
+            if (invoke.isDynamic()) {
+                return MethodRules.EMPTY;
+            }
+            JMethod callee = invoke.getMethodRef().resolveNullable();
+            return callee != null ? get(callee) : MethodRules.EMPTY;
+        });
+    }
+
+    /**
+     * @return the field source of given field, or {@code null}
+     * if the field is not a source.
+     */
+    FieldSource getFieldSource(JField field) {
+        return fieldSources.get(field);
+    }
+
+    boolean hasFieldSources() {
+        return !fieldSources.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TaintRules{methods: %d, lookups: %d, hits: %d}",
+                methodRules.size(), lookups, hits);
+    }
+
+    private static class Builder {
+
+        private final List<CallSource> callSources = new ArrayList<>();
+
+        private final List<ParamSource> paramSources = new ArrayList<>();
+
+        private final List<TaintTransfer> transfers = new ArrayList<>();
+
+        private final List<Sink> sinks = new ArrayList<>();
+
+        private final List<ParamSanitizer> sanitizers = new ArrayList<>();
+
+        private MethodRules build() {
+            return new MethodRules(List.copyOf(callSources),
+                    List.copyOf(paramSources), List.copyOf(transfers),
+                    List.copyOf(sinks), List.copyOf(sanitizers));
+        }
+    }
+}
@@ -65,11 +65,7 @@ class TransferHandler extends OnFlyHandler {
 
     private final Context emptyContext;
 
-    /**
-     * Map from method (which causes taint transfer) to set of relevant
-     * {@link TaintTransfer}.
-     */
-    private final MultiMap<JMethod, TaintTransfer> transfers = Maps.newMultiMap();
+    private final TaintRules rules;
 
     private final Map<Type, Transfer> transferFunctions = Maps.newHybridMap();
 
@@ -108,8 +104,7 @@ class TransferHandler extends OnFlyHandler {
     TransferHandler(HandlerContext context) {
         super(context);
         emptyContext = solver.getContextSelector().getEmptyContext();
-        context.config().transfers()
-                .forEach(t -> this.transfers.put(t.method(), t));
+        rules = context.rules();
     }
 
     private void processTransfer(Context context, Invoke callSite, TaintTransfer transfer) {
@@ -282,7 +277,7 @@ class TransferHandler extends OnFlyHandler {
             // TODO: handle OTHER call edges
             return;
         }
-        Set<TaintTransfer> tfs = transfers.get(edge.getCallee().getMethod());
+        List<TaintTransfer> tfs = rules.get(edge.getCallee().getMethod()).transfers();
         if (!tfs.isEmpty()) {
             Context context = edge.getCallSite().getContext();
             Invoke callSite = edge.getCallSite().getCallSite();
@@ -302,8 +297,7 @@ class TransferHandler extends OnFlyHandler {
         if (callSiteMode &&
                 stmt instanceof Invoke invoke &&
                 !invoke.isDynamic()) {
-            JMethod callee = invoke.getMethodRef().resolveNullable();
-            if (transfers.containsKey(callee)) {
+            if (!rules.get(invoke).transfers().isEmpty()) {
                 callSiteTransfers.put(container, invoke);
             }
         }
@@ -316,11 +310,9 @@ class TransferHandler extends OnFlyHandler {
             Set<Invoke> callSites = callSiteTransfers.get(method);
             if (!callSites.isEmpty()) {
                 Context context = csMethod.getContext();
-                callSites.forEach(callSite -> {
-                    JMethod callee = callSite.getMethodRef().resolve();
-                    transfers.get(callee).forEach(transfer ->
-                            processTransfer(context, callSite, transfer));
-                });
+                callSites.forEach(callSite ->
+                        rules.get(callSite).transfers().forEach(transfer ->
+                                processTransfer(context, callSite, transfer)));
             }
         }
     }
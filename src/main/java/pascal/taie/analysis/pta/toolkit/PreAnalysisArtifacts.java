@@ -0,0 +1,156 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit;
+
+import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.toolkit.util.OAGs;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.Graph;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Store of the artifacts derived from a (context-insensitive) pre-analysis,
+ * e.g., object allocation graph and the methods invoked on each object,
+ * which are used by the toolkits that guide the main pointer analysis
+ * (Zipper, Scaler, Mahjong, ...).
+ * <p>
+ * Each artifact is computed lazily and at most once, and then shared
+ * by all toolkits that run on the same pre-analysis result. The store
+ * itself is kept in the pre-analysis result, see {@link #of(PointerAnalysisResult)}.
+ * Besides the common artifacts provided by the getters of this class,
+ * toolkits can store their own artifacts via {@link #get(Object, Supplier)}.
+ */
+public class PreAnalysisArtifacts {
+
+    private static final String KEY = PreAnalysisArtifacts.class.getName();
+
+    private final PointerAnalysisResult base;
+
+    private final ConcurrentMap<Object, Artifact<?>> artifacts
+            = Maps.newConcurrentMap();
+
+    private PreAnalysisArtifacts(PointerAnalysisResult base) {
+        this.base = base;
+    }
+
+    /**
+     * @return the artifact store of given pre-analysis result.
+     */
+    public static PreAnalysisArtifacts of(PointerAnalysisResult pta) {
+        synchronized (pta) {
+            return pta.getResult(KEY, () -> new PreAnalysisArtifacts(pta));
+        }
+    }
+
+    /**
+     * @return the pre-analysis result.
+     */
+    public PointerAnalysisResult getBase() {
+        return base;
+    }
+
+    /**
+     * @return the extended pre-analysis result, which is eagerly initialized
+     * and can be accessed concurrently.
+     */
+    public PointerAnalysisResultEx getResultEx() {
+        return get(PointerAnalysisResultEx.class,
+                () -> new PointerAnalysisResultExImpl(base, true));
+    }
+
+    /**
+     * @return the methods invoked on each object.
+     * @see OAGs#computeInvokedMethods(PointerAnalysisResultEx)
+     */
+    public Map<Obj, Set<JMethod>> getInvokedMethods() {
+        return get("invoked-methods",
+                () -> OAGs.computeInvokedMethods(getResultEx()));
+    }
+
+    /**
+     * @return the object allocation graph.
+     * @see OAGs#build(PointerAnalysisResultEx, Map)
+     */
+    public Graph<Obj> getObjectAllocationGraph() {
+        return get("object-allocation-graph",
+                () -> OAGs.build(getResultEx(), getInvokedMethods()));
+    }
+
+    /**
+     * @return the object flow graph.
+     */
+    public ObjectFlowGraph getObjectFlowGraph() {
+        return get(ObjectFlowGraph.class, base::getObjectFlowGraph);
+    }
+
+    /**
+     * Retrieves the artifact for given key. If the artifact is absent,
+     * it is built by {@code builder} and stored in this store.
+     * The building of different artifacts can be nested, e.g., the builder
+     * of an artifact can retrieve other artifacts.
+     *
+     * @param key     the key of the artifact, e.g., the class of the artifact.
+     * @param builder the function that builds the artifact
+     * @param <T>     type of the artifact
+     * @return the artifact for the given key.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Supplier<T> builder) {
+        // the artifact is built outside ConcurrentMap.computeIfAbsent(),
+        // as its builder may retrieve other artifacts recursively
+        return (T) artifacts.computeIfAbsent(key, k -> new Artifact<>(builder))
+                .get();
+    }
+
+    private static class Artifact<T> {
+
+        private Supplier<T> builder;
+
+        private volatile T value;
+
+        private Artifact(Supplier<T> builder) {
+            this.builder = builder;
+        }
+
+        private T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = value = builder.get();
+                        builder = null;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
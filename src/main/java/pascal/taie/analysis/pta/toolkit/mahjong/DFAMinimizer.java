@@ -0,0 +1,140 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimizes the DFAs of all objects together by partition refinement
+ * (Moore's algorithm), so that equivalent states of all DFAs are put
+ * into the same block.
+ * <p>
+ * As the states of different DFAs are shared, this only needs
+ * time proportional to (number of transitions) * (number of refinement
+ * rounds), instead of comparing the DFAs pairwise. The ID of the block
+ * containing the start state of a DFA serves as its canonical fingerprint,
+ * i.e., two DFAs are equivalent iff their fingerprints are the same.
+ */
+class DFAMinimizer {
+
+    /**
+     * Map from each state to the ID of its block.
+     */
+    private final Map<DFAState, Integer> blockOf;
+
+    DFAMinimizer(Collection<DFAState> states) {
+        List<DFAState> stateList = List.copyOf(states);
+        int nStates = stateList.size();
+        Map<DFAState, Integer> indexOf = Maps.newMap(nStates);
+        for (int i = 0; i < nStates; ++i) {
+            indexOf.put(stateList.get(i), i);
+        }
+        // collect transitions of each state, sorted by fields
+        int[][] fields = new int[nStates][];
+        int[][] targets = new int[nStates][];
+        for (int i = 0; i < nStates; ++i) {
+            var transitions = stateList.get(i).getNextMap()
+                    .entrySet()
+                    .stream()
+                    .sorted(Comparator.comparingInt(e -> e.getKey().getIndex()))
+                    .toList();
+            fields[i] = transitions.stream()
+                    .mapToInt(e -> e.getKey().getIndex())
+                    .toArray();
+            targets[i] = transitions.stream()
+                    .mapToInt(e -> indexOf.get(e.getValue()))
+                    .toArray();
+        }
+        // initial partition: states with the same output
+        int[] blocks = new int[nStates];
+        Map<Object, Integer> blockIds = Maps.newMap();
+        for (int i = 0; i < nStates; ++i) {
+            blocks[i] = blockIds.computeIfAbsent(
+                    stateList.get(i).getOutput(), __ -> blockIds.size());
+        }
+        // refine the partition until it is stable. Each round splits
+        // the blocks by the blocks of the successors of their states
+        // (missing transitions go to the dead state, whose output is
+        // empty and thus differs from that of any other state)
+        int nBlocks = blockIds.size();
+        while (true) {
+            blockIds.clear();
+            int[] newBlocks = new int[nStates];
+            for (int i = 0; i < nStates; ++i) {
+                int[] f = fields[i];
+                int[] t = targets[i];
+                int[] signature = new int[1 + 2 * f.length];
+                signature[0] = blocks[i];
+                for (int j = 0; j < f.length; ++j) {
+                    signature[1 + 2 * j] = f[j];
+                    signature[2 + 2 * j] = blocks[t[j]];
+                }
+                newBlocks[i] = blockIds.computeIfAbsent(
+                        new Signature(signature), __ -> blockIds.size());
+            }
+            blocks = newBlocks;
+            if (blockIds.size() == nBlocks) {
+                // new partition refines the old one, thus same number
+                // of blocks means that the partition is stable
+                break;
+            }
+            nBlocks = blockIds.size();
+        }
+        blockOf = Maps.newMap(nStates);
+        for (int i = 0; i < nStates; ++i) {
+            blockOf.put(stateList.get(i), blocks[i]);
+        }
+    }
+
+    /**
+     * @return canonical fingerprint of given DFA.
+     */
+    int getFingerprint(DFA dfa) {
+        return blockOf.get(dfa.getStartState());
+    }
+
+    /**
+     * Signature of a state in a refinement round, which consists of
+     * the block of the state, and the fields and target blocks of
+     * its transitions.
+     */
+    private record Signature(int[] values) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Signature other
+                    && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
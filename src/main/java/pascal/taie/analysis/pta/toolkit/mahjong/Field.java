@@ -28,6 +28,7 @@ import pascal.taie.util.collection.Maps;
 import javax.annotation.Nullable;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents edge labels of a field points-to graph, i.e., a JField or
@@ -41,8 +42,18 @@ class Field {
     @Nullable
     private final JField field;
 
-    private Field(@Nullable JField field) {
+    /**
+     * Unique index of this Field, which gives Fields a total order.
+     */
+    private final int index;
+
+    private Field(@Nullable JField field, int index) {
         this.field = field;
+        this.index = index;
+    }
+
+    int getIndex() {
+        return index;
     }
 
     @Override public String toString() {
@@ -51,13 +62,16 @@ class Field {
 
     static class Factory {
 
-        private static final Field ARRAY_INDEX = new Field(null);
+        private static final Field ARRAY_INDEX = new Field(null, 0);
 
         private final ConcurrentMap<JField, Field> fields = Maps.newConcurrentMap();
 
+        private final AtomicInteger counter = new AtomicInteger(1);
+
         Field get(JField field) {
             Objects.requireNonNull(field);
-            return fields.computeIfAbsent(field, Field::new);
+            return fields.computeIfAbsent(field,
+                    f -> new Field(f, counter.getAndIncrement()));
         }
 
         Field getArrayIndex() {
@@ -26,6 +26,7 @@ import org.apache.logging.log4j.Level;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.toolkit.PreAnalysisArtifacts;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Timer;
@@ -43,6 +44,8 @@ public class Mahjong {
 
     private DFAFactory dfaFactory;
 
+    private DFAMinimizer dfaMinimizer;
+
     /**
      * This map may be manipulated by multiple threads simultaneously.
      */
@@ -55,11 +58,15 @@ public class Mahjong {
 
     HeapModel buildHeapModel(PointerAnalysisResult pta,
                              AnalysisOptions options) {
-        FieldPointsToGraph fpg = Timer.runAndCount(
-                () -> new FieldPointsToGraph(pta),
-                "Building field points-to graph", Level.INFO);
+        FieldPointsToGraph fpg = PreAnalysisArtifacts.of(pta).get(
+                FieldPointsToGraph.class, () -> Timer.runAndCount(
+                        () -> new FieldPointsToGraph(pta),
+                        "Building field points-to graph", Level.INFO));
         dfaFactory = Timer.runAndCount(() -> new DFAFactory(fpg),
                 "Building DFA", Level.INFO);
+        dfaMinimizer = Timer.runAndCount(
+                () -> new DFAMinimizer(dfaFactory.getStates()),
+                "Minimizing DFA", Level.INFO);
         UnionFindSet<Obj> uf = Timer.runAndCount(
                 () -> mergeTypeConsistentObjects(fpg),
                 "Merging type-consistent objects", Level.INFO);
@@ -75,22 +82,23 @@ public class Mahjong {
         Map<Type, Set<Obj>> groupedObjs = allObjs.stream()
                 .collect(Collectors.groupingBy(
                         Obj::getType, Collectors.toSet()));
-        // compute object merging, and store results in a union-find set
+        // compute object merging, and store results in a union-find set.
+        // The objects of each type are bucketed by the fingerprints of
+        // their DFAs, and the objects in the same bucket are merged.
         groupedObjs.entrySet()
                 .parallelStream()
                 .forEach(entry -> {
                     Set<Obj> objs = entry.getValue();
                     DFAMap dfaMap = new DFAMap();
-                    for (Obj o1 : objs) {
-                        if (canBeMerged(o1, dfaMap)) {
-                            for (Obj o2 : objs) {
-                                if (canBeMerged(o2, dfaMap)) {
-                                    if (o1.getIndex() < o2.getIndex()
-                                            && !uf.isConnected(o1, o2)
-                                            && canBeMerged(o1, o2, dfaMap)) {
-                                        uf.union(o1, o2);
-                                    }
-                                }
+                    Map<Integer, Obj> buckets = Maps.newMap();
+                    for (Obj o : objs) {
+                        if (canBeMerged(o, dfaMap)) {
+                            int fingerprint = dfaMinimizer
+                                    .getFingerprint(dfaMap.getDFA(o));
+                            Obj rep = buckets.putIfAbsent(fingerprint, o);
+                            if (rep != null) {
+                                assert canBeMerged(rep, o, dfaMap);
+                                uf.union(rep, o);
                             }
                         }
                     }
@@ -99,6 +107,9 @@ public class Mahjong {
     }
 
     /**
+     * Checks the equivalence of the DFAs of two objects directly,
+     * which is used to validate the fingerprints.
+     *
      * @return {@code true} if o1 and o2 can be merged.
      */
     private boolean canBeMerged(Obj o1, Obj o2, DFAMap dfaMap) {
@@ -27,8 +27,7 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl;
-import pascal.taie.analysis.pta.toolkit.util.OAGs;
+import pascal.taie.analysis.pta.toolkit.PreAnalysisArtifacts;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.NullType;
@@ -37,10 +36,11 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.graph.Graph;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Given a TST (Total Scalability Threshold), select the ST (Scalability Threshold),
@@ -68,10 +68,33 @@ public class Scaler {
     private final List<ContextComputer> ctxComputers;
 
     /**
-     * Map from a method to total size of points-to sets of all (concerned)
-     * variables in the method.
+     * Context computers in {@link #ctxComputers} followed by {@link #bottomLine}.
+     * The tables below are indexed by the indexes of this list.
      */
-    private final Map<JMethod, Integer> ptsSize = Maps.newMap();
+    private final List<ContextComputer> allComputers;
+
+    /**
+     * The methods whose context sensitivity variants are selected.
+     * The tables below are indexed by the indexes of this array.
+     */
+    private JMethod[] methods;
+
+    /**
+     * Whether each method is special.
+     */
+    private boolean[] special;
+
+    /**
+     * contextNumbers[k][i]: number of contexts of methods[i]
+     * computed by allComputers[k].
+     */
+    private int[][] contextNumbers;
+
+    /**
+     * weights[k][i]: weight of methods[i] when analyzed using
+     * the context sensitivity variant of allComputers[k].
+     */
+    private long[][] weights;
 
     /**
      * Parses Scaler argument and runs Scaler.
@@ -89,16 +112,19 @@ public class Scaler {
     }
 
     public Scaler(PointerAnalysisResult ptaBase, long tst) {
-        this.pta = new PointerAnalysisResultExImpl(ptaBase, true);
+        PreAnalysisArtifacts artifacts = PreAnalysisArtifacts.of(ptaBase);
+        this.pta = artifacts.getResultEx();
         this.tst = tst;
         bottomLine = new _InsensitiveContextComputer(pta);
         // From the most precise analysis to the least precise analysis
-        Graph<Obj> oag = OAGs.build(pta);
+        Graph<Obj> oag = artifacts.getObjectAllocationGraph();
         // TODO - make ctxComputers configurable
         ctxComputers = List.of(
                 new _2ObjContextComputer(pta, oag),
                 new _2TypeContextComputer(pta, oag),
                 new _1TypeContextComputer(pta));
+        allComputers = Stream.concat(ctxComputers.stream(), Stream.of(bottomLine))
+                .toList();
     }
 
     /**
@@ -110,63 +136,112 @@ public class Scaler {
      */
     public Map<JMethod, String> selectContext() {
         logger.info("Scaler TST: {}", tst);
-        Set<JMethod> instanceMethods = pta.getBase()
+        methods = pta.getBase()
                 .getCallGraph()
                 .reachableMethods()
                 .filter(m -> !m.isStatic())
-                .collect(Collectors.toUnmodifiableSet());
-        long st = binarySearch(instanceMethods, tst);
-        Map<JMethod, String> csMap = instanceMethods.stream()
-                .collect(Collectors.toMap(m -> m, m -> selectVariantFor(m, st)));
+                .distinct()
+                .toArray(JMethod[]::new);
+        computeWeights();
+        long st = selectST(tst);
+        Map<JMethod, String> csMap = Maps.newMap(methods.length);
+        for (int i = 0; i < methods.length; ++i) {
+            csMap.put(methods[i], selectVariantFor(i, st));
+        }
         logCSMap(csMap);
         return csMap;
     }
 
     /**
-     * Search the suitable st such that the accumulative size of
-     * context-sensitive points to sets of given methods is less than given tst.
-     *
-     * @return the st for every method
+     * Computes the weights of all methods for all context computers
+     * in parallel.
      */
-    private long binarySearch(Set<JMethod> methods, long tst) {
-        // Select the max value and make it as end
-        @SuppressWarnings("OptionalGetWithoutIsPresent")
-        long end = methods.stream()
-                .mapToLong(m -> getWeight(m, ctxComputers.get(0)))
-                .max()
-                .getAsLong();
-        long start = 0;
-        long mid, ret = 0;
-        while (start <= end) {
-            mid = (start + end) / 2;
-            long totalSize = getTotalAccumulativePTS(methods, mid);
-            if (totalSize < tst) {
-                ret = mid;
-                start = mid + 1;
-            } else if (totalSize > tst) {
-                end = mid - 1;
-            } else {
-                ret = mid;
-                break;
+    private void computeWeights() {
+        int nComputers = allComputers.size();
+        special = new boolean[methods.length];
+        contextNumbers = new int[nComputers][methods.length];
+        weights = new long[nComputers][methods.length];
+        IntStream.range(0, methods.length).parallel().forEach(i -> {
+            JMethod method = methods[i];
+            special[i] = isSpecialMethod(method);
+            long ciPTSSize = getCIPTSSizeOf(method);
+            for (int k = 0; k < nComputers; ++k) {
+                int contextNumber = allComputers.get(k).contextNumberOf(method);
+                contextNumbers[k][i] = contextNumber;
+                weights[k][i] = contextNumber * ciPTSSize;
             }
-        }
-        return ret;
+        });
     }
 
     /**
-     * Given a set of methods and a st (scalability threshold),
-     * computes the total size of all (concerned) variables in the program.
+     * Selects the maximum st such that the accumulative size of
+     * context-sensitive points-to sets of (non-special) methods
+     * does not exceed given tst.
+     * <p>
+     * The context computer selected for a method only changes when st
+     * reaches one of the weights of the method, thus the accumulative size
+     * is a step function of st. This method collects the steps of all
+     * methods, sorts them once, and scans their prefix sums.
+     *
+     * @return the st for every method
      */
-    private long getTotalAccumulativePTS(Set<JMethod> methods, long st) {
-        long total = 0;
-        for (JMethod method : methods) {
-            if (!isSpecialMethod(method)) {
+    private long selectST(long tst) {
+        int bottom = allComputers.size() - 1;
+        // Select the max value and make it as end
+        long end = Arrays.stream(weights[0]).max().orElse(0);
+        long base = 0; // accumulative size when every method uses bottom line
+        long[] thresholds = new long[methods.length * bottom];
+        long[] deltas = new long[thresholds.length];
+        int nSteps = 0;
+        for (int i = 0; i < methods.length; ++i) {
+            if (special[i]) {
                 // special methods are excluded from this computation
-                ContextComputer cc = selectContextComputer(method, st);
-                total += getWeight(method, cc);
+                continue;
             }
+            base += weights[bottom][i];
+            // a context computer is selected once st reaches its weight,
+            // if its weight is less than the ones of all more precise
+            // context computers
+            int first = nSteps;
+            long min = Long.MAX_VALUE;
+            for (int k = 0; k < bottom; ++k) {
+                long weight = weights[k][i];
+                if (weight < min) {
+                    min = weight;
+                    thresholds[nSteps++] = weight;
+                }
+            }
+            // each step replaces the weight of the next (less precise) one
+            for (int s = first; s < nSteps; ++s) {
+                long replaced = s + 1 < nSteps
+                        ? thresholds[s + 1] : weights[bottom][i];
+                deltas[s] = thresholds[s] - replaced;
+            }
+        }
+        if (base > tst) {
+            return 0;
+        }
+        // sort distinct thresholds and sum up the deltas of each threshold
+        long[] keys = Arrays.copyOf(thresholds, nSteps);
+        Arrays.parallelSort(keys);
+        int nKeys = 0;
+        for (int j = 0; j < keys.length; ++j) {
+            if (nKeys == 0 || keys[nKeys - 1] != keys[j]) {
+                keys[nKeys++] = keys[j];
+            }
+        }
+        long[] sums = new long[nKeys];
+        for (int s = 0; s < nSteps; ++s) {
+            sums[Arrays.binarySearch(keys, 0, nKeys, thresholds[s])] += deltas[s];
         }
-        return total;
+        long total = base;
+        for (int j = 0; j < nKeys && keys[j] <= end; ++j) {
+            total += sums[j];
+            if (total > tst) {
+                return Math.max(0, keys[j] - 1);
+            }
+        }
+        return end;
     }
 
     /**
@@ -176,23 +251,21 @@ public class Scaler {
      * most expensive (and precise) ContextComputer is returned;
      * otherwise, bottom line is returned.
      *
-     * @return the selected context computer for method according to tst
+     * @param i index of the method
+     * @return index of the selected context computer for method according to tst
      */
-    private ContextComputer selectContextComputer(JMethod method, long st) {
-        ContextComputer ctxComp;
-        if (isSpecialMethod(method)) {
+    private int selectContextComputer(int i, long st) {
+        if (special[i]) {
             // special methods will be analyzed with the most precise variant
-            ctxComp = ctxComputers.get(0);
-        } else {
-            ctxComp = bottomLine;
-            for (ContextComputer cc : ctxComputers) {
-                if (getWeight(method, cc) <= st) {
-                    ctxComp = cc;
-                    break;
-                }
+            return 0;
+        }
+        int bottom = allComputers.size() - 1;
+        for (int k = 0; k < bottom; ++k) {
+            if (weights[k][i] <= st) {
+                return k;
             }
         }
-        return ctxComp;
+        return bottom;
     }
 
     /**
@@ -205,30 +278,17 @@ public class Scaler {
                 .startsWith("java.util.");
     }
 
-    /**
-     * @return the weight of given method when analyzed using the
-     * context sensitivity variant that corresponds to given ContextComputer.
-     */
-    private long getWeight(JMethod method, ContextComputer cc) {
-        return ((long) cc.contextNumberOf(method))
-                * ((long) getCIPTSSizeOf(method));
-    }
-
     /**
      * @return total size of points-to sets of all (concerned) variables
      * in given method when analyzed using context insensitivity.
      */
-    private int getCIPTSSizeOf(JMethod method) {
-        if (!ptsSize.containsKey(method)) {
-            int size = method.getIR()
-                    .getVars()
-                    .stream()
-                    .filter(Scaler::isConcerned)
-                    .mapToInt(v -> pta.getBase().getPointsToSet(v).size())
-                    .sum();
-            ptsSize.put(method, size);
-        }
-        return ptsSize.get(method);
+    private long getCIPTSSizeOf(JMethod method) {
+        return method.getIR()
+                .getVars()
+                .stream()
+                .filter(Scaler::isConcerned)
+                .mapToLong(v -> pta.getBase().getPointsToSet(v).size())
+                .sum();
     }
 
     /**
@@ -241,11 +301,14 @@ public class Scaler {
 
     /**
      * Given st, selects suitable context sensitivity variant for given method.
+     *
+     * @param i index of the method
      */
-    private String selectVariantFor(JMethod method, long st) {
-        ContextComputer ctxComp = selectContextComputer(method, st);
-        logger.debug("{}, {}, {}", method,
-                ctxComp.getVariantName(), ctxComp.contextNumberOf(method));
+    private String selectVariantFor(int i, long st) {
+        int k = selectContextComputer(i, st);
+        ContextComputer ctxComp = allComputers.get(k);
+        logger.debug("{}, {}, {}", methods[i],
+                ctxComp.getVariantName(), contextNumbers[k][i]);
         return ctxComp.getVariantName();
     }
 
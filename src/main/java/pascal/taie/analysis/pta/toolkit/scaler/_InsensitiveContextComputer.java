@@ -41,7 +41,7 @@ class _InsensitiveContextComputer extends ContextComputer {
     }
 
     @Override
-    int computeContextNumberOf(JMethod method) {
+    int contextNumberOf(JMethod method) {
         return 1;
     }
 }
@@ -28,6 +28,7 @@ import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 import pascal.taie.util.graph.Graph;
+import pascal.taie.util.graph.IndexedGraph;
 import pascal.taie.util.graph.SimpleGraph;
 
 import java.util.ArrayDeque;
@@ -49,12 +50,25 @@ public class OAGs {
      * @return the object allocation graph for the program.
      */
     public static Graph<Obj> build(PointerAnalysisResultEx pta) {
+        return build(pta, computeInvokedMethods(pta));
+    }
+
+    /**
+     * Builds object allocation graph with given invoked methods
+     * of the objects, which are computed by
+     * {@link #computeInvokedMethods(PointerAnalysisResultEx)}.
+     *
+     * @return the object allocation graph for the program, in compact
+     * index-based form.
+     */
+    public static Graph<Obj> build(PointerAnalysisResultEx pta,
+                                   Map<Obj, Set<JMethod>> invokedMethods) {
         SimpleGraph<Obj> oag = new SimpleGraph<>();
-        computeInvokedMethods(pta).forEach((obj, methods) -> methods.stream()
+        invokedMethods.forEach((obj, methods) -> methods.stream()
                 .map(pta::getObjectsAllocatedIn)
                 .flatMap(Set::stream)
                 .forEach(succ -> oag.addEdge(obj, succ)));
-        return oag;
+        return new IndexedGraph<>(oag, pta.getBase().getObjectIndexer());
     }
 
     /**
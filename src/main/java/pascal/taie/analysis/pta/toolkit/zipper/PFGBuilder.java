@@ -42,6 +42,7 @@ import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.Views;
 
 import javax.annotation.Nullable;
 import java.util.ArrayDeque;
@@ -203,7 +204,8 @@ class PFGBuilder {
                 });
             }
             List<FlowEdge> nextEdges = new ArrayList<>();
-            for (FlowEdge edge : getOutEdgesOf(node)) {
+            for (FlowEdge edge : Views.toCombinedSet(
+                    ofg.getOutEdgesOf(node), wuEdges.get(node))) {
                 switch (edge.kind()) {
                     case LOCAL_ASSIGN, CAST -> {
                         nextEdges.add(edge);
@@ -267,15 +269,6 @@ class PFGBuilder {
         }
     }
 
-    public Set<FlowEdge> getOutEdgesOf(Node node) {
-        Set<FlowEdge> outEdges = ofg.getOutEdgesOf(node);
-        if (wuEdges.containsKey(node)) {
-            outEdges = Sets.newSet(outEdges);
-            outEdges.addAll(wuEdges.get(node));
-        }
-        return outEdges;
-    }
-
     @Nullable
     private VarNode getAssignedNode(Obj obj) {
         if (obj.getAllocation() instanceof New newStmt) {
@@ -33,6 +33,7 @@ import pascal.taie.util.collection.Views;
 import pascal.taie.util.graph.Graph;
 
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 class PrecisionFlowGraph implements Graph<Node> {
@@ -73,6 +74,38 @@ class PrecisionFlowGraph implements Graph<Node> {
         return outNodes;
     }
 
+    /**
+     * Applies given action to each predecessor of given node.
+     * Different from {@link #getPredsOf(Node)}, this method directly
+     * iterates the edges of the shared object flow graph, without
+     * creating any intermediate collections.
+     */
+    void forEachPred(Node node, Consumer<Node> action) {
+        for (FlowEdge edge : ofg.getInEdgesOf(node)) {
+            if (nodes.contains(edge.source())) {
+                action.accept(edge.source());
+            }
+        }
+        for (FlowEdge edge : inWUEdges.get(node)) {
+            action.accept(edge.source());
+        }
+    }
+
+    /**
+     * @return the number of edges in this graph.
+     */
+    int getNumberOfEdges() {
+        int count = outWUEdges.size();
+        for (Node node : nodes) {
+            for (FlowEdge edge : ofg.getOutEdgesOf(node)) {
+                if (nodes.contains(edge.target())) {
+                    ++count;
+                }
+            }
+        }
+        return count;
+    }
+
     @Override
     public boolean hasEdge(Node source, Node target) {
         throw new UnsupportedOperationException();
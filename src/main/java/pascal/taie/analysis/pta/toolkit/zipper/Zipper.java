@@ -32,25 +32,36 @@ import pascal.taie.analysis.graph.flowgraph.VarNode;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
-import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl;
+import pascal.taie.analysis.pta.toolkit.PreAnalysisArtifacts;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.New;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.MutableInt;
 import pascal.taie.util.Timer;
+import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.Sets;
 
 import javax.annotation.Nullable;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public class Zipper {
@@ -59,6 +70,22 @@ public class Zipper {
 
     private static final float DEFAULT_PV = 0.05f;
 
+    /**
+     * Estimated memory (in bytes) consumed by each node of a PFG
+     * during building and analyzing the PFG.
+     */
+    private static final int BYTES_PER_PFG_NODE = 128;
+
+    /**
+     * Each permit of the memory budget represents 1 KB.
+     */
+    private static final int BYTES_PER_PERMIT = 1024;
+
+    /**
+     * Number of the most time-consuming types reported in the log.
+     */
+    private static final int REPORTED_TYPES = 10;
+
     private final PointerAnalysisResultEx pta;
 
     private final boolean isExpress;
@@ -68,6 +95,12 @@ public class Zipper {
      */
     private final float pv;
 
+    /**
+     * Memory budget (in bytes) for building and analyzing PFGs
+     * in parallel, and 0 means unbounded.
+     */
+    private final long memoryBudget;
+
     private final ObjectAllocationGraph oag;
 
     private final PotentialContextElement pce;
@@ -85,9 +118,37 @@ public class Zipper {
     private Map<JMethod, MutableInt> methodPts;
 
     /**
-     * Parses Zipper argument and runs Zipper.
+     * Statistics of building and analyzing PFG for a type.
+     *
+     * @param estimate estimated memory (in bytes) for the PFG of the type
+     * @param time     elapsed time (in nanoseconds)
+     */
+    private record TypeStat(Type type, long estimate, long time) {
+    }
+
+    private Queue<TypeStat> typeStats;
+
+    /**
+     * Peak heap usage observed after analyzing each type.
+     */
+    private AtomicLong peakMemory;
+
+    /**
+     * Parses Zipper argument and runs Zipper with default memory budget.
      */
     public static Set<JMethod> run(PointerAnalysisResult pta, String arg) {
+        return run(pta, arg, -1);
+    }
+
+    /**
+     * Parses Zipper argument and runs Zipper.
+     *
+     * @param memoryBudget memory budget (in MB) for building and analyzing
+     *                     PFGs in parallel. -1 means half of the max heap
+     *                     size, and 0 means unbounded.
+     */
+    public static Set<JMethod> run(PointerAnalysisResult pta, String arg,
+                                   int memoryBudget) {
         boolean isExpress;
         float pv;
         if (arg.equals("zipper")) {
@@ -102,19 +163,39 @@ public class Zipper {
         } else {
             throw new IllegalArgumentException("Illegal Zipper argument: " + arg);
         }
-        return new Zipper(pta, isExpress, pv)
+        long budget = switch (memoryBudget) {
+            case -1 -> Runtime.getRuntime().maxMemory() / 2;
+            case 0 -> 0;
+            default -> memoryBudget * 1024L * 1024L;
+        };
+        return new Zipper(pta, isExpress, pv, budget)
                 .selectPrecisionCriticalMethods();
     }
 
     public Zipper(PointerAnalysisResult ptaBase, boolean isExpress, float pv) {
-        this.pta = new PointerAnalysisResultExImpl(ptaBase, true);
+        this(ptaBase, isExpress, pv, 0);
+    }
+
+    /**
+     * @param memoryBudget memory budget (in bytes) for building and
+     *                     analyzing PFGs in parallel, 0 means unbounded.
+     */
+    public Zipper(PointerAnalysisResult ptaBase, boolean isExpress, float pv,
+                  long memoryBudget) {
+        PreAnalysisArtifacts artifacts = PreAnalysisArtifacts.of(ptaBase);
+        this.pta = artifacts.getResultEx();
         this.isExpress = isExpress;
         this.pv = pv;
-        this.oag = Timer.runAndCount(() -> new ObjectAllocationGraph(pta),
-                "Building OAG", Level.INFO);
-        this.pce = Timer.runAndCount(() -> new PotentialContextElement(pta, oag),
-                "Building PCE", Level.INFO);
-        this.ofg = ptaBase.getObjectFlowGraph();
+        this.memoryBudget = memoryBudget;
+        this.oag = artifacts.get(ObjectAllocationGraph.class,
+                () -> Timer.runAndCount(() -> new ObjectAllocationGraph(
+                                pta, artifacts.getInvokedMethods()),
+                        "Building OAG", Level.INFO));
+        this.pce = artifacts.get(PotentialContextElement.class,
+                () -> Timer.runAndCount(() -> new PotentialContextElement(
+                                pta, oag, artifacts.getInvokedMethods()),
+                        "Building PCE", Level.INFO));
+        this.ofg = artifacts.getObjectFlowGraph();
         logger.info("{} nodes in OFG", ofg.getNodes().size());
         logger.info("{} edges in OFG",
                 ofg.getNodes().stream().mapToInt(ofg::getOutDegreeOf).sum());
@@ -128,6 +209,8 @@ public class Zipper {
         totalPFGNodes = new AtomicInteger(0);
         totalPFGEdges = new AtomicInteger(0);
         pcmMap = Maps.newConcurrentMap(1024);
+        typeStats = new ConcurrentLinkedQueue<>();
+        peakMemory = new AtomicLong(0);
 
         // prepare information for Zipper-e
         if (isExpress) {
@@ -148,11 +231,19 @@ public class Zipper {
 
         // build and analyze precision-flow graphs
         Set<Type> types = pta.getObjectTypes();
-        Timer.runAndCount(() -> types.parallelStream().forEach(this::analyze),
-                "Building and analyzing PFG", Level.INFO);
+        if (memoryBudget > 0) {
+            Timer.runAndCount(() -> analyzeWithBudget(types),
+                    "Building and analyzing PFG (memory budget: "
+                            + memoryBudget / (1024 * 1024) + " MB)", Level.INFO);
+        } else {
+            Timer.runAndCount(() -> types.parallelStream()
+                            .forEach(type -> analyze(type, 0)),
+                    "Building and analyzing PFG", Level.INFO);
+        }
         logger.info("#types: {}", types.size());
         logger.info("#avg. nodes in PFG: {}", totalPFGNodes.get() / types.size());
         logger.info("#avg. edges in PFG: {}", totalPFGEdges.get() / types.size());
+        reportTypeStats();
 
         // collect all precision-critical methods
         Set<JMethod> pcms = pcmMap.values()
@@ -163,17 +254,95 @@ public class Zipper {
         return pcms;
     }
 
-    private void analyze(Type type) {
+    /**
+     * Builds and analyzes PFGs of given types in parallel, with bounded
+     * memory. Types are scheduled in descending order of their estimated
+     * PFG sizes, so that large PFGs do not delay the end of the analysis.
+     * A type is scheduled only when its estimated memory fits in
+     * the remaining budget; a type exceeding the whole budget is
+     * analyzed alone.
+     */
+    private void analyzeWithBudget(Set<Type> types) {
+        int totalPermits = (int) Math.min(
+                memoryBudget / BYTES_PER_PERMIT, Integer.MAX_VALUE);
+        Semaphore budget = new Semaphore(totalPermits);
+        Map<Type, Long> estimates = Maps.newMap(types.size());
+        types.forEach(type -> estimates.put(type, estimatePFGMemory(type)));
+        List<Type> orderedTypes = types.stream()
+                .sorted(Comparator.comparing((Type t) -> estimates.get(t))
+                        .reversed()
+                        .thenComparing(Type::getName))
+                .toList();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        try {
+            List<Future<?>> futures = new ArrayList<>(orderedTypes.size());
+            for (Type type : orderedTypes) {
+                long estimate = estimates.get(type);
+                int permits = (int) Math.max(1, Math.min(
+                        estimate / BYTES_PER_PERMIT, totalPermits));
+                budget.acquireUninterruptibly(permits);
+                futures.add(executor.submit(() -> {
+                    try {
+                        analyze(type, estimate);
+                    } finally {
+                        budget.release(permits);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Zipper is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Failed to analyze PFG", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Estimates the memory consumed by building and analyzing
+     * the PFG of given type. The PFG of a type consists of the nodes
+     * in the methods of the type's PCE, plus a bit set over all OFG nodes.
+     */
+    private long estimatePFGMemory(Type type) {
+        long nodes = pce.pceMethodsOf(type)
+                .stream()
+                .mapToLong(m -> m.getIR().getVars().size())
+                .sum();
+        return nodes * BYTES_PER_PFG_NODE + ofg.getNodes().size() / 8;
+    }
+
+    private void analyze(Type type, long estimate) {
+        long start = System.nanoTime();
         PrecisionFlowGraph pfg = new PFGBuilder(pta, ofg, oag, pce, type).build();
         totalPFGNodes.addAndGet(pfg.getNumberOfNodes());
-        totalPFGEdges.addAndGet(pfg.getNodes()
-                .stream()
-                .mapToInt(pfg::getOutDegreeOf)
-                .sum());
+        totalPFGEdges.addAndGet(pfg.getNumberOfEdges());
         Set<JMethod> pcms = getPrecisionCriticalMethods(pfg);
         if (!pcms.isEmpty()) {
             pcmMap.put(type, pcms);
         }
+        typeStats.add(new TypeStat(type, estimate, System.nanoTime() - start));
+        Runtime runtime = Runtime.getRuntime();
+        peakMemory.accumulateAndGet(
+                runtime.totalMemory() - runtime.freeMemory(), Math::max);
+    }
+
+    private void reportTypeStats() {
+        typeStats.forEach(stat -> logger.debug("PFG of {}: {} ms, estimated {} KB",
+                stat.type(), stat.time() / 1_000_000, stat.estimate() / 1024));
+        logger.info("Top {} time-consuming types in building and analyzing PFG:",
+                REPORTED_TYPES);
+        typeStats.stream()
+                .sorted(Comparator.comparingLong(TypeStat::time).reversed())
+                .limit(REPORTED_TYPES)
+                .forEach(stat -> logger.info("  {}: {} ms, estimated {} KB",
+                        stat.type(), stat.time() / 1_000_000, stat.estimate() / 1024));
+        logger.info("Peak heap usage in building and analyzing PFG: {} MB",
+                peakMemory.get() / (1024 * 1024));
     }
 
     private Set<JMethod> getPrecisionCriticalMethods(PrecisionFlowGraph pfg) {
@@ -197,18 +366,19 @@ public class Zipper {
         return pcms;
     }
 
-    private static Set<Node> getFlowNodes(PrecisionFlowGraph pfg) {
-        Set<Node> visited = Sets.newSet();
+    private Set<Node> getFlowNodes(PrecisionFlowGraph pfg) {
+        Set<Node> visited = new IndexerBitSet<>(ofg, true);
+        Deque<Node> workList = new ArrayDeque<>();
         for (VarNode outNode : pfg.getOutNodes()) {
-            Deque<Node> workList = new ArrayDeque<>();
             workList.add(outNode);
             while (!workList.isEmpty()) {
                 Node node = workList.poll();
                 if (visited.add(node)) {
-                    pfg.getPredsOf(node)
-                            .stream()
-                            .filter(Predicate.not(visited::contains))
-                            .forEach(workList::add);
+                    pfg.forEachPred(node, pred -> {
+                        if (!visited.contains(pred)) {
+                            workList.add(pred);
+                        }
+                    });
                 }
             }
         }
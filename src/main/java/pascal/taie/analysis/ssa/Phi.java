@@ -0,0 +1,95 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Represents a phi function at the beginning of a basic block,
+ * i.e., {@code v#k = phi(v#i from B1, v#j from B2, ...)}.
+ */
+public class Phi {
+
+    private final BasicBlock block;
+
+    private final Var var;
+
+    private SSAVar target;
+
+    /**
+     * Maps predecessor blocks to the versions flowing from them.
+     */
+    private final Map<BasicBlock, SSAVar> operands = Maps.newHybridMap();
+
+    Phi(BasicBlock block, Var var) {
+        this.block = block;
+        this.var = var;
+    }
+
+    /**
+     * @return the block at whose beginning this phi is placed.
+     */
+    public BasicBlock getBlock() {
+        return block;
+    }
+
+    /**
+     * @return the original variable merged by this phi.
+     */
+    public Var getVar() {
+        return var;
+    }
+
+    /**
+     * @return the version defined by this phi.
+     */
+    public SSAVar getTarget() {
+        return target;
+    }
+
+    void setTarget(SSAVar target) {
+        this.target = target;
+    }
+
+    /**
+     * @return the operands of this phi, i.e., the map from predecessor
+     * blocks to the versions flowing from them.
+     */
+    public Map<BasicBlock, SSAVar> getOperands() {
+        return Collections.unmodifiableMap(operands);
+    }
+
+    void setOperand(BasicBlock pred, SSAVar operand) {
+        operands.put(pred, operand);
+    }
+
+    @Override
+    public String toString() {
+        return target + " = phi" + operands;
+    }
+}
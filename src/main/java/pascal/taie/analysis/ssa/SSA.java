@@ -0,0 +1,145 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SSA form of an {@link IR}. It maps each definition and use of variables
+ * in the stmts to an {@link SSAVar}, and keeps the {@link Phi}s at the
+ * beginning of the blocks of the {@link BlockCFG} of the IR.
+ */
+public class SSA {
+
+    private final IR ir;
+
+    private final BlockCFG cfg;
+
+    /**
+     * Initial versions of variables, indexed by the indexes of variables.
+     */
+    private final SSAVar[] initialVars;
+
+    /**
+     * Versions defined by stmts, indexed by the indexes of stmts.
+     */
+    private final SSAVar[] defs;
+
+    /**
+     * Versions used by stmts, indexed by the indexes of stmts.
+     */
+    private final SSAVar[][] uses;
+
+    private final Map<BasicBlock, List<Phi>> phis;
+
+    private final List<SSAVar> vars;
+
+    SSA(IR ir, BlockCFG cfg, SSAVar[] initialVars, SSAVar[] defs,
+        SSAVar[][] uses, Map<BasicBlock, List<Phi>> phis, List<SSAVar> vars) {
+        this.ir = ir;
+        this.cfg = cfg;
+        this.initialVars = initialVars;
+        this.defs = defs;
+        this.uses = uses;
+        this.phis = phis;
+        this.vars = vars;
+    }
+
+    public IR getIR() {
+        return ir;
+    }
+
+    /**
+     * @return the basic-block CFG on which this SSA form is built.
+     */
+    public BlockCFG getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the version of given variable at method entry.
+     */
+    public SSAVar getInitialVersion(Var var) {
+        return initialVars[ir.getVarIndexer().getIndex(var)];
+    }
+
+    /**
+     * @return the version defined by given stmt, or {@code null}
+     * if the stmt does not define any variable.
+     */
+    @Nullable
+    public SSAVar getDef(Stmt stmt) {
+        int index = stmt.getIndex();
+        return index >= 0 && index < defs.length ? defs[index] : null;
+    }
+
+    /**
+     * @return the versions used by given stmt.
+     */
+    public List<SSAVar> getUses(Stmt stmt) {
+        int index = stmt.getIndex();
+        return index >= 0 && index < uses.length && uses[index] != null ?
+                List.of(uses[index]) : List.of();
+    }
+
+    /**
+     * @return the version of {@code var} used by {@code stmt}, or
+     * {@code null} if {@code var} is not used by {@code stmt}.
+     */
+    @Nullable
+    public SSAVar getUse(Stmt stmt, Var var) {
+        int index = stmt.getIndex();
+        if (index >= 0 && index < uses.length && uses[index] != null) {
+            for (SSAVar use : uses[index]) {
+                if (use.getVar() == var) {
+                    return use;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the phis at the beginning of given block.
+     */
+    public List<Phi> getPhis(BasicBlock block) {
+        return phis.getOrDefault(block, List.of());
+    }
+
+    /**
+     * @return all versions of all variables in this SSA form,
+     * including the initial versions.
+     */
+    public List<SSAVar> getVars() {
+        return Collections.unmodifiableList(vars);
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.graph.DominatorTree;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds semi-pruned SSA form for the IR of each method, i.e., phis are
+ * only placed for the variables which are used in some blocks before
+ * being defined in the same blocks (Briggs et al., "Practical improvements
+ * to the construction and destruction of static single assignment form",
+ * SPE 1998).
+ */
+public class SSABuilder extends MethodAnalysis<SSA> {
+
+    public static final String ID = "ssa";
+
+    public SSABuilder(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public SSA analyze(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        return new Construction(ir, new BlockCFG(cfg)).build();
+    }
+
+    /**
+     * Holds the states for building the SSA form of a method.
+     */
+    private static class Construction {
+
+        private final IR ir;
+
+        private final BlockCFG cfg;
+
+        /**
+         * Dominator tree of the blocks. Its roots are the entry and
+         * the blocks that are unreachable from the entry.
+         */
+        private final DominatorTree<BasicBlock> domTree;
+
+        private final SSAVar[] initialVars;
+
+        private final SSAVar[] defs;
+
+        private final SSAVar[][] uses;
+
+        private final Map<BasicBlock, List<Phi>> phis = Maps.newMap();
+
+        private final List<SSAVar> vars = new ArrayList<>();
+
+        /**
+         * Next version of each variable.
+         */
+        private final int[] versions;
+
+        /**
+         * Stacks of the versions of variables during renaming.
+         */
+        private final List<Deque<SSAVar>> stacks;
+
+        private Construction(IR ir, BlockCFG cfg) {
+            this.ir = ir;
+            this.cfg = cfg;
+            domTree = new DominatorTree<>(cfg, new CFGNodeIndexer<>(cfg),
+                    List.of(cfg.getEntry()));
+            int nVars = ir.getVars().size();
+            initialVars = new SSAVar[nVars];
+            defs = new SSAVar[ir.getStmts().size()];
+            uses = new SSAVar[ir.getStmts().size()][];
+            versions = new int[nVars];
+            stacks = new ArrayList<>(nVars);
+            for (int i = 0; i < nVars; ++i) {
+                stacks.add(null);
+            }
+        }
+
+        private SSA build() {
+            ir.getVars().forEach(var -> {
+                SSAVar initial = new SSAVar(var, 0, null, null);
+                initialVars[indexOf(var)] = initial;
+                vars.add(initial);
+            });
+            insertPhis();
+            rename();
+            return new SSA(ir, cfg, initialVars, defs, uses, phis, vars);
+        }
+
+        private int indexOf(Var var) {
+            return ir.getVarIndexer().getIndex(var);
+        }
+
+        private void insertPhis() {
+            // collect the blocks defining each variable, and
+            // the variables that are live across blocks
+            int nVars = initialVars.length;
+            List<List<BasicBlock>> defBlocks = new ArrayList<>(nVars);
+            for (int i = 0; i < nVars; ++i) {
+                defBlocks.add(null);
+            }
+            BitSet globals = new BitSet(nVars);
+            BitSet localDefs = new BitSet(nVars);
+            for (BasicBlock block : cfg) {
+                localDefs.clear();
+                for (Stmt stmt : block) {
+                    for (RValue use : stmt.getUses()) {
+                        if (use instanceof Var var && !localDefs.get(indexOf(var))) {
+                            globals.set(indexOf(var));
+                        }
+                    }
+                    if (stmt.getDef().orElse(null) instanceof Var var) {
+                        int i = indexOf(var);
+                        if (!localDefs.get(i)) {
+                            localDefs.set(i);
+                            if (defBlocks.get(i) == null) {
+                                defBlocks.set(i, new ArrayList<>());
+                            }
+                            defBlocks.get(i).add(block);
+                        }
+                    }
+                }
+            }
+            // place phis on iterated dominance frontiers
+            for (int i = globals.nextSetBit(0); i >= 0; i = globals.nextSetBit(i + 1)) {
+                if (defBlocks.get(i) == null) {
+                    continue;
+                }
+                Var var = ir.getVar(i);
+                BitSet hasPhi = new BitSet(cfg.getNumberOfNodes());
+                Deque<BasicBlock> workList = new ArrayDeque<>(defBlocks.get(i));
+                while (!workList.isEmpty()) {
+                    BasicBlock block = workList.poll();
+                    for (BasicBlock frontier : domTree.getDominanceFrontierOf(block)) {
+                        if (!hasPhi.get(frontier.getIndex())) {
+                            hasPhi.set(frontier.getIndex());
+                            phis.computeIfAbsent(frontier, b -> new ArrayList<>())
+                                    .add(new Phi(frontier, var));
+                            workList.add(frontier);
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Renames variables by traversing the dominator tree in pre-order,
+         * and pops the versions defined in each block after visiting all
+         * blocks dominated by it.
+         */
+        private void rename() {
+            List<BasicBlock> roots = domTree.getRoots();
+            // each element is the index of a block to be visited, or -1
+            // which marks the exit of the last visited block
+            Deque<Integer> stack = new ArrayDeque<>();
+            Deque<List<Var>> definedVars = new ArrayDeque<>();
+            for (int i = roots.size() - 1; i >= 0; --i) {
+                stack.push(roots.get(i).getIndex());
+            }
+            while (!stack.isEmpty()) {
+                int index = stack.pop();
+                if (index == -1) {
+                    // exit the block, pop its versions
+                    definedVars.pop().forEach(var -> stacks.get(indexOf(var)).pop());
+                    continue;
+                }
+                BasicBlock block = cfg.getNode(index);
+                definedVars.push(renameBlock(block));
+                stack.push(-1);
+                List<BasicBlock> blockChildren = domTree.getChildrenOf(block);
+                for (int i = blockChildren.size() - 1; i >= 0; --i) {
+                    stack.push(blockChildren.get(i).getIndex());
+                }
+            }
+        }
+
+        /**
+         * Renames the definitions and uses in given block, and
+         * fills the operands of the phis in its successors.
+         *
+         * @return the variables defined in the block.
+         */
+        private List<Var> renameBlock(BasicBlock block) {
+            List<Var> defined = new ArrayList<>();
+            for (Phi phi : phis.getOrDefault(block, List.of())) {
+                SSAVar target = newVersion(phi.getVar(), null, phi);
+                phi.setTarget(target);
+                defined.add(phi.getVar());
+            }
+            for (Stmt stmt : block) {
+                List<SSAVar> stmtUses = new ArrayList<>();
+                for (RValue use : stmt.getUses()) {
+                    if (use instanceof Var var) {
+                        SSAVar version = current(var);
+                        version.addUse(stmt);
+                        stmtUses.add(version);
+                    }
+                }
+                if (!stmtUses.isEmpty()) {
+                    uses[stmt.getIndex()] = stmtUses.toArray(new SSAVar[0]);
+                }
+                if (stmt.getDef().orElse(null) instanceof Var var) {
+                    defs[stmt.getIndex()] = newVersion(var, stmt, null);
+                    defined.add(var);
+                }
+            }
+            for (BasicBlock succ : cfg.getSuccsOf(block)) {
+                for (Phi phi : phis.getOrDefault(succ, List.of())) {
+                    SSAVar operand = current(phi.getVar());
+                    phi.setOperand(block, operand);
+                    operand.addUse(phi);
+                }
+            }
+            return defined;
+        }
+
+        private SSAVar current(Var var) {
+            Deque<SSAVar> versionStack = stacks.get(indexOf(var));
+            return versionStack == null || versionStack.isEmpty() ?
+                    initialVars[indexOf(var)] : versionStack.peek();
+        }
+
+        private SSAVar newVersion(Var var, @Nullable Stmt defStmt,
+                                  @Nullable Phi defPhi) {
+            int i = indexOf(var);
+            SSAVar version = new SSAVar(var, ++versions[i], defStmt, defPhi);
+            if (stacks.get(i) == null) {
+                stacks.set(i, new ArrayDeque<>());
+            }
+            stacks.get(i).push(version);
+            vars.add(version);
+            return version;
+        }
+    }
+}
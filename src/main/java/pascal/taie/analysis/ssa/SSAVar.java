@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Represents a version of a variable in SSA form. Each version is defined
+ * exactly once, by a stmt, by a {@link Phi}, or at method entry (version 0,
+ * whose value is the value of the variable when entering the method, i.e.,
+ * the argument for parameters, and undefined for other variables).
+ */
+public class SSAVar {
+
+    private final Var var;
+
+    private final int version;
+
+    @Nullable
+    private final Stmt defStmt;
+
+    @Nullable
+    private final Phi defPhi;
+
+    private final List<Stmt> useStmts = new ArrayList<>(2);
+
+    private final List<Phi> usePhis = new ArrayList<>(0);
+
+    SSAVar(Var var, int version, @Nullable Stmt defStmt, @Nullable Phi defPhi) {
+        this.var = var;
+        this.version = version;
+        this.defStmt = defStmt;
+        this.defPhi = defPhi;
+    }
+
+    /**
+     * @return the original variable of this version.
+     */
+    public Var getVar() {
+        return var;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return {@code true} if this version is the value at method entry.
+     */
+    public boolean isInitial() {
+        return version == 0;
+    }
+
+    /**
+     * @return the stmt that defines this version, or {@code null}
+     * if this version is defined by a phi or at method entry.
+     */
+    @Nullable
+    public Stmt getDefStmt() {
+        return defStmt;
+    }
+
+    /**
+     * @return the phi that defines this version, or {@code null}
+     * if this version is defined by a stmt or at method entry.
+     */
+    @Nullable
+    public Phi getDefPhi() {
+        return defPhi;
+    }
+
+    /**
+     * @return the stmts that use this version.
+     */
+    public List<Stmt> getUseStmts() {
+        return Collections.unmodifiableList(useStmts);
+    }
+
+    /**
+     * @return the phis that use this version as an operand.
+     */
+    public List<Phi> getUsePhis() {
+        return Collections.unmodifiableList(usePhis);
+    }
+
+    void addUse(Stmt stmt) {
+        if (useStmts.isEmpty() || useStmts.get(useStmts.size() - 1) != stmt) {
+            useStmts.add(stmt);
+        }
+    }
+
+    void addUse(Phi phi) {
+        if (!usePhis.contains(phi)) {
+            usePhis.add(phi);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return var.getName() + "#" + version;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Driver for sparse analyses on {@link SSA} form. Different from the
+ * data-flow analyses, which propagate facts of all variables along the
+ * CFG, a sparse analysis computes one value for each version of the
+ * relevant variables, and propagates the changes of values along the
+ * def-use chains of SSA form.
+ * <p>
+ * The values are initialized optimistically by {@link Problem#getTop()}
+ * (except the initial versions), and are only lowered by the meet
+ * operation, thus the analysis terminates if the lattice has finite height.
+ *
+ * @param <V> type of the values of variables
+ */
+public abstract class SparseAnalysis<V> extends MethodAnalysis<SparseResult<V>> {
+
+    private static final Logger logger = LogManager.getLogger(SparseAnalysis.class);
+
+    /**
+     * Number of evaluations of definitions and number of versions.
+     */
+    private final LongAdder nEvaluations = new LongAdder();
+
+    private final LongAdder nVars = new LongAdder();
+
+    protected SparseAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public SparseResult<V> analyze(IR ir) {
+        SSA ssa = ir.getResult(SSABuilder.ID);
+        Problem<V> problem = makeProblem(ssa);
+        Map<SSAVar, V> values = Maps.newMap();
+        Queue<SSAVar> workList = new SetQueue<>();
+        for (SSAVar var : ssa.getVars()) {
+            if (problem.isRelevant(var.getVar())) {
+                if (var.isInitial()) {
+                    values.put(var, problem.getInitialValue(var.getVar()));
+                } else {
+                    values.put(var, problem.getTop());
+                    workList.add(var);
+                }
+            }
+        }
+        nVars.add(values.size());
+        while (!workList.isEmpty()) {
+            SSAVar var = workList.poll();
+            nEvaluations.increment();
+            V oldValue = values.get(var);
+            V newValue = problem.meet(oldValue, evaluate(ssa, problem, values, var));
+            if (!newValue.equals(oldValue)) {
+                values.put(var, newValue);
+                for (Stmt use : var.getUseStmts()) {
+                    SSAVar def = ssa.getDef(use);
+                    if (def != null && values.containsKey(def)) {
+                        workList.add(def);
+                    }
+                }
+                for (Phi phi : var.getUsePhis()) {
+                    workList.add(phi.getTarget());
+                }
+            }
+        }
+        return new SparseResult<>(ssa, values);
+    }
+
+    /**
+     * Evaluates the value of given version from the values of the
+     * versions used by its definition.
+     */
+    private V evaluate(SSA ssa, Problem<V> problem,
+                       Map<SSAVar, V> values, SSAVar var) {
+        Phi phi = var.getDefPhi();
+        if (phi != null) {
+            V value = problem.getTop();
+            for (SSAVar operand : phi.getOperands().values()) {
+                value = problem.meet(value, values.get(operand));
+            }
+            return value;
+        }
+        Stmt stmt = var.getDefStmt();
+        assert stmt != null;
+        Map<Var, V> useValues = Maps.newHybridMap();
+        for (SSAVar use : ssa.getUses(stmt)) {
+            V value = values.get(use);
+            if (value != null) {
+                useValues.put(use.getVar(), value);
+            }
+        }
+        return problem.transfer(stmt, var.getVar(), useValues);
+    }
+
+    @Override
+    public void onFinish() {
+        logger.info("{} performed {} evaluations on {} SSA variables",
+                getId(), nEvaluations.sum(), nVars.sum());
+    }
+
+    /**
+     * Creates the problem to be solved for given SSA form.
+     */
+    protected abstract Problem<V> makeProblem(SSA ssa);
+
+    /**
+     * Defines the lattice and the transfer functions of a sparse analysis.
+     *
+     * @param <V> type of the values of variables
+     */
+    public interface Problem<V> {
+
+        /**
+         * @return {@code true} if the analysis computes values for {@code var}.
+         */
+        boolean isRelevant(Var var);
+
+        /**
+         * @return the value of {@code var} at method entry.
+         */
+        V getInitialValue(Var var);
+
+        /**
+         * @return the top element of the lattice, which is the initial
+         * value of the versions defined in the method.
+         */
+        V getTop();
+
+        /**
+         * @return the greatest lower bound of two values.
+         */
+        V meet(V v1, V v2);
+
+        /**
+         * Computes the value of {@code def} defined by {@code stmt}.
+         *
+         * @param useValues the values of the relevant variables used by {@code stmt}
+         */
+        V transfer(Stmt stmt, Var def, Map<Var, V> useValues);
+    }
+}
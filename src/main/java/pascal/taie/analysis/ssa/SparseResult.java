@@ -0,0 +1,81 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Result of {@link SparseAnalysis}, which keeps one value for each
+ * version of the relevant variables, instead of one fact per stmt.
+ *
+ * @param <V> type of the values of variables
+ */
+public class SparseResult<V> {
+
+    private final SSA ssa;
+
+    private final Map<SSAVar, V> values;
+
+    SparseResult(SSA ssa, Map<SSAVar, V> values) {
+        this.ssa = ssa;
+        this.values = values;
+    }
+
+    public SSA getSSA() {
+        return ssa;
+    }
+
+    /**
+     * @return the value of given version, or {@code null} if the
+     * variable of the version is irrelevant to the analysis.
+     */
+    @Nullable
+    public V getValue(SSAVar var) {
+        return values.get(var);
+    }
+
+    /**
+     * @return the value of {@code var} when it is used by {@code stmt},
+     * or {@code null} if {@code var} is not used by {@code stmt} or
+     * irrelevant to the analysis.
+     */
+    @Nullable
+    public V getValueAt(Stmt stmt, Var var) {
+        SSAVar use = ssa.getUse(stmt, var);
+        return use != null ? values.get(use) : null;
+    }
+
+    /**
+     * @return the value of the variable defined by {@code stmt},
+     * or {@code null} if {@code stmt} does not define a relevant variable.
+     */
+    @Nullable
+    public V getDefValue(Stmt stmt) {
+        SSAVar def = ssa.getDef(stmt);
+        return def != null ? values.get(def) : null;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Provides static single assignment (SSA) form of {@link pascal.taie.ir.IR}
+ * and sparse analyses on it. The SSA form is built by the algorithm of
+ * Cytron et al., "Efficiently computing static single assignment form and
+ * the control dependence graph", TOPLAS 1991, i.e., placing phi functions
+ * on the iterated dominance frontiers of definitions and renaming variables
+ * by traversing the dominator tree.
+ * <p>
+ * The SSA form is a view of the IR: it does not modify the statements,
+ * instead, it maps the definitions and uses of variables in the statements
+ * to {@link pascal.taie.analysis.ssa.SSAVar}s, so that the analyses
+ * working on the original IR are not affected.
+ *
+ * @see pascal.taie.analysis.ssa.SSA
+ * @see pascal.taie.analysis.ssa.SparseAnalysis
+ */
+package pascal.taie.analysis.ssa;
@@ -211,6 +211,17 @@ public class Options implements Serializable {
         return preBuildIR;
     }
 
+    @JsonProperty
+    @Option(names = "--pre-build-dispatch-tables",
+            description = "Build dispatch tables for all classes before" +
+                    " starting any analysis (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean preBuildDispatchTables;
+
+    public boolean isPreBuildDispatchTables() {
+        return preBuildDispatchTables;
+    }
+
     @JsonProperty
     @Option(names = {"-wc", "--world-cache-mode"},
             description = "Enable world cache mode to save build time"
@@ -233,6 +244,17 @@ public class Options implements Serializable {
         return scope;
     }
 
+    @JsonProperty
+    @Option(names = "--fuse-method-analyses",
+            description = "Run consecutive method analyses in the plan method" +
+                    " by method in one pass (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean fuseMethodAnalyses;
+
+    public boolean isFuseMethodAnalyses() {
+        return fuseMethodAnalyses;
+    }
+
     @JsonProperty
     @Option(names = "--no-native-model",
             description = "Enable native model (default: ${DEFAULT-VALUE})",
@@ -509,8 +531,10 @@ public class Options implements Serializable {
                 ", worldBuilderClass=" + worldBuilderClass +
                 ", outputDir='" + outputDir + '\'' +
                 ", preBuildIR=" + preBuildIR +
+                ", preBuildDispatchTables=" + preBuildDispatchTables +
                 ", worldCacheMode=" + worldCacheMode +
                 ", scope=" + scope +
+                ", fuseMethodAnalyses=" + fuseMethodAnalyses +
                 ", nativeModel=" + nativeModel +
                 ", planFile=" + planFile +
                 ", analyses=" + analyses +
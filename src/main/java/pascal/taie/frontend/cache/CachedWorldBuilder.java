@@ -87,6 +87,10 @@ public class CachedWorldBuilder implements WorldBuilder {
             World world = (World) ois.readObject();
             World.set(world);
             world.setOptions(options);
+            if (options.isPreBuildDispatchTables()) {
+                // the cached world may be built without dispatch tables
+                world.getClassHierarchy().buildDispatchTables();
+            }
             return true;
         } catch (Exception e) {
             logger.error("Failed to load world cache from {} due to {}",
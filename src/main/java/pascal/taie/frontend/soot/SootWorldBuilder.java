@@ -240,6 +240,9 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         if (options.isPreBuildIR()) {
             irBuilder.buildAll(hierarchy);
         }
+        if (options.isPreBuildDispatchTables()) {
+            hierarchy.buildDispatchTables();
+        }
     }
 
     protected static void buildClasses(ClassHierarchy hierarchy, Scene scene) {
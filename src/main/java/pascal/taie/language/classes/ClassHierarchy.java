@@ -153,6 +153,14 @@ public interface ClassHierarchy extends Indexer<JClass> {
     @Nullable
     JMethod dispatch(JClass receiverClass, MethodRef methodRef);
 
+    /**
+     * Precomputes the dispatch tables of all classes in this class hierarchy,
+     * so that subsequent {@link #dispatch(JClass, MethodRef)} on these classes
+     * are resolved by table lookups instead of walking the class hierarchy.
+     * Does nothing if the dispatch tables have been built.
+     */
+    void buildDispatchTables();
+
     /**
      * @return the direct subinterfaces of given interface.
      */
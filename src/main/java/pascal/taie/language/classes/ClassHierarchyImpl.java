@@ -30,6 +30,7 @@ import pascal.taie.language.annotation.AnnotationHolder;
 import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.Timer;
 import pascal.taie.util.collection.HybridBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
@@ -82,15 +83,30 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     private final MultiMap<JClass, JClass> directInnerClasses = Maps.newMultiMap();
 
     /**
-     * Cache results of method dispatch.
+     * Cache results of method dispatch. Use concurrent maps as
+     * {@link #dispatch(JClass, MethodRef)} may be called in parallel.
      */
-    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable = Maps.newTwoKeyMap();
+    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable =
+            Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap);
 
     /**
      * Cache results of {@link #getAllSubclassesOf(JClass)}.
      */
     private final Map<JClass, Set<JClass>> allSubclasses = Maps.newConcurrentMap();
 
+    /**
+     * Encoding of this class hierarchy for {@link #isSubclass(JClass, JClass)},
+     * which is built lazily and invalidated when new classes are added.
+     */
+    private transient volatile HierarchyEncoding encoding;
+
+    /**
+     * Precomputed dispatch tables, which are built on demand by
+     * {@link #buildDispatchTables()} and serialized together with
+     * this class hierarchy.
+     */
+    private volatile DispatchTables dispatchTables;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -150,6 +166,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         // invalidate global hierarchy information
         // TODO - make this elegant
         allSubclasses.clear();
+        encoding = null;
     }
 
     @Override
@@ -331,6 +348,10 @@ public class ClassHierarchyImpl implements ClassHierarchy {
             return null;
         }
         Subsignature subsignature = methodRef.getSubsignature();
+        DispatchTables tables = dispatchTables;
+        if (tables != null && tables.covers(receiverClass)) {
+            return tables.dispatch(receiverClass, subsignature);
+        }
         JMethod target = dispatchTable.get(receiverClass, subsignature);
         if (target == null) {
             target = lookupMethod(receiverClass, subsignature, false);
@@ -344,6 +365,21 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return target;
     }
 
+    @Override
+    public synchronized void buildDispatchTables() {
+        if (dispatchTables == null) {
+            Timer timer = new Timer("Build dispatch tables");
+            timer.start();
+            DispatchTables tables = new DispatchTables(this);
+            timer.stop();
+            logger.info("{} subsignatures, {} entries in dispatch tables",
+                    tables.getNumberOfSubsignatures(),
+                    tables.getNumberOfEntries());
+            logger.info(timer);
+            dispatchTables = tables;
+        }
+    }
+
     private JMethod lookupMethod(JClass jclass, Subsignature subsignature,
                                  boolean allowAbstract) {
         // JVM Spec. (11 Ed.), 5.4.3.3 Method Resolution
@@ -399,8 +435,21 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         } else if (superclass == getObjectClass()) {
             return true;
         } else {
-            return getAllSubclassesOf(superclass).contains(subclass);
+            return getEncoding().isSubclass(superclass, subclass);
+        }
+    }
+
+    private HierarchyEncoding getEncoding() {
+        HierarchyEncoding result = encoding;
+        if (result == null) {
+            synchronized (this) {
+                result = encoding;
+                if (result == null) {
+                    result = encoding = new HierarchyEncoding(this);
+                }
+            }
         }
+        return result;
     }
 
     /**
@@ -420,47 +469,6 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return JavaLangObject;
     }
 
-    /**
-     * Traverses class hierarchy to check if subiface is
-     * a subinterface of superiface.
-     */
-    private boolean isSubinterface(JClass superiface, JClass subiface) {
-        if (subiface.equals(superiface)) {
-            return true;
-        }
-        for (JClass iface : subiface.getInterfaces()) {
-            if (isSubinterface(superiface, iface)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Traverses class hierarchy to check if subclass is a subclass of superclass.
-     * TODO: optimize performance
-     */
-    private boolean isSubclass0(JClass superclass, JClass subclass) {
-        boolean isToInterface = superclass.isInterface();
-        for (JClass jclass = subclass; jclass != null;
-             jclass = jclass.getSuperClass()) {
-            if (jclass.equals(superclass)) {
-                return true;
-            }
-            if (isToInterface) {
-                // Interfaces can only extend other interfaces, thus we only
-                // have to consider the interfaces of the subclass
-                // if superclass is an interface.
-                for (JClass iface : jclass.getInterfaces()) {
-                    if (isSubclass0(superclass, iface)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
     @Override
     public Collection<JClass> getAllSubclassesOf(JClass jclass) {
         return allSubclasses.computeIfAbsent(jclass, c -> {
@@ -0,0 +1,160 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed dispatch tables of all classes in a class hierarchy.
+ * <p>
+ * Each subsignature of non-abstract methods is given a global ID,
+ * and each class has a table of the IDs of all subsignatures that can be
+ * dispatched on the class, together with the corresponding target methods.
+ * The IDs in each table are sorted, thus dispatching is a lookup of the
+ * subsignature ID and a binary search in the (small) table of the
+ * receiver class, instead of walking the class hierarchy.
+ * <p>
+ * The tables are immutable and cover the classes in the hierarchy when
+ * they are built. Adding new classes to the hierarchy does not change
+ * the dispatch results of existing classes, and the dispatching on
+ * new classes should fall back to walking the class hierarchy.
+ */
+class DispatchTables implements Serializable {
+
+    /**
+     * Map from subsignatures to their global IDs.
+     */
+    private final Map<Subsignature, Integer> subsigIds;
+
+    /**
+     * Sorted subsignature IDs of the table of each class,
+     * indexed by class indexes.
+     */
+    private final int[][] ids;
+
+    /**
+     * Target methods of the table of each class, indexed by class
+     * indexes, and targets[i][j] is the target of ids[i][j].
+     */
+    private final JMethod[][] targets;
+
+    DispatchTables(ClassHierarchy hierarchy) {
+        List<JClass> classes = hierarchy.allClasses().toList();
+        subsigIds = Maps.newMap();
+        for (JClass c : classes) {
+            for (JMethod m : c.getDeclaredMethods()) {
+                if (!m.isAbstract()) {
+                    subsigIds.putIfAbsent(m.getSubsignature(), subsigIds.size());
+                }
+            }
+        }
+        ids = new int[classes.size()][];
+        targets = new JMethod[classes.size()][];
+        classes.parallelStream().forEach(this::buildTable);
+    }
+
+    /**
+     * Builds the table of given class. The methods are collected in
+     * the same order as {@link ClassHierarchyImpl#dispatch(JClass, MethodRef)}
+     * looks up the methods, i.e., superclasses first, and then
+     * superinterfaces, and the first found method of each subsignature
+     * is the target.
+     */
+    private void buildTable(JClass jclass) {
+        Map<Integer, JMethod> table = Maps.newMap();
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            addMethods(c, table);
+        }
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            for (JClass iface : c.getInterfaces()) {
+                addInterfaceMethods(iface, table);
+            }
+        }
+        int[] classIds = table.keySet()
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+        JMethod[] classTargets = new JMethod[classIds.length];
+        for (int i = 0; i < classIds.length; ++i) {
+            classTargets[i] = table.get(classIds[i]);
+        }
+        ids[jclass.getIndex()] = classIds;
+        targets[jclass.getIndex()] = classTargets;
+    }
+
+    private void addMethods(JClass jclass, Map<Integer, JMethod> table) {
+        for (JMethod m : jclass.getDeclaredMethods()) {
+            if (!m.isAbstract()) {
+                table.putIfAbsent(subsigIds.get(m.getSubsignature()), m);
+            }
+        }
+    }
+
+    private void addInterfaceMethods(JClass iface, Map<Integer, JMethod> table) {
+        addMethods(iface, table);
+        for (JClass superiface : iface.getInterfaces()) {
+            addInterfaceMethods(superiface, table);
+        }
+    }
+
+    /**
+     * @return {@code true} if these tables contain the table of given class.
+     */
+    boolean covers(JClass jclass) {
+        int index = jclass.getIndex();
+        return index < ids.length && ids[index] != null;
+    }
+
+    /**
+     * @return the target method of dispatching given subsignature on
+     * given class, or {@code null} if no such method.
+     */
+    @Nullable
+    JMethod dispatch(JClass jclass, Subsignature subsignature) {
+        Integer id = subsigIds.get(subsignature);
+        if (id == null) {
+            return null;
+        }
+        int index = jclass.getIndex();
+        int i = Arrays.binarySearch(ids[index], id);
+        return i >= 0 ? targets[index][i] : null;
+    }
+
+    /**
+     * @return the total number of entries in all tables.
+     */
+    long getNumberOfEntries() {
+        return Arrays.stream(ids).mapToLong(t -> t.length).sum();
+    }
+
+    int getNumberOfSubsignatures() {
+        return subsigIds.size();
+    }
+}
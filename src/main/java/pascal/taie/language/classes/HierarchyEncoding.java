@@ -0,0 +1,165 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.Canonicalizer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Encoding of class hierarchy for constant-time subclass checking.
+ * <ul>
+ *     <li>Classes (excluding interfaces) form a forest by their superclasses.
+ *     Each class is numbered by the pre-order and post-order of
+ *     a depth-first traversal of the forest, so that class c is a subclass
+ *     of class d iff the [pre, post] interval of c is contained in
+ *     the interval of d.</li>
+ *     <li>Each interface is given a dense interface number, and each class
+ *     (or interface) is associated with a bit set of the numbers of all
+ *     its direct and indirect superinterfaces. The bit sets are
+ *     canonicalized, so that the classes with the same superinterfaces
+ *     (which are common, e.g., subclasses that do not implement any
+ *     new interfaces) share the same bit set.</li>
+ * </ul>
+ * The encoding is a snapshot of the class hierarchy, and it should be
+ * rebuilt after new classes are added to the hierarchy.
+ */
+class HierarchyEncoding {
+
+    private static final int UNNUMBERED = -1;
+
+    /**
+     * Pre-order numbers of classes, indexed by class indexes.
+     */
+    private final int[] pre;
+
+    /**
+     * Post-order numbers of classes, indexed by class indexes.
+     */
+    private final int[] post;
+
+    /**
+     * Interface numbers of interfaces, indexed by class indexes.
+     */
+    private final int[] ifaceNumbers;
+
+    /**
+     * Superinterfaces of classes, indexed by class indexes.
+     */
+    private final BitSet[] superIfaces;
+
+    private int counter;
+
+    HierarchyEncoding(ClassHierarchy hierarchy) {
+        List<JClass> classes = hierarchy.allClasses().toList();
+        int n = classes.size();
+        pre = new int[n];
+        post = new int[n];
+        ifaceNumbers = new int[n];
+        superIfaces = new BitSet[n];
+        // number classes
+        Arrays.fill(pre, UNNUMBERED);
+        for (JClass c : classes) {
+            if (!c.isInterface() && pre[c.getIndex()] == UNNUMBERED) {
+                JClass root = c;
+                while (isTreeNode(root.getSuperClass(), classes)) {
+                    root = root.getSuperClass();
+                }
+                if (pre[root.getIndex()] == UNNUMBERED) {
+                    numberTree(root, hierarchy);
+                }
+            }
+        }
+        // number interfaces
+        int ifaceCounter = 0;
+        for (JClass c : classes) {
+            ifaceNumbers[c.getIndex()] = c.isInterface() ?
+                    ifaceCounter++ : UNNUMBERED;
+        }
+        Canonicalizer<BitSet> canonicalizer = new Canonicalizer<>();
+        for (JClass c : classes) {
+            computeSuperInterfaces(c, canonicalizer);
+        }
+    }
+
+    /**
+     * @return {@code true} if given class is a node of the class forest.
+     */
+    private static boolean isTreeNode(JClass c, List<JClass> classes) {
+        return c != null && !c.isInterface()
+                && c.getIndex() < classes.size()
+                && classes.get(c.getIndex()) == c;
+    }
+
+    private void numberTree(JClass jclass, ClassHierarchy hierarchy) {
+        int i = jclass.getIndex();
+        pre[i] = counter++;
+        for (JClass subclass : hierarchy.getDirectSubclassesOf(jclass)) {
+            if (pre[subclass.getIndex()] == UNNUMBERED) {
+                numberTree(subclass, hierarchy);
+            }
+        }
+        post[i] = counter++;
+    }
+
+    private BitSet computeSuperInterfaces(
+            JClass jclass, Canonicalizer<BitSet> canonicalizer) {
+        int i = jclass.getIndex();
+        if (superIfaces[i] == null) {
+            BitSet result = new BitSet();
+            JClass superclass = jclass.getSuperClass();
+            if (!jclass.isInterface() && superclass != null
+                    && !superclass.isInterface()) {
+                result.or(computeSuperInterfaces(superclass, canonicalizer));
+            }
+            for (JClass iface : jclass.getInterfaces()) {
+                // the classes which are not interfaces are ignored
+                // in the same way as ClassHierarchy.getAllSubclassesOf()
+                if (iface != null && iface.isInterface()) {
+                    result.set(ifaceNumbers[iface.getIndex()]);
+                    result.or(computeSuperInterfaces(iface, canonicalizer));
+                }
+            }
+            superIfaces[i] = canonicalizer.get(result);
+        }
+        return superIfaces[i];
+    }
+
+    /**
+     * @return {@code true} if given subclass is a (direct or indirect)
+     * subclass of given superclass. Note that this method does not
+     * handle the special cases of identical classes and java.lang.Object.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass) {
+        int sup = superclass.getIndex();
+        int sub = subclass.getIndex();
+        if (superclass.isInterface()) {
+            return superIfaces[sub].get(ifaceNumbers[sup]);
+        } else {
+            return pre[sub] != UNNUMBERED
+                    && pre[sup] <= pre[sub] && post[sub] <= post[sup];
+        }
+    }
+}
@@ -24,13 +24,16 @@ package pascal.taie.language.classes;
 
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -41,6 +44,18 @@ public class SignatureMatcher {
 
     private final ClassHierarchy hierarchy;
 
+    /**
+     * Index of all classes sorted by their names, which is used to
+     * find the classes whose names start with given prefix. Lazily built.
+     */
+    private NavigableMap<String, JClass> classIndex;
+
+    /**
+     * Cache of matched classes, as patterns of many signatures
+     * (e.g., taint rules) often share the same class pattern.
+     */
+    private final Map<Pattern.ClassPattern, Set<JClass>> classCache = Maps.newMap();
+
     public SignatureMatcher(ClassHierarchy hierarchy) {
         this.hierarchy = hierarchy;
     }
@@ -53,6 +68,13 @@ public class SignatureMatcher {
     }
 
     private Set<JClass> getClasses(Pattern.ClassPattern classPattern) {
+        Set<JClass> result = Sets.newLinkedSet();
+        result.addAll(classCache.computeIfAbsent(
+                classPattern, this::computeClasses));
+        return result;
+    }
+
+    private Set<JClass> computeClasses(Pattern.ClassPattern classPattern) {
         Set<JClass> result = Sets.newLinkedSet();
         Pattern.NamePattern name = classPattern.name();
         if (!name.hasWildcard()) {
@@ -61,10 +83,11 @@ public class SignatureMatcher {
                 result.add(klass);
             }
         } else {
-            // Iterate the whole class hierarchy to find matched classes.
-            // This operation MAY cause performance issues.
+            // Only iterate the classes whose names start with the
+            // literal prefix of the pattern to find matched classes.
             Predicate<String> nameMatcher = new NameMatcher(name);
-            hierarchy.allClasses()
+            getClassesWithPrefix(getPrefix(name))
+                    .stream()
                     .filter(c -> nameMatcher.test(c.getName()))
                     .forEach(result::add);
         }
@@ -75,6 +98,25 @@ public class SignatureMatcher {
         return result;
     }
 
+    /**
+     * @return the literal prefix of given name pattern, i.e.,
+     * the content before the first wildcard.
+     */
+    private static String getPrefix(Pattern.NamePattern name) {
+        return name.units().get(0) instanceof Pattern.StringUnit unit
+                ? unit.content() : "";
+    }
+
+    private Collection<JClass> getClassesWithPrefix(String prefix) {
+        if (classIndex == null) {
+            classIndex = new TreeMap<>();
+            hierarchy.allClasses().forEach(c -> classIndex.put(c.getName(), c));
+        }
+        return prefix.isEmpty() ? classIndex.values()
+                : classIndex.subMap(prefix, true,
+                prefix + Character.MAX_VALUE, false).values();
+    }
+
     /**
      * @return the methods that match given pattern.
      */
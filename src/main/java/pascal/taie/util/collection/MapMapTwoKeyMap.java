@@ -34,6 +34,7 @@ import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Implements {@link TwoKeyMap} as map of maps.
@@ -51,7 +52,11 @@ public class MapMapTwoKeyMap<K1, K2, V> extends
      */
     private final SSupplier<Map<K2, V>> mapFactory;
 
-    private int size = 0;
+    /**
+     * Number of mappings. It is atomic as this map may be backed by
+     * concurrent maps and updated in parallel.
+     */
+    private final AtomicInteger size = new AtomicInteger();
 
     public MapMapTwoKeyMap(Map<K1, Map<K2, V>> map, SSupplier<Map<K2, V>> mapFactory) {
         this.map = map;
@@ -73,7 +78,7 @@ public class MapMapTwoKeyMap<K1, K2, V> extends
         Objects.requireNonNull(value, NULL_VALUE);
         V oldV = getOrCreateMap(key1).put(key2, value);
         if (oldV == null) {
-            ++size;
+            size.incrementAndGet();
         }
         return oldV;
     }
@@ -103,7 +108,7 @@ public class MapMapTwoKeyMap<K1, K2, V> extends
         if (mappings != null) {
             oldV = mappings.remove(key2);
             if (oldV != null) {
-                --size;
+                size.decrementAndGet();
             }
             if (mappings.isEmpty()) {
                 map.remove(key1);
@@ -116,7 +121,7 @@ public class MapMapTwoKeyMap<K1, K2, V> extends
     public boolean removeAll(K1 key1) {
         Map<K2, V> oldMappings = map.remove(key1);
         if (oldMappings != null) {
-            size -= oldMappings.size();
+            size.addAndGet(-oldMappings.size());
             return true;
         }
         return false;
@@ -184,11 +189,11 @@ public class MapMapTwoKeyMap<K1, K2, V> extends
     @Override
     public void clear() {
         map.clear();
-        size = 0;
+        size.set(0);
     }
 
     @Override
     public int size() {
-        return size;
+        return size.get();
     }
 }
@@ -37,6 +37,8 @@ import java.util.Set;
 
 /**
  * Finds dominators for the nodes in given {@link Graph}.
+ * This finder stores the dominators of each node in a set, and
+ * for large graphs, {@link DominatorTree} is much faster.
  */
 public class DominatorFinder<N> {
 
@@ -0,0 +1,238 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexerBitSet;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An immutable array-based implementation of {@link Graph}, whose nodes
+ * are indexed by an {@link Indexer}. The predecessors and successors of
+ * all nodes are stored in compressed sparse row (CSR) form, i.e., each
+ * adjacency relation is stored in two int arrays, so this graph is much
+ * more compact than {@link SimpleGraph}, and degrees are retrieved in O(1).
+ * <p>
+ * This implementation is suitable for the graphs whose nodes are densely
+ * indexed, as the size of the offset arrays is proportional to
+ * the maximum index of the nodes.
+ *
+ * @param <N> type of nodes
+ */
+public class IndexedGraph<N> implements Graph<N> {
+
+    private final Indexer<N> indexer;
+
+    private final Set<N> nodes;
+
+    /**
+     * Successors of node i are succs[succStarts[i]..succStarts[i + 1]),
+     * sorted by their indexes.
+     */
+    private final int[] succStarts;
+
+    private final int[] succs;
+
+    /**
+     * Predecessors of node i are preds[predStarts[i]..predStarts[i + 1]),
+     * sorted by their indexes.
+     */
+    private final int[] predStarts;
+
+    private final int[] preds;
+
+    /**
+     * Constructs a new graph containing the same node and edge sets
+     * as the specified graph.
+     *
+     * @param graph   the graph to be copied
+     * @param indexer the indexer of the nodes of {@code graph}
+     */
+    public IndexedGraph(Graph<N> graph, Indexer<N> indexer) {
+        this.indexer = indexer;
+        IndexerBitSet<N> nodeSet = new IndexerBitSet<>(indexer, false);
+        int maxIndex = -1;
+        for (N node : graph) {
+            nodeSet.add(node);
+            maxIndex = Math.max(maxIndex, indexer.getIndex(node));
+        }
+        this.nodes = Collections.unmodifiableSet(nodeSet);
+        int size = maxIndex + 1;
+        // build successors
+        succStarts = new int[size + 1];
+        for (N node : graph) {
+            succStarts[indexer.getIndex(node) + 1] = graph.getSuccsOf(node).size();
+        }
+        prefixSum(succStarts);
+        succs = new int[succStarts[size]];
+        int[] predCounts = new int[size + 1];
+        for (N node : graph) {
+            int i = indexer.getIndex(node);
+            int pos = succStarts[i];
+            for (N succ : graph.getSuccsOf(node)) {
+                int j = indexer.getIndex(succ);
+                succs[pos++] = j;
+                ++predCounts[j + 1];
+            }
+            Arrays.sort(succs, succStarts[i], pos);
+        }
+        // build predecessors by transposing successors, and as
+        // the sources are visited in ascending order, preds are sorted
+        predStarts = predCounts;
+        prefixSum(predStarts);
+        preds = new int[succs.length];
+        int[] next = Arrays.copyOf(predStarts, size);
+        for (int i = 0; i < size; ++i) {
+            for (int k = succStarts[i]; k < succStarts[i + 1]; ++k) {
+                preds[next[succs[k]]++] = i;
+            }
+        }
+    }
+
+    private static void prefixSum(int[] array) {
+        for (int i = 1; i < array.length; ++i) {
+            array[i] += array[i - 1];
+        }
+    }
+
+    @Override
+    public boolean hasNode(N node) {
+        return nodes.contains(node);
+    }
+
+    @Override
+    public boolean hasEdge(N source, N target) {
+        if (hasNode(source) && hasNode(target)) {
+            int i = indexer.getIndex(source);
+            return Arrays.binarySearch(succs, succStarts[i], succStarts[i + 1],
+                    indexer.getIndex(target)) >= 0;
+        }
+        return false;
+    }
+
+    @Override
+    public Set<N> getPredsOf(N node) {
+        return hasNode(node)
+                ? new AdjacentSet(preds, predStarts, indexer.getIndex(node))
+                : Set.of();
+    }
+
+    @Override
+    public Set<N> getSuccsOf(N node) {
+        return hasNode(node)
+                ? new AdjacentSet(succs, succStarts, indexer.getIndex(node))
+                : Set.of();
+    }
+
+    @Override
+    public int getInDegreeOf(N node) {
+        if (hasNode(node)) {
+            int i = indexer.getIndex(node);
+            return predStarts[i + 1] - predStarts[i];
+        }
+        return 0;
+    }
+
+    @Override
+    public int getOutDegreeOf(N node) {
+        if (hasNode(node)) {
+            int i = indexer.getIndex(node);
+            return succStarts[i + 1] - succStarts[i];
+        }
+        return 0;
+    }
+
+    /**
+     * @return the number of edges in this graph.
+     */
+    public int getNumberOfEdges() {
+        return succs.length;
+    }
+
+    @Override
+    public Set<N> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Unmodifiable view of the adjacent nodes of a node.
+     */
+    private class AdjacentSet extends AbstractSet<N> {
+
+        private final int[] adjacent;
+
+        private final int start;
+
+        private final int end;
+
+        private AdjacentSet(int[] adjacent, int[] starts, int i) {
+            this.adjacent = adjacent;
+            this.start = starts[i];
+            this.end = starts[i + 1];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            if (!nodes.contains(o)) {
+                return false;
+            }
+            int index = indexer.getIndex((N) o);
+            return Arrays.binarySearch(adjacent, start, end, index) >= 0;
+        }
+
+        @Override
+        @Nonnull
+        public Iterator<N> iterator() {
+            return new Iterator<>() {
+
+                private int cursor = start;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < end;
+                }
+
+                @Override
+                public N next() {
+                    if (cursor >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    return indexer.getObject(adjacent[cursor++]);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+}
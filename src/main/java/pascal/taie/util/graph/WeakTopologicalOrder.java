@@ -0,0 +1,259 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Computes weak topological order (WTO) of a directed graph, as proposed in
+ * Bourdoncle, "Efficient chaotic iteration strategies with widenings", 1993.
+ * <p>
+ * A WTO is a hierarchical ordering of the nodes: every strongly-connected
+ * part of the graph is represented as a {@link Component}, whose first node
+ * (the <i>head</i>) cuts all cycles in the component. The remaining nodes
+ * of the component are recursively ordered in the same way, thus the heads
+ * of all components constitute a set of widening points of the graph.
+ * <p>
+ * The decomposition is computed by repeatedly finding strongly-connected
+ * components with an iterative (non-recursive) algorithm, so that it does
+ * not overflow the stack on large graphs. The recursion depth of the
+ * decomposition is bounded by the nesting depth of the components.
+ *
+ * @param <N> type of nodes
+ */
+public class WeakTopologicalOrder<N> {
+
+    /**
+     * Element of a weak topological order, which is either a single
+     * {@link Vertex} or a {@link Component}.
+     */
+    public sealed interface Element<N> permits Vertex, Component {
+    }
+
+    /**
+     * A node that does not belong to any cycle at current level.
+     */
+    public record Vertex<N>(N node) implements Element<N> {
+    }
+
+    /**
+     * A strongly-connected component, represented by its head and
+     * the weak topological order of the rest nodes in the component.
+     */
+    public record Component<N>(N head, List<Element<N>> elements)
+            implements Element<N> {
+    }
+
+    private final Graph<N> graph;
+
+    private final List<Element<N>> elements;
+
+    private final Set<N> heads = Sets.newHybridSet();
+
+    /**
+     * Computes the weak topological order of given graph. The order is
+     * computed from the given entry node first, then from the rest nodes
+     * of the graph (if any) which are unreachable from the entry.
+     */
+    public WeakTopologicalOrder(Graph<N> graph, N entry) {
+        this.graph = graph;
+        List<N> roots = new ArrayList<>(graph.getNumberOfNodes());
+        roots.add(entry);
+        graph.forEach(node -> {
+            if (!node.equals(entry)) {
+                roots.add(node);
+            }
+        });
+        this.elements = Collections.unmodifiableList(
+                decompose(roots, graph.getNodes()));
+    }
+
+    /**
+     * @return the top-level elements of this weak topological order.
+     */
+    public List<Element<N>> getElements() {
+        return elements;
+    }
+
+    /**
+     * @return heads of all (nested) components. These nodes are
+     * the widening points for chaotic iterations following this order.
+     */
+    public Set<N> getHeads() {
+        return Collections.unmodifiableSet(heads);
+    }
+
+    /**
+     * @return {@code true} if given node is the head of a component.
+     */
+    public boolean isHead(N node) {
+        return heads.contains(node);
+    }
+
+    /**
+     * @return all nodes in this order, flattened.
+     */
+    public List<N> getNodes() {
+        List<N> nodes = new ArrayList<>(graph.getNumberOfNodes());
+        forEachNode(elements, nodes::add);
+        return nodes;
+    }
+
+    private static <N> void forEachNode(List<Element<N>> elements,
+                                        Consumer<N> action) {
+        for (Element<N> element : elements) {
+            if (element instanceof Vertex<N> v) {
+                action.accept(v.node());
+            } else if (element instanceof Component<N> c) {
+                action.accept(c.head());
+                forEachNode(c.elements(), action);
+            }
+        }
+    }
+
+    /**
+     * Decomposes the subgraph induced by {@code members}.
+     *
+     * @param roots   nodes to start depth-first search, in preferred order
+     * @param members nodes of the subgraph
+     * @return the weak topological order of the subgraph
+     */
+    private List<Element<N>> decompose(List<N> roots, Collection<N> members) {
+        List<List<N>> sccs = computeSCCs(roots, members);
+        // SCCs are found in reverse topological order
+        Collections.reverse(sccs);
+        List<Element<N>> result = new ArrayList<>(sccs.size());
+        for (List<N> scc : sccs) {
+            // the first node of each SCC is its DFS root
+            N head = scc.get(0);
+            if (scc.size() == 1 && !graph.hasEdge(head, head)) {
+                result.add(new Vertex<>(head));
+            } else {
+                heads.add(head);
+                Set<N> body = Sets.newHybridSet(scc);
+                body.remove(head);
+                // prefer to start from the nodes entered from the head
+                List<N> bodyRoots = new ArrayList<>(body.size());
+                for (N succ : graph.getSuccsOf(head)) {
+                    if (body.contains(succ)) {
+                        bodyRoots.add(succ);
+                    }
+                }
+                bodyRoots.addAll(scc.subList(1, scc.size()));
+                result.add(new Component<>(head,
+                        Collections.unmodifiableList(decompose(bodyRoots, body))));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes strongly-connected components of the subgraph induced by
+     * {@code members} by iterative Tarjan's algorithm.
+     *
+     * @return the SCCs in reverse topological order, and the first node
+     * of each SCC is the node from which the SCC is first entered.
+     */
+    private List<List<N>> computeSCCs(List<N> roots, Collection<N> members) {
+        Set<N> memberSet = members instanceof Set<N> s ? s : Sets.newHybridSet(members);
+        Map<N, Integer> indexes = Maps.newMap(memberSet.size());
+        Map<N, Integer> lows = Maps.newMap(memberSet.size());
+        Deque<N> stack = new ArrayDeque<>();
+        Set<N> inStack = Sets.newSet(memberSet.size());
+        List<List<N>> sccs = new ArrayList<>();
+        int index = 0;
+        for (N root : roots) {
+            if (indexes.containsKey(root)) {
+                continue;
+            }
+            Deque<N> workStack = new ArrayDeque<>();
+            Deque<Iterator<N>> succIters = new ArrayDeque<>();
+            indexes.put(root, index);
+            lows.put(root, index);
+            ++index;
+            stack.push(root);
+            inStack.add(root);
+            workStack.push(root);
+            succIters.push(graph.getSuccsOf(root).iterator());
+            while (!workStack.isEmpty()) {
+                N node = workStack.peek();
+                Iterator<N> succIter = succIters.peek();
+                boolean descended = false;
+                while (succIter.hasNext()) {
+                    N succ = succIter.next();
+                    if (!memberSet.contains(succ)) {
+                        continue;
+                    }
+                    if (!indexes.containsKey(succ)) {
+                        indexes.put(succ, index);
+                        lows.put(succ, index);
+                        ++index;
+                        stack.push(succ);
+                        inStack.add(succ);
+                        workStack.push(succ);
+                        succIters.push(graph.getSuccsOf(succ).iterator());
+                        descended = true;
+                        break;
+                    } else if (inStack.contains(succ)) {
+                        lows.put(node, Math.min(lows.get(node), indexes.get(succ)));
+                    }
+                }
+                if (descended) {
+                    continue;
+                }
+                workStack.pop();
+                succIters.pop();
+                int low = lows.get(node);
+                if (!workStack.isEmpty()) {
+                    N parent = workStack.peek();
+                    lows.put(parent, Math.min(lows.get(parent), low));
+                }
+                if (low == indexes.get(node)) {
+                    List<N> scc = new ArrayList<>();
+                    N n;
+                    do {
+                        n = stack.pop();
+                        inStack.remove(n);
+                        scc.add(n);
+                    } while (n != node);
+                    // make the DFS root the first node of the SCC
+                    Collections.reverse(scc);
+                    sccs.add(scc);
+                }
+            }
+        }
+        return sccs;
+    }
+}
@@ -29,6 +29,8 @@ import pascal.taie.analysis.dataflow.analysis.LiveVarTestFull;
 import pascal.taie.analysis.dataflow.analysis.ReachDefTest;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPTestSuite;
 import pascal.taie.analysis.dataflow.fact.FactTest;
+import pascal.taie.analysis.dataflow.ide.IFDSTest;
+import pascal.taie.analysis.dataflow.inter.InterSolverTest;
 
 @Suite
 @SelectClasses({
@@ -37,6 +39,8 @@ import pascal.taie.analysis.dataflow.fact.FactTest;
         LiveVarTestFull.class,
         ReachDefTest.class,
         AvailExpTest.class,
+        IFDSTest.class,
+        InterSolverTest.class,
 })
 public class DataflowTestSuite {
 }
@@ -29,8 +29,12 @@ import pascal.taie.analysis.Tests;
 public class LiveVarTest {
 
     void testLV(String inputClass) {
+        testLV(inputClass, "strongly:false");
+    }
+
+    void testLV(String inputClass, String opts) {
         Tests.testInput(inputClass, "src/test/resources/dataflow/livevar",
-                LiveVariable.ID, "strongly:false");
+                LiveVariable.ID, opts);
     }
 
     @ParameterizedTest
@@ -46,4 +50,31 @@ public class LiveVarTest {
         testLV(inputClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "BranchLoop",
+            "Fibonacci",
+    })
+    void testWTOSolver(String inputClass) {
+        testLV(inputClass, "strongly:false;solver:wto");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "BranchLoop",
+            "Fibonacci",
+    })
+    void testArrayCFG(String inputClass) {
+        Tests.testInput(inputClass, "src/test/resources/dataflow/livevar",
+                LiveVariable.ID, "strongly:false", "-a", "cfg=compact:true");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "BranchLoop",
+            "Fibonacci",
+    })
+    void testBlockLevel(String inputClass) {
+        testLV(inputClass, "strongly:false;block:true");
+    }
 }
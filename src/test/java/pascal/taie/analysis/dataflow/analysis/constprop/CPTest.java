@@ -29,8 +29,12 @@ import pascal.taie.analysis.Tests;
 public class CPTest {
 
     void testCP(String inputClass) {
+        testCP(inputClass, "edge-refine:false");
+    }
+
+    void testCP(String inputClass, String opts) {
         Tests.testInput(inputClass, "src/test/resources/dataflow/constprop/",
-                ConstantPropagation.ID, "edge-refine:false");
+                ConstantPropagation.ID, opts);
     }
 
     @ParameterizedTest
@@ -47,4 +51,31 @@ public class CPTest {
         testCP(inputClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SimpleBranch",
+            "BranchConstant",
+    })
+    void testWTOSolver(String inputClass) {
+        testCP(inputClass, "edge-refine:false;solver:wto");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SimpleConstant",
+            "SimpleBranch",
+    })
+    void testCompactResult(String inputClass) {
+        testCP(inputClass, "edge-refine:false;compact-result:out");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SimpleConstant",
+            "SimpleBranch",
+            "BranchConstant",
+    })
+    void testBlockLevel(String inputClass) {
+        testCP(inputClass, "edge-refine:false;block:true");
+    }
 }
@@ -32,8 +32,13 @@ public class InterCPTest {
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
 
     void testInterCP(String mainClass) {
+        testInterCP(mainClass, "worklist");
+    }
+
+    void testInterCP(String mainClass, String solver) {
         Tests.testMain(mainClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha"
+                "edge-refine:false;alias-aware:false;solver:" + solver,
+                "-a", "cg=algorithm:cha"
                 // , "-a", "icfg=dump:true" // <-- uncomment this code if you want
                 // to output ICFGs for the test cases
         );
@@ -50,4 +55,59 @@ public class InterCPTest {
         testInterCP(mainClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+    })
+    void testParallelSolver(String mainClass) {
+        testInterCP(mainClass, "parallel");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+    })
+    void testIDESolver(String mainClass) {
+        testInterCP(mainClass, "ide");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+    })
+    void testLazyICFG(String mainClass) {
+        // use a tiny CFG cache to exercise the rebuilding of evicted CFGs
+        Tests.testMain(mainClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;solver:worklist",
+                "-a", "cg=algorithm:cha",
+                "-a", "icfg=lazy:true;cfg-cache-size:2"
+        );
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+    })
+    void testIDESolverOnLazyICFG(String mainClass) {
+        // IDE solver explores the ICFG on demand, and the tiny CFG cache
+        // forces the CFGs to be evicted and rebuilt during solving
+        Tests.testMain(mainClass, CLASS_PATH, InterConstantPropagation.ID,
+                "edge-refine:false;alias-aware:false;solver:ide",
+                "-a", "cg=algorithm:cha",
+                "-a", "icfg=lazy:true;cfg-cache-size:1"
+        );
+    }
+
 }
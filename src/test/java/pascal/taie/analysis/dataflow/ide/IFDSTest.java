@@ -0,0 +1,151 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.ide;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.ReachingDefinition;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.graph.Reachability;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IFDSTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Solves reaching definitions as an IFDS problem, and compares the
+     * results with the ones of the intra-procedural analysis.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+    })
+    void testReachingDefinition(String mainClass) {
+        Main.main("-pp", "-cp", CLASS_PATH, "-m", mainClass,
+                "-a", "cg=algorithm:cha",
+                "-a", ICFGBuilder.ID,
+                "-a", ReachingDefinition.ID);
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        MultiMap<Stmt, Stmt> result = new IFDSSolver<>(
+                new ReachingDefinitionProblem(icfg)).solve();
+        icfg.entryMethods().forEach(m ->
+                assertEquals(Set.of(), result.get(icfg.getEntryOf(m))));
+        CallGraph<Stmt, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        callGraph.reachableMethods()
+                .filter(m -> m.getDeclaringClass().isApplication())
+                .forEach(m -> {
+                    NodeResult<Stmt, SetFact<Stmt>> expected =
+                            m.getIR().getResult(ReachingDefinition.ID);
+                    CFG<Stmt> cfg = m.getIR().getResult(CFGBuilder.ID);
+                    for (Stmt stmt : new Reachability<>(cfg)
+                            .reachableNodesFrom(cfg.getEntry())) {
+                        assertEquals(expected.getInFact(stmt).stream()
+                                        .collect(Collectors.toSet()),
+                                result.get(stmt), m + ": " + stmt);
+                    }
+                });
+    }
+
+    /**
+     * Reaching definitions, where the definitions in a method
+     * do not reach its callers or callees.
+     */
+    private record ReachingDefinitionProblem(ICFG<JMethod, Stmt> icfg)
+            implements IFDSProblem<JMethod, Stmt, Stmt> {
+
+        private static final Stmt ZERO = new Nop();
+
+        @Override
+        public ICFG<JMethod, Stmt> getICFG() {
+            return icfg;
+        }
+
+        @Override
+        public Stmt zeroValue() {
+            return ZERO;
+        }
+
+        @Override
+        public FlowFunction<Stmt> getNormalFlowFunction(NormalEdge<Stmt> edge) {
+            return genKill(edge.source());
+        }
+
+        @Override
+        public FlowFunction<Stmt> getCallToReturnFlowFunction(CallToReturnEdge<Stmt> edge) {
+            return genKill(edge.source());
+        }
+
+        @Override
+        public FlowFunction<Stmt> getCallFlowFunction(CallEdge<Stmt> edge) {
+            return d -> d == ZERO ? Set.of(ZERO) : Set.of();
+        }
+
+        @Override
+        public FlowFunction<Stmt> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+            return d -> d == ZERO ? Set.of(ZERO) : Set.of();
+        }
+
+        private static FlowFunction<Stmt> genKill(Stmt stmt) {
+            Var def = getDefVar(stmt);
+            if (def == null) {
+                return FlowFunction.identity();
+            }
+            return d -> {
+                if (d == ZERO) {
+                    return Set.of(ZERO, stmt);
+                }
+                return def.equals(getDefVar(d)) ? Set.of() : Set.of(d);
+            };
+        }
+
+        private static Var getDefVar(Stmt stmt) {
+            return stmt.getDef().orElse(null) instanceof Var var ? var : null;
+        }
+    }
+}
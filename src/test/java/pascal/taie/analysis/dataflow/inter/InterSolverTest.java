@@ -0,0 +1,135 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class InterSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    /**
+     * Solves constant propagation with an analysis that never reports
+     * changes by its transfer functions, but notifies the solver via
+     * {@link InterSolver#propagate(Object)} instead, and checks that
+     * the solvers reach the same results as the normal analysis.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Example",
+            "Reference",
+            "Fibonacci",
+            "MultiIntArgs",
+    })
+    void testPropagate(String mainClass) {
+        Main.main("-pp", "-cp", CLASS_PATH, "-m", mainClass,
+                "-a", "cg=algorithm:cha",
+                "-a", ICFGBuilder.ID);
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        InterConstantPropagation cp = new InterConstantPropagation(
+                AnalysisConfig.of(InterConstantPropagation.ID,
+                        "edge-refine", false, "alias-aware", false,
+                        "solver", "worklist"));
+        DataflowResult<Stmt, CPFact> expected = cp.analyze();
+        SilentAnalysis analysis = new SilentAnalysis(cp);
+        analysis.solver = new InterSolver<>(analysis, icfg);
+        checkResult(icfg, expected, analysis.solver);
+        analysis.solver = new ParallelInterSolver<>(analysis, icfg);
+        checkResult(icfg, expected, analysis.solver);
+    }
+
+    private static void checkResult(ICFG<JMethod, Stmt> icfg,
+                                    DataflowResult<Stmt, CPFact> expected,
+                                    InterSolver<JMethod, Stmt, CPFact> solver) {
+        DataflowResult<Stmt, CPFact> result = solver.solve();
+        icfg.forEach(node -> {
+            assertEquals(expected.getInFact(node), result.getInFact(node));
+            assertEquals(expected.getOutFact(node), result.getOutFact(node));
+            assertSame(result.getOutFact(node), solver.getOutFact(node));
+        });
+    }
+
+    /**
+     * Analysis which delegates to another analysis, but always tells
+     * the solver that node transfers do not change the out facts,
+     * and propagates the changed out facts by {@link InterSolver#propagate}.
+     */
+    private static class SilentAnalysis implements InterDataflowAnalysis<Stmt, CPFact> {
+
+        private final InterDataflowAnalysis<Stmt, CPFact> delegate;
+
+        private InterSolver<JMethod, Stmt, CPFact> solver;
+
+        private SilentAnalysis(InterDataflowAnalysis<Stmt, CPFact> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean isForward() {
+            return delegate.isForward();
+        }
+
+        @Override
+        public CPFact newBoundaryFact(Stmt boundary) {
+            return delegate.newBoundaryFact(boundary);
+        }
+
+        @Override
+        public CPFact newInitialFact() {
+            return delegate.newInitialFact();
+        }
+
+        @Override
+        public void meetInto(CPFact fact, CPFact target) {
+            delegate.meetInto(fact, target);
+        }
+
+        @Override
+        public boolean transferNode(Stmt node, CPFact in, CPFact out) {
+            assertSame(out, solver.getOutFact(node));
+            if (delegate.transferNode(node, in, out)) {
+                solver.propagate(node);
+            }
+            return false;
+        }
+
+        @Override
+        public CPFact transferEdge(ICFGEdge<Stmt> edge, CPFact out) {
+            return delegate.transferEdge(edge, out);
+        }
+    }
+}
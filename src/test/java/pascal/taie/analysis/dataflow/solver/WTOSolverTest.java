@@ -0,0 +1,225 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.WideningAnalysis;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exps;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WTOSolverTest {
+
+    /**
+     * Counter {@code i} of the loop in {@code Loop.whileConstant()}
+     * increases forever in interval domain, so the analysis terminates
+     * only if the solver widens at the loop head.
+     */
+    @Test
+    void testWidening() {
+        Main.main("-pp", "-cp", "src/test/resources/dataflow/constprop",
+                "--input-classes", "Loop", "-a", CFGBuilder.ID);
+        IR ir = World.get().getClassHierarchy()
+                .getClass("Loop")
+                .getDeclaredMethod("whileConstant")
+                .getIR();
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        IntervalAnalysis analysis = new IntervalAnalysis(cfg);
+        Solver<Stmt, MapFact<Var, Interval>> solver = new WTOSolver<>();
+        DataflowResult<Stmt, MapFact<Var, Interval>> result = solver.solve(analysis);
+        assertTrue(analysis.widenings > 0);
+        Var i = ir.getVars()
+                .stream()
+                .filter(v -> v.getName().equals("i"))
+                .findFirst()
+                .orElseThrow();
+        Stmt loopCond = ir.stmts()
+                .filter(s -> s instanceof If)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(new Interval(0, Interval.INF),
+                result.getInFact(loopCond).get(i));
+        assertEquals(new Interval(0, Interval.INF),
+                result.getInFact(cfg.getExit()).get(i));
+    }
+
+    /**
+     * Integer interval, where {@link #INF} and {@code -INF}
+     * represent the infinities.
+     */
+    record Interval(long low, long high) {
+
+        static final long INF = Long.MAX_VALUE;
+
+        static final Interval TOP = new Interval(-INF, INF);
+
+        Interval join(Interval other) {
+            return new Interval(Math.min(low, other.low),
+                    Math.max(high, other.high));
+        }
+
+        Interval widen(Interval next) {
+            return new Interval(next.low < low ? -INF : low,
+                    next.high > high ? INF : high);
+        }
+
+        Interval add(Interval other) {
+            return new Interval(add(low, other.low), add(high, other.high));
+        }
+
+        Interval negate() {
+            return new Interval(-high, -low);
+        }
+
+        private static long add(long x, long y) {
+            if (x == INF || y == INF) {
+                return INF;
+            } else if (x == -INF || y == -INF) {
+                return -INF;
+            } else {
+                return Math.max(-INF, Math.min(INF, x + y));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "[" + (low == -INF ? "-inf" : low) + ", "
+                    + (high == INF ? "+inf" : high) + "]";
+        }
+    }
+
+    /**
+     * Forward interval analysis for int variables, which supports
+     * only literals, copies, additions and subtractions.
+     * Absent variables are bottom.
+     */
+    private static class IntervalAnalysis extends
+            AbstractDataflowAnalysis<Stmt, MapFact<Var, Interval>>
+            implements WideningAnalysis<Stmt, MapFact<Var, Interval>> {
+
+        private int widenings = 0;
+
+        private IntervalAnalysis(CFG<Stmt> cfg) {
+            super(cfg);
+        }
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public MapFact<Var, Interval> newBoundaryFact() {
+            MapFact<Var, Interval> fact = newInitialFact();
+            cfg.getIR().getParams()
+                    .stream()
+                    .filter(Exps::holdsInt)
+                    .forEach(p -> fact.update(p, Interval.TOP));
+            return fact;
+        }
+
+        @Override
+        public MapFact<Var, Interval> newInitialFact() {
+            return new MapFact<>(Maps.newHybridMap());
+        }
+
+        @Override
+        public void meetInto(MapFact<Var, Interval> fact,
+                             MapFact<Var, Interval> target) {
+            fact.forEach((var, interval) -> {
+                Interval old = target.get(var);
+                target.update(var, old == null ? interval : old.join(interval));
+            });
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, MapFact<Var, Interval> in,
+                                    MapFact<Var, Interval> out) {
+            MapFact<Var, Interval> newOut = in.copy();
+            if (stmt.getDef().orElse(null) instanceof Var def
+                    && Exps.holdsInt(def)) {
+                Interval value = evaluate(stmt, in);
+                if (value == null) {
+                    newOut.remove(def);
+                } else {
+                    newOut.update(def, value);
+                }
+            }
+            return out.copyFrom(newOut);
+        }
+
+        private static Interval evaluate(Stmt stmt, MapFact<Var, Interval> in) {
+            if (stmt instanceof AssignLiteral assign) {
+                return assign.getRValue() instanceof IntLiteral lit
+                        ? new Interval(lit.getValue(), lit.getValue())
+                        : Interval.TOP;
+            } else if (stmt instanceof Copy copy) {
+                return in.get(copy.getRValue());
+            } else if (stmt instanceof Binary binary) {
+                BinaryExp exp = binary.getRValue();
+                Interval v1 = in.get(exp.getOperand1());
+                Interval v2 = in.get(exp.getOperand2());
+                if (v1 == null || v2 == null) {
+                    return null;
+                } else if (exp.getOperator() == ArithmeticExp.Op.ADD) {
+                    return v1.add(v2);
+                } else if (exp.getOperator() == ArithmeticExp.Op.SUB) {
+                    return v1.add(v2.negate());
+                }
+            }
+            return Interval.TOP;
+        }
+
+        @Override
+        public MapFact<Var, Interval> copyFact(MapFact<Var, Interval> fact) {
+            return fact.copy();
+        }
+
+        @Override
+        public void widenInto(Stmt node, MapFact<Var, Interval> previous,
+                              MapFact<Var, Interval> target) {
+            ++widenings;
+            previous.forEach((var, prev) ->
+                    target.update(var, prev.widen(target.get(var))));
+        }
+    }
+}
@@ -25,14 +25,21 @@ package pascal.taie.analysis.deadcode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.misc.ResultProcessor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public class DeadCodeTest {
 
-    void testDCD(String inputClass) {
-        Tests.testInput(inputClass, "src/test/resources/deadcode/",
-                DeadCodeDetection.ID,
+    void testDCD(String inputClass, String... opts) {
+        List<String> args = new ArrayList<>(List.of(
                 "-a", "live-var=strongly:false",
-                "-a", "const-prop=edge-refine:false");
+                "-a", "const-prop=edge-refine:false"));
+        Collections.addAll(args, opts);
+        Tests.testInput(inputClass, "src/test/resources/deadcode/",
+                DeadCodeDetection.ID, args.toArray(new String[0]));
     }
 
     @ParameterizedTest
@@ -47,4 +54,15 @@ public class DeadCodeTest {
         testDCD(inputClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "ControlFlowUnreachable",
+            "DeadAssignment",
+            "Loops",
+    })
+    void testFusedMethodAnalyses(String inputClass) {
+        testDCD(inputClass, "--fuse-method-analyses",
+                "-kr", DeadCodeDetection.ID + "," + ResultProcessor.ID);
+    }
+
 }
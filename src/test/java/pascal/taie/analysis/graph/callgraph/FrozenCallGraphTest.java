@@ -0,0 +1,106 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrozenCallGraphTest {
+
+    private static final String CLASS_PATH = "src/test/resources/cha/";
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "StaticCall",
+            "VirtualCall",
+            "Interface",
+            "MaxPQ",
+    })
+    void testFreeze(String mainClass) {
+        Tests.testMain(mainClass, CLASS_PATH, "cg", "algorithm:cha;freeze:true");
+    }
+
+    /**
+     * Compares the queries on a call graph with those on its frozen form.
+     */
+    @Test
+    void testQueries() {
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", "MaxPQ");
+        CallGraph<Invoke, JMethod> cg = new CHABuilder("cha-full").build();
+        FrozenCallGraph<Invoke, JMethod> frozen = new FrozenCallGraph<>(cg);
+        assertEquals(cg.getNumberOfMethods(), frozen.getNumberOfMethods());
+        assertEquals(cg.getNumberOfEdges(), frozen.getNumberOfEdges());
+        assertEquals(cg.entryMethods().collect(Collectors.toSet()),
+                frozen.entryMethods().collect(Collectors.toSet()));
+        assertEquals(cg.edges().collect(Collectors.toSet()),
+                frozen.edges().parallel().collect(Collectors.toSet()));
+        cg.reachableMethods().forEach(m -> {
+            assertTrue(frozen.contains(m));
+            assertEquals(cg.getCallSitesIn(m), frozen.getCallSitesIn(m));
+            assertEquals(cg.getCallersOf(m), frozen.getCallersOf(m));
+            assertEquals(cg.getCalleesOfM(m), frozen.getCalleesOfM(m));
+            assertEquals(cg.getPredsOf(m), frozen.getPredsOf(m));
+            assertEquals(cg.getSuccsOf(m), frozen.getSuccsOf(m));
+            assertEquals(cg.getInEdgesOf(m), frozen.getInEdgesOf(m));
+            assertEquals(cg.getOutEdgesOf(m), frozen.getOutEdgesOf(m));
+            cg.getCallSitesIn(m).forEach(cs -> {
+                assertEquals(m, frozen.getContainerOf(cs));
+                assertEquals(cg.getCalleesOf(cs), frozen.getCalleesOf(cs));
+                assertEquals(cg.getResult(cs), frozen.getResult(cs));
+            });
+        });
+        assertEquals(Set.copyOf(cg.getNodes()), Set.copyOf(frozen.getNodes()));
+        // all call sites of CHA call graph are in reachable methods
+        assertEquals(0, frozen.getNumberOfMapEntries());
+        // queries on the methods and call sites absent from the call graph
+        World.get().getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !cg.contains(m))
+                .forEach(m -> {
+                    assertFalse(frozen.contains(m));
+                    assertEquals(Set.of(), frozen.getCallSitesIn(m));
+                    assertEquals(0, frozen.edgesInTo(m).count());
+                    if (!m.isAbstract() && !m.isNative()) {
+                        m.getIR().invokes(true).forEach(cs -> {
+                            assertNull(frozen.getContainerOf(cs));
+                            assertEquals(Set.of(), frozen.getCalleesOf(cs));
+                        });
+                    }
+                });
+    }
+}
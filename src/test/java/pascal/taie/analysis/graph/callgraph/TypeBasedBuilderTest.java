@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TypeBasedBuilderTest {
+
+    private static final String CLASS_PATH = "src/test/resources/cha/";
+
+    private static void buildWorld(String mainClass) {
+        Main.buildWorld("-pp", "-cp", CLASS_PATH, "-m", mainClass);
+    }
+
+    /**
+     * Only A.foo() can be called, as B is the only instantiated class.
+     */
+    @Test
+    void testVirtualCall() {
+        buildWorld("VirtualCall");
+        for (CGBuilder<Invoke, JMethod> builder :
+                List.of(new RTABuilder(), new XTABuilder())) {
+            CallGraph<Invoke, JMethod> callGraph = builder.build();
+            JMethod main = World.get().getMainMethod();
+            Set<String> callees = callGraph.getCalleesOfM(main)
+                    .stream()
+                    .map(JMethod::toString)
+                    .collect(Collectors.toSet());
+            assertEquals(Set.of("<B: void <init>()>", "<A: void foo()>"), callees);
+        }
+    }
+
+    /**
+     * Checks that XTA is at least as precise as RTA,
+     * and RTA is at least as precise as CHA.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "StaticCall",
+            "VirtualCall",
+            "Interface",
+            "AbstractMethod",
+            "SpecialCall",
+            "Interface2",
+            "Interface3",
+            "Recursion",
+            "Recursion2",
+            "MaxPQ",
+            "LongCallChain",
+    })
+    void testPrecision(String mainClass) {
+        buildWorld(mainClass);
+        CallGraph<Invoke, JMethod> cha = new CHABuilder("cha-full").build();
+        CallGraph<Invoke, JMethod> rta = new RTABuilder().build();
+        CallGraph<Invoke, JMethod> xta = new XTABuilder().build();
+        assertSubgraph(rta, cha);
+        assertSubgraph(xta, rta);
+    }
+
+    /**
+     * Checks that the call edges found by pointer analysis are also found
+     * by RTA and XTA, for the call sites in the methods reachable in them.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "VirtualCall",
+            "Interface",
+            "AbstractMethod",
+            "MaxPQ",
+            "LongCallChain",
+            "Exceptions",
+    })
+    void testSoundness(String mainClass) {
+        Main.main("-pp", "-cp", CLASS_PATH, "-m", mainClass,
+                "-a", "pta=cs:ci;implicit-entries:false",
+                "-a", "cg=algorithm:pta");
+        CallGraph<Invoke, JMethod> pta = World.get().getResult(CallGraphBuilder.ID);
+        for (CGBuilder<Invoke, JMethod> builder :
+                List.of(new RTABuilder(), new XTABuilder())) {
+            CallGraph<Invoke, JMethod> callGraph = builder.build();
+            pta.edges()
+                    .filter(e -> e.getKind() != CallKind.OTHER &&
+                            callGraph.contains(e.getCallSite().getContainer()))
+                    .forEach(e -> assertTrue(
+                            callGraph.getCalleesOf(e.getCallSite()).contains(e.getCallee()),
+                            builder.getClass().getSimpleName() + " misses " + e));
+        }
+    }
+
+    private static void assertSubgraph(CallGraph<Invoke, JMethod> sub,
+                                       CallGraph<Invoke, JMethod> sup) {
+        sub.reachableMethods().forEach(m -> assertTrue(sup.contains(m), m.toString()));
+        sub.edges().forEach(e -> assertTrue(
+                sup.getCalleesOf(e.getCallSite()).contains(e.getCallee()),
+                e.toString()));
+    }
+}
@@ -24,7 +24,14 @@ package pascal.taie.analysis.graph.cfg;
 
 import org.junit.jupiter.api.Test;
 import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.exception.ThrowAnalysis;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class CFGTest {
 
@@ -38,6 +45,93 @@ public class CFGTest {
         test("Exceptions", "all");
     }
 
+    /**
+     * Compares array-based CFGs with the CFGs they are converted from.
+     */
+    @Test
+    void testArrayCFG() {
+        test("Exceptions", "all");
+        World.get().getClassHierarchy()
+                .getClass("Exceptions")
+                .getDeclaredMethods()
+                .stream()
+                .filter(m -> !m.isAbstract())
+                .forEach(m -> {
+                    CFG<Stmt> cfg = m.getIR().getResult(CFGBuilder.ID);
+                    ArrayCFG arrayCFG = new ArrayCFG(cfg);
+                    assertEquals(cfg.getEntry(), arrayCFG.getEntry());
+                    assertEquals(cfg.getExit(), arrayCFG.getExit());
+                    assertEquals(cfg.getNumberOfNodes(), arrayCFG.getNumberOfNodes());
+                    assertEquals(Set.copyOf(cfg.getNodes()),
+                            Set.copyOf(arrayCFG.getNodes()));
+                    for (Stmt node : cfg) {
+                        int index = cfg.getIndex(node);
+                        assertEquals(index, arrayCFG.getIndex(node));
+                        assertEquals(node, arrayCFG.getNode(index));
+                        assertEquals(cfg.getInEdgesOf(node), arrayCFG.getInEdgesOf(node));
+                        assertEquals(cfg.getOutEdgesOf(node), arrayCFG.getOutEdgesOf(node));
+                        assertEquals(cfg.getPredsOf(node), arrayCFG.getPredsOf(node));
+                        assertEquals(cfg.getSuccsOf(node), arrayCFG.getSuccsOf(node));
+                        for (int i = 0; i < arrayCFG.getOutDegreeOf(index); ++i) {
+                            CFGEdge<Stmt> edge = arrayCFG.getOutEdgeOf(index, i);
+                            assertEquals(edge.target(),
+                                    arrayCFG.getNode(arrayCFG.getSuccOf(index, i)));
+                        }
+                        for (int i = 0; i < arrayCFG.getInDegreeOf(index); ++i) {
+                            CFGEdge<Stmt> edge = arrayCFG.getInEdgeOf(index, i);
+                            assertEquals(edge.source(),
+                                    arrayCFG.getNode(arrayCFG.getPredOf(index, i)));
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Checks that the blocks of block CFGs cover all stmts, and that the
+     * control flows only enter/leave blocks at their first/last stmts.
+     */
+    @Test
+    void testBlockCFG() {
+        test("Exceptions", "all");
+        World.get().getClassHierarchy()
+                .getClass("Exceptions")
+                .getDeclaredMethods()
+                .stream()
+                .filter(m -> !m.isAbstract())
+                .forEach(m -> {
+                    CFG<Stmt> cfg = m.getIR().getResult(CFGBuilder.ID);
+                    BlockCFG blockCFG = new BlockCFG(cfg);
+                    assertEquals(Set.of(cfg.getEntry()),
+                            Set.copyOf(blockCFG.getEntry().getStmts()));
+                    assertEquals(Set.of(cfg.getExit()),
+                            Set.copyOf(blockCFG.getExit().getStmts()));
+                    int nStmts = 0;
+                    for (BasicBlock block : blockCFG) {
+                        assertEquals(block, blockCFG.getNode(blockCFG.getIndex(block)));
+                        for (int i = 0; i < block.size(); ++i) {
+                            Stmt stmt = block.getStmts().get(i);
+                            assertEquals(block, blockCFG.getBlockOf(stmt));
+                            assertEquals(i, blockCFG.getPositionOf(stmt));
+                            if (i > 0) {
+                                assertEquals(Set.of(block.getStmts().get(i - 1)),
+                                        cfg.getPredsOf(stmt));
+                            }
+                            if (i < block.size() - 1) {
+                                assertEquals(Set.of(block.getStmts().get(i + 1)),
+                                        cfg.getSuccsOf(stmt));
+                            }
+                        }
+                        nStmts += block.size();
+                        assertEquals(cfg.getOutEdgesOf(block.getLast()),
+                                blockCFG.getOutEdgesOf(block)
+                                        .stream()
+                                        .map(e -> ((BlockEdge) e).getStmtEdge())
+                                        .collect(Collectors.toSet()));
+                    }
+                    assertEquals(cfg.getNumberOfNodes(), nStmts);
+                });
+    }
+
     private static void test(String main, String exception) {
         Main.main(
                 "-pp", "-cp", "src/test/resources/controlflow", "--input-classes", main,
@@ -0,0 +1,90 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.exception.ThrowAnalysis;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyICFGTest {
+
+    /**
+     * Explores the ICFG on demand from the entry of main method with
+     * a CFG cache of size 1, and checks that the containing methods of
+     * the nodes are kept after their CFGs are evicted and rebuilt, and
+     * that the throw results are not kept for the evicted CFGs.
+     */
+    @Test
+    void testEviction() {
+        Main.main("-pp", "-cp", "src/test/resources/dataflow/constprop/inter",
+                "-m", "Example",
+                "-a", "cg=algorithm:cha",
+                "-a", "icfg=lazy:true;cfg-cache-size:1");
+        LazyICFG icfg = World.get().getResult(ICFGBuilder.ID);
+        Map<Stmt, JMethod> containers = Maps.newMap();
+        Deque<Stmt> workList = new ArrayDeque<>();
+        JMethod main = World.get().getMainMethod();
+        Stmt entry = icfg.getEntryOf(main);
+        containers.put(entry, main);
+        workList.push(entry);
+        while (!workList.isEmpty()) {
+            Stmt node = workList.pop();
+            JMethod method = icfg.getContainingMethodOf(node);
+            assertEquals(containers.get(node), method, node.toString());
+            for (ICFGEdge<Stmt> edge : icfg.getOutEdgesOf(node)) {
+                Stmt succ = edge.target();
+                if (!containers.containsKey(succ)) {
+                    containers.put(succ, edge instanceof CallEdge<Stmt> callEdge ?
+                            callEdge.getCallee() :
+                            edge instanceof ReturnEdge<Stmt> returnEdge ?
+                                    icfg.getContainingMethodOf(returnEdge.getCallSite()) :
+                                    method);
+                    workList.push(succ);
+                }
+            }
+        }
+        long methods = containers.values().stream().distinct().count();
+        assertTrue(methods > 1);
+        assertTrue(icfg.getNumberOfBuiltCFGs() > methods,
+                "CFGs should be evicted and rebuilt");
+        containers.forEach((node, method) ->
+                assertEquals(method, icfg.getContainingMethodOf(node), node.toString()));
+        // throw results are dropped together with the evicted CFGs
+        assertTrue(containers.values()
+                .stream()
+                .distinct()
+                .filter(m -> m.getIR().hasResult(ThrowAnalysis.ID))
+                .count() <= 1);
+    }
+}
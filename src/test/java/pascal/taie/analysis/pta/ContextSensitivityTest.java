@@ -22,10 +22,22 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
 import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.Maps;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests context-sensitive pointer analyses.
@@ -50,4 +62,42 @@ public class ContextSensitivityTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    /**
+     * Tests adaptive context sensitivity: under a tiny budget, some
+     * methods should be downgraded and reported, and its results should
+     * lie between the results of context insensitivity and
+     * the (non-adaptive) context sensitivity.
+     */
+    @Test
+    void testAdaptive() throws IOException {
+        Map<String, Set<String>> precise = runPTA("TwoObject", "cs:2-obj");
+        File report = new File(World.get().getOptions().getOutputDir(),
+                "pta-downgraded-methods.txt");
+        Files.deleteIfExists(report.toPath());
+        Map<String, Set<String>> adaptive = runPTA("TwoObject",
+                "cs:2-obj", "adaptive-cs-budget:1");
+        assertTrue(report.exists(), "downgraded methods should be reported");
+        List<String> lines = Files.readAllLines(report.toPath());
+        // the first line is the header
+        assertTrue(lines.size() > 1, "no method is downgraded");
+        Map<String, Set<String>> ci = runPTA("TwoObject", "cs:ci");
+        precise.forEach((var, pts) -> assertTrue(
+                adaptive.getOrDefault(var, Set.of()).containsAll(pts), var));
+        adaptive.forEach((var, pts) -> assertTrue(
+                ci.getOrDefault(var, Set.of()).containsAll(pts), var));
+    }
+
+    private static Map<String, Set<String>> runPTA(String mainClass, String... opts) {
+        Tests.testPTA(false, DIR, mainClass, opts);
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Map<String, Set<String>> result = Maps.newMap();
+        pta.getVars().forEach(v -> result.put(
+                v.getMethod() + "/" + v.getName(),
+                pta.getPointsToSet(v)
+                        .stream()
+                        .map(Object::toString)
+                        .collect(Collectors.toSet())));
+        return result;
+    }
+
 }
@@ -22,17 +22,42 @@
 
 package pascal.taie.analysis.pta;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import pascal.taie.Main;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.SparseTaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TaintTest {
 
@@ -119,4 +144,245 @@ public class TaintTest {
                 "-a", "pta=" + String.join(";", ptaArgs)
         );
     }
+
+    /**
+     * Runs the taint plugin and the sparse taint analysis on the same
+     * context-insensitive pre-analysis, and checks that the sparse mode
+     * detects exactly the taint flows detected by the plugin.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SimpleTaint",
+            "ArgToResult",
+            "FieldTaint",
+            "ArrayTaint",
+    })
+    void testSparseTaint(String mainClass) {
+        Main.main(
+                "-pp",
+                "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/" + DIR,
+                "-m", mainClass,
+                "-a", "pta=" + TAINT_CONFIG,
+                "-a", SparseTaintAnalysis.ID + "=" + TAINT_CONFIG
+        );
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> pluginFlows = pta.getResult(TaintAnalysis.class.getName());
+        Set<TaintFlow> sparseFlows = World.get().getResult(SparseTaintAnalysis.ID);
+        assertEquals(pluginFlows, sparseFlows);
+    }
+
+    @Test
+    void testWitnessPaths() throws IOException {
+        Main.main(
+                "-pp",
+                "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/" + DIR,
+                "-m", "ComplexTaint",
+                "-a", "pta=" + TAINT_CONFIG + ";taint-witness-paths:2"
+        );
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = pta.getResult(TaintAnalysis.class.getName());
+        File witnessFile = new File(World.get().getOptions().getOutputDir(),
+                "taint-flow-witnesses.jsonl");
+        List<String> lines = Files.readAllLines(witnessFile.toPath());
+        assertEquals(taintFlows.size(), lines.size());
+        MultiMap<String, String> tfgEdges = readTFGEdges();
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : lines) {
+            JsonNode witness = mapper.readTree(line);
+            // source (sink) points are connected to their nodes in TFG dump
+            String sourceSuffix = "\\n" + witness.get("source").asText();
+            Set<String> sourceNodes = tfgEdges.keySet()
+                    .stream()
+                    .filter(n -> n.endsWith(sourceSuffix))
+                    .flatMap(n -> tfgEdges.get(n).stream())
+                    .collect(Collectors.toSet());
+            String sinkSuffix = "\\n" + witness.get("sink").asText();
+            Set<String> sinkNodes = tfgEdges.keySet()
+                    .stream()
+                    .filter(n -> tfgEdges.get(n).stream()
+                            .anyMatch(succ -> succ.endsWith(sinkSuffix)))
+                    .collect(Collectors.toSet());
+            JsonNode paths = witness.get("paths");
+            assertFalse(paths.isEmpty(), "No witness path: " + line);
+            assertTrue(paths.size() <= 2);
+            for (JsonNode path : paths) {
+                if (path.isEmpty()) {
+                    // a source node is also a sink node
+                    assertFalse(Collections.disjoint(sourceNodes, sinkNodes), line);
+                    continue;
+                }
+                assertTrue(sourceNodes.contains(
+                        path.get(0).get("source").asText()), line);
+                assertTrue(sinkNodes.contains(
+                        path.get(path.size() - 1).get("target").asText()), line);
+                for (int i = 0; i < path.size(); ++i) {
+                    String source = path.get(i).get("source").asText();
+                    String target = path.get(i).get("target").asText();
+                    assertTrue(tfgEdges.get(source).contains(target),
+                            "No TFG edge " + source + " -> " + target);
+                    if (i > 0) {
+                        assertEquals(path.get(i - 1).get("target").asText(), source);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return edges of the dumped taint flow graph, including the edges
+     * from the source points to source nodes and from the sink nodes
+     * to the sink points.
+     */
+    private static MultiMap<String, String> readTFGEdges() throws IOException {
+        Pattern edgePattern = Pattern.compile(
+                "^\\s*\"((?:[^\"\\\\]|\\\\.)*)\" -> \"((?:[^\"\\\\]|\\\\.)*)\"");
+        MultiMap<String, String> edges = Maps.newMultiMap();
+        for (String line : readTFG()) {
+            Matcher matcher = edgePattern.matcher(line);
+            if (matcher.find()) {
+                edges.put(matcher.group(1).replace("\\\"", "\""),
+                        matcher.group(2).replace("\\\"", "\""));
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Changes the taint config in interactive mode, and checks that the
+     * taint flow graph rebuilt incrementally after reloading equals the
+     * one built from scratch with the new config.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "ComplexTaint",
+            "SimpleTaint",
+    })
+    void testTFGAfterReload(String mainClass) throws IOException {
+        Path config = Files.createTempFile("taint-config", ".yml");
+        Path newConfig = Path.of("src/test/resources/pta/taint/taint-config-concat-sink.yml");
+        Files.copy(Path.of("src/test/resources/pta/taint/taint-config.yml"),
+                config, StandardCopyOption.REPLACE_EXISTING);
+        List<Set<String>> tfgs = new ArrayList<>();
+        InputStream originalSystemIn = System.in;
+        try {
+            // before reloading, record the first TFG and change the config
+            System.setIn(new ReloadInput(() -> {
+                try {
+                    tfgs.add(readTFG());
+                    Files.copy(newConfig, config, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            Main.main(
+                    "-pp",
+                    "-cp", "src/test/resources/pta",
+                    "-cp", "src/test/resources/pta/" + DIR,
+                    "-m", mainClass,
+                    "-a", "pta=cs:ci;taint-config:" + config
+                            + ";taint-interactive-mode:true"
+            );
+        } finally {
+            System.setIn(originalSystemIn);
+            Files.deleteIfExists(config);
+        }
+        Set<String> rebuilt = readTFG();
+        Main.main(
+                "-pp",
+                "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/" + DIR,
+                "-m", mainClass,
+                "-a", "pta=cs:ci;taint-config:" + newConfig
+        );
+        assertEquals(1, tfgs.size());
+        assertEquals(readTFG(), rebuilt);
+        assertNotEquals(tfgs.get(0), rebuilt);
+    }
+
+    /**
+     * @return lines of the dumped taint flow graph. The nodes are
+     * identified by their names, thus the order of lines is irrelevant.
+     */
+    private static Set<String> readTFG() throws IOException {
+        File tfgFile = new File(World.get().getOptions().getOutputDir(),
+                "taint-flow-graph.dot");
+        return Set.copyOf(Files.readAllLines(tfgFile.toPath()));
+    }
+
+    /**
+     * Simulated console input that reloads the taint analysis once and then
+     * exits. The given action is performed before the input is first read.
+     */
+    private static class ReloadInput extends InputStream {
+
+        private final byte[] input = "r\ne\n".getBytes();
+
+        private Runnable beforeRead;
+
+        private int pos;
+
+        private ReloadInput(Runnable beforeRead) {
+            this.beforeRead = beforeRead;
+        }
+
+        @Override
+        public int read() {
+            if (beforeRead != null) {
+                beforeRead.run();
+                beforeRead = null;
+            }
+            return pos < input.length ? input[pos++] : -1;
+        }
+    }
+
+    @Test
+    void testSparseTaintConfigs() throws IOException {
+        // the additional config removes a source and some sinks, and adds
+        // a sink, while it keeps the transfers and sanitizers, thus its
+        // taint flows are computed from the cached propagation
+        String configPath = "src/test/resources/pta/taint/taint-config-concat-sink.yml";
+        Main.main(
+                "-pp",
+                "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/" + DIR,
+                "-m", "ComplexTaint",
+                "-a", "pta=cs:ci",
+                "-a", SparseTaintAnalysis.ID + "=" + TAINT_CONFIG
+                        + ";taint-configs:[" + configPath + "]"
+        );
+        Set<TaintFlow> mainFlows = World.get().getResult(SparseTaintAnalysis.ID);
+        File[] outputs = World.get().getOptions().getOutputDir()
+                .listFiles((dir, name) -> name.startsWith("sparse-taint-flows-"));
+        assertNotNull(outputs);
+        List<String> lines = null;
+        for (File output : outputs) {
+            List<String> outputLines = Files.readAllLines(output.toPath());
+            if (outputLines.get(0).equals("Taint config: " + configPath)) {
+                lines = outputLines;
+            }
+        }
+        assertNotNull(lines);
+        Set<String> cachedFlows = Set.copyOf(lines.subList(2, lines.size()));
+        // analyze the program with the additional config from scratch
+        Main.main(
+                "-pp",
+                "-cp", "src/test/resources/pta",
+                "-cp", "src/test/resources/pta/" + DIR,
+                "-m", "ComplexTaint",
+                "-a", "pta=cs:ci",
+                "-a", SparseTaintAnalysis.ID + "=taint-config:" + configPath
+        );
+        Set<TaintFlow> freshFlows = World.get().getResult(SparseTaintAnalysis.ID);
+        assertEquals(toStrings(freshFlows), cachedFlows);
+        assertEquals("Detected " + freshFlows.size() + " taint flow(s):", lines.get(1));
+        assertNotEquals(toStrings(mainFlows), cachedFlows);
+    }
+
+    private static Set<String> toStrings(Set<TaintFlow> taintFlows) {
+        return taintFlows.stream()
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.type.IntType;
+import pascal.taie.language.type.LongType;
+import pascal.taie.language.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DFAMinimizerTest {
+
+    private static final Descriptor DESC = () -> "DFAMinimizerTestObj";
+
+    private static final List<Set<Type>> OUTPUTS = List.of(
+            Set.of(IntType.INT),
+            Set.of(LongType.LONG),
+            Set.of(IntType.INT, LongType.LONG));
+
+    private static final DFAEquivChecker checker = new DFAEquivChecker();
+
+    /**
+     * Array index and two instance fields.
+     */
+    private static final List<Field> fields = new ArrayList<>();
+
+    /**
+     * All created states.
+     */
+    private final List<DFAState> states = new ArrayList<>();
+
+    @BeforeAll
+    static void buildWorld() {
+        Main.buildWorld("-pp", "-cp", "src/test/resources/cha/", "-m", "MaxPQ");
+        Field.Factory factory = new Field.Factory();
+        fields.clear();
+        fields.add(factory.getArrayIndex());
+        World.get().getClassHierarchy()
+                .getJREClass(ClassNames.STRING)
+                .getDeclaredFields()
+                .stream()
+                .filter(f -> !f.isStatic())
+                .limit(2)
+                .map(factory::get)
+                .forEach(fields::add);
+        assertEquals(3, fields.size());
+    }
+
+    private DFAState newState(Set<Type> output) {
+        DFAState state = new DFAState(Set.of(new MockObj(DESC,
+                "o" + states.size(), IntType.INT, null, false)), output);
+        states.add(state);
+        return state;
+    }
+
+    @Test
+    void testFingerprints() {
+        Set<Type> i = OUTPUTS.get(0), l = OUTPUTS.get(1);
+        Field f = fields.get(1), g = fields.get(2);
+        // a: a0 -f-> a0
+        DFAState a0 = newState(i);
+        a0.addTransition(f, a0);
+        // b: b0 -f-> b1 -f-> b0, equivalent to a
+        DFAState b0 = newState(i), b1 = newState(i);
+        b0.addTransition(f, b1);
+        b1.addTransition(f, b0);
+        // c: c0 -f-> c1, whose field f is absent
+        DFAState c0 = newState(i), c1 = newState(i);
+        c0.addTransition(f, c1);
+        // d: same as a but with different output
+        DFAState d0 = newState(l);
+        d0.addTransition(f, d0);
+        // e: same as a but via different field
+        DFAState e0 = newState(i);
+        e0.addTransition(g, e0);
+        List<DFA> dfas = List.of(new DFA(a0), new DFA(b0),
+                new DFA(c0), new DFA(d0), new DFA(e0));
+        DFAMinimizer minimizer = new DFAMinimizer(states);
+        DFA a = dfas.get(0);
+        assertEquals(minimizer.getFingerprint(a), minimizer.getFingerprint(dfas.get(1)));
+        for (DFA other : dfas.subList(2, dfas.size())) {
+            assertNotEquals(minimizer.getFingerprint(a), minimizer.getFingerprint(other));
+        }
+        checkAgainstEquivChecker(minimizer, dfas);
+    }
+
+    /**
+     * Compares the fingerprints of random DFAs with the results of
+     * {@link DFAEquivChecker}.
+     */
+    @Test
+    void testRandomDFAs() {
+        Random random = new Random(0);
+        List<DFA> dfas = new ArrayList<>();
+        for (int n = 0; n < 200; ++n) {
+            int nStates = 1 + random.nextInt(4);
+            List<Set<Type>> outputs = new ArrayList<>();
+            int[][] targets = new int[nStates][fields.size()];
+            for (int s = 0; s < nStates; ++s) {
+                outputs.add(OUTPUTS.get(random.nextInt(OUTPUTS.size())));
+                for (int k = 0; k < fields.size(); ++k) {
+                    // -1 means absent transition
+                    targets[s][k] = random.nextInt(2) == 0 ?
+                            -1 : random.nextInt(nStates);
+                }
+            }
+            dfas.add(newDFA(outputs, targets));
+            if (n % 4 == 0) {
+                // add an isomorphic copy, which consists of different states
+                dfas.add(newDFA(outputs, targets));
+            }
+        }
+        DFAMinimizer minimizer = new DFAMinimizer(states);
+        checkAgainstEquivChecker(minimizer, dfas);
+    }
+
+    private DFA newDFA(List<Set<Type>> outputs, int[][] targets) {
+        List<DFAState> dfaStates = outputs.stream()
+                .map(this::newState)
+                .toList();
+        for (int s = 0; s < targets.length; ++s) {
+            for (int k = 0; k < fields.size(); ++k) {
+                if (targets[s][k] != -1) {
+                    dfaStates.get(s).addTransition(fields.get(k),
+                            dfaStates.get(targets[s][k]));
+                }
+            }
+        }
+        return new DFA(dfaStates.get(0));
+    }
+
+    private static void checkAgainstEquivChecker(
+            DFAMinimizer minimizer, List<DFA> dfas) {
+        int equivalent = 0, different = 0;
+        for (int i = 0; i < dfas.size(); ++i) {
+            for (int j = i + 1; j < dfas.size(); ++j) {
+                DFA d1 = dfas.get(i), d2 = dfas.get(j);
+                boolean isEquivalent = checker.isEquivalent(d1, d2);
+                assertEquals(isEquivalent,
+                        minimizer.getFingerprint(d1) == minimizer.getFingerprint(d2),
+                        d1.getStates() + " vs. " + d2.getStates());
+                if (isEquivalent) {
+                    ++equivalent;
+                } else {
+                    ++different;
+                }
+            }
+        }
+        assertTrue(equivalent > 0);
+        assertTrue(different > 0);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.scaler;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScalerTest {
+
+    private static final List<String> VARIANTS =
+            List.of("2-obj", "2-type", "1-type", "ci");
+
+    @Test
+    void testScaler() {
+        Tests.testPTA(false, "contextsensitivity", "TwoObject", "advanced:scaler");
+    }
+
+    @Test
+    void testTSTMonotonicity() {
+        Tests.testPTA(false, "misc", "Zipper");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Map<JMethod, String> prev = null;
+        for (long tst : new long[]{ 0, 10, 100, 1000, 30000000 }) {
+            Map<JMethod, String> csMap = new Scaler(pta, tst).selectContext();
+            csMap.values().forEach(v -> assertTrue(VARIANTS.contains(v), v));
+            if (prev != null) {
+                assertEquals(prev.keySet(), csMap.keySet());
+                // larger TST never selects less precise variants
+                for (JMethod m : csMap.keySet()) {
+                    assertTrue(VARIANTS.indexOf(csMap.get(m))
+                            <= VARIANTS.indexOf(prev.get(m)), m.toString());
+                }
+            }
+            prev = csMap;
+        }
+    }
+}
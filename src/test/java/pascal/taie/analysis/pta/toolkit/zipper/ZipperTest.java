@@ -32,11 +32,15 @@ import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
 import pascal.taie.analysis.pta.PointerAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultEx;
 import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl;
+import pascal.taie.analysis.pta.toolkit.util.OAGs;
 import pascal.taie.util.graph.DotDumper;
 
 import java.io.File;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class ZipperTest {
 
     private static final String CS = "contextsensitivity";
@@ -53,8 +57,9 @@ public class ZipperTest {
     private static void dumpOAG(String main, String... opts) {
         Tests.testPTA(false, CS, main, opts);
         PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        PointerAnalysisResultEx ptaEx = new PointerAnalysisResultExImpl(pta, true);
         ObjectAllocationGraph oag = new ObjectAllocationGraph(
-                new PointerAnalysisResultExImpl(pta, true));
+                ptaEx, OAGs.computeInvokedMethods(ptaEx));
         File output = new File(World.get().getOptions().getOutputDir(), main + "-oag.dot");
         new DotDumper<Obj>().dump(oag, output);
     }
@@ -83,4 +88,20 @@ public class ZipperTest {
     void testPFGBuilder() {
         Tests.testPTA(false, MISC, "Zipper", "advanced:zipper");
     }
+
+    @Test
+    void testChainedWithMahjong() {
+        Tests.testPTA(false, MISC, "Zipper", "advanced:mahjong+zipper");
+    }
+
+    @Test
+    void testMemoryBudget() {
+        Tests.testPTA(false, MISC, "Zipper");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        // a tiny budget forces PFGs to be analyzed one by one
+        assertEquals(Zipper.run(pta, "zipper", 0),
+                Zipper.run(pta, "zipper", 1));
+        assertEquals(Zipper.run(pta, "zipper-e", 0),
+                Zipper.run(pta, "zipper-e", 1));
+    }
 }
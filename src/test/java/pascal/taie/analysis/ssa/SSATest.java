@@ -0,0 +1,212 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.bugfinder.nullpointer.IsNullAnalysis;
+import pascal.taie.analysis.bugfinder.nullpointer.SparseIsNullAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.SparseConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.MapFact;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.graph.cfg.BasicBlock;
+import pascal.taie.analysis.graph.cfg.BlockCFG;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Exps;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.graph.DominatorFinder;
+import pascal.taie.util.graph.Reachability;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SSATest {
+
+    private static final String CP_PATH = "src/test/resources/dataflow/constprop";
+
+    /**
+     * Checks the properties of SSA form, and compares the results of
+     * sparse constant propagation with the ones of dense constant
+     * propagation (without edge refinement).
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Assign",
+            "SimpleBranch",
+            "BranchConstant",
+            "Loop",
+            "BinaryOp",
+    })
+    void testSparseCP(String inputClass) {
+        Main.main("-pp", "-cp", CP_PATH, "--input-classes", inputClass,
+                "-a", ConstantPropagation.ID + "=edge-refine:false",
+                "-a", SparseConstantPropagation.ID);
+        for (JMethod method : getMethods(inputClass)) {
+            IR ir = method.getIR();
+            SSA ssa = ir.getResult(SSABuilder.ID);
+            checkSSA(ssa);
+            NodeResult<Stmt, CPFact> dense = ir.getResult(ConstantPropagation.ID);
+            SparseResult<Value> sparse = ir.getResult(SparseConstantPropagation.ID);
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            for (Stmt stmt : new Reachability<>(cfg).reachableNodesFrom(cfg.getEntry())) {
+                for (SSAVar use : ssa.getUses(stmt)) {
+                    if (Exps.holdsInt(use.getVar())) {
+                        assertEquals(dense.getInFact(stmt).get(use.getVar()),
+                                sparse.getValue(use), method + ": " + stmt);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the values of definitions computed by sparse null value
+     * analysis with the ones computed by dense {@code is-null} analysis.
+     * Copies and casts are compared only when both analyses agree on
+     * their operands, as dense analysis refines the values after null
+     * checks and dereferences.
+     */
+    @Test
+    void testSparseIsNull() {
+        String inputClass = "NullDeref";
+        Main.main("-pp", "-cp", "src/test/resources/bugfinder",
+                "--input-classes", inputClass,
+                "-a", IsNullAnalysis.ID,
+                "-a", SparseIsNullAnalysis.ID);
+        int compared = 0;
+        for (JMethod method : getMethods(inputClass)) {
+            IR ir = method.getIR();
+            checkSSA(ir.getResult(SSABuilder.ID));
+            NodeResult<Stmt, MapFact<Var, ?>> dense = ir.getResult(IsNullAnalysis.ID);
+            SparseResult<?> sparse = ir.getResult(SparseIsNullAnalysis.ID);
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            for (Stmt stmt : new Reachability<>(cfg).reachableNodesFrom(cfg.getEntry())) {
+                Object sparseValue = sparse.getDefValue(stmt);
+                if (sparseValue == null ||
+                        !(stmt instanceof DefinitionStmt<?, ?> def) ||
+                        !(def.getLValue() instanceof Var lhs)) {
+                    continue;
+                }
+                Object denseValue = dense.getOutFact(stmt).get(lhs);
+                if (String.valueOf(denseValue).equals("UNDEF")) {
+                    // the dense analysis does not define lhs at stmt
+                    continue;
+                }
+                Var operand = stmt instanceof Copy copy ? copy.getRValue() :
+                        stmt instanceof Cast cast ? cast.getRValue().getValue() : null;
+                if (operand == null || Objects.equals(
+                        dense.getInFact(stmt).get(operand),
+                        sparse.getValueAt(stmt, operand))) {
+                    assertEquals(denseValue, sparseValue, method + ": " + stmt);
+                    ++compared;
+                }
+                if (stmt instanceof New) {
+                    assertEquals("NONNULL", String.valueOf(sparseValue));
+                } else if (stmt instanceof AssignLiteral assign &&
+                        assign.getRValue() instanceof NullLiteral) {
+                    assertEquals("NULL", String.valueOf(sparseValue));
+                }
+            }
+        }
+        assertTrue(compared > 0);
+    }
+
+    private static List<JMethod> getMethods(String className) {
+        return World.get().getClassHierarchy()
+                .getClass(className)
+                .getDeclaredMethods()
+                .stream()
+                .filter(m -> !m.isAbstract())
+                .toList();
+    }
+
+    /**
+     * Checks that each use is dominated by its definition, and each
+     * phi has one operand for each predecessor of its block.
+     */
+    private static void checkSSA(SSA ssa) {
+        BlockCFG cfg = ssa.getCFG();
+        // use DominatorFinder rather than DominatorTree (used by SSABuilder)
+        // as an independent oracle of dominance
+        DominatorFinder<BasicBlock> domFinder = new DominatorFinder<>(
+                cfg, new CFGNodeIndexer<>(cfg), true);
+        Set<BasicBlock> reachable = new Reachability<>(cfg)
+                .reachableNodesFrom(cfg.getEntry());
+        for (BasicBlock block : reachable) {
+            for (Phi phi : ssa.getPhis(block)) {
+                assertSame(phi, phi.getTarget().getDefPhi());
+                assertEquals(new HashSet<>(cfg.getPredsOf(block)),
+                        phi.getOperands().keySet());
+            }
+            for (Stmt stmt : block) {
+                SSAVar def = ssa.getDef(stmt);
+                if (def != null) {
+                    assertSame(stmt, def.getDefStmt());
+                }
+                for (SSAVar use : ssa.getUses(stmt)) {
+                    assertTrue(use.getUseStmts().contains(stmt));
+                    if (use.isInitial()) {
+                        continue;
+                    }
+                    BasicBlock defBlock;
+                    if (use.getDefStmt() != null) {
+                        Stmt defStmt = use.getDefStmt();
+                        defBlock = cfg.getBlockOf(defStmt);
+                        if (defBlock == block) {
+                            assertTrue(cfg.getPositionOf(defStmt) < cfg.getPositionOf(stmt));
+                        }
+                    } else {
+                        assertNotNull(use.getDefPhi());
+                        defBlock = use.getDefPhi().getBlock();
+                    }
+                    assertTrue(domFinder.isDominatedBy(block, defBlock),
+                            use + " does not dominate " + stmt);
+                }
+            }
+        }
+    }
+}
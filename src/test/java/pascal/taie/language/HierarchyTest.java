@@ -29,14 +29,17 @@ import pascal.taie.World;
 import pascal.taie.ir.proginfo.FieldRef;
 import pascal.taie.ir.proginfo.FieldResolutionFailedException;
 import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -104,6 +107,79 @@ public class HierarchyTest {
         expectedNotSubclass(d, c);
     }
 
+    /**
+     * Compares subclass checking (based on hierarchy encoding)
+     * with the subclasses computed by traversing the class hierarchy.
+     */
+    @Test
+    void testSubclassEncoding() {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        List<JClass> classes = hierarchy.allClasses().toList();
+        // limit the number of superclasses to keep this test fast
+        List<JClass> superclasses = classes.stream()
+                .filter(c -> c.getIndex() % 10 == 0 || c.isApplication())
+                .toList();
+        for (JClass sup : superclasses) {
+            boolean isObject = sup.getName().equals("java.lang.Object");
+            Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(sup);
+            for (JClass sub : classes) {
+                assertEquals(isObject || subclasses.contains(sub),
+                        hierarchy.isSubclass(sup, sub), sup + " :> " + sub);
+            }
+        }
+    }
+
+    /**
+     * Compares method dispatch based on precomputed dispatch tables
+     * with the dispatch by walking the class hierarchy.
+     */
+    @Test
+    void testDispatchTables() {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        // limit the number of receiver classes to keep this test fast
+        List<JClass> receivers = hierarchy.allClasses()
+                .filter(c -> c.getIndex() % 10 == 0 || c.isApplication())
+                .toList();
+        List<MethodRef> refs = new ArrayList<>();
+        List<JClass> refReceivers = new ArrayList<>();
+        List<JMethod> expected = new ArrayList<>();
+        for (JClass receiver : receivers) {
+            for (JClass c = receiver; c != null; c = c.getSuperClass()) {
+                List<JClass> supertypes = new ArrayList<>(c.getInterfaces());
+                supertypes.add(c);
+                for (JClass supertype : supertypes) {
+                    for (JMethod method : supertype.getDeclaredMethods()) {
+                        MethodRef ref = method.getRef();
+                        refs.add(ref);
+                        refReceivers.add(receiver);
+                        expected.add(hierarchy.dispatch(receiver, ref));
+                    }
+                }
+            }
+        }
+        hierarchy.buildDispatchTables();
+        for (int i = 0; i < refs.size(); ++i) {
+            assertEquals(expected.get(i),
+                    hierarchy.dispatch(refReceivers.get(i), refs.get(i)),
+                    refs.get(i) + " on " + refReceivers.get(i));
+        }
+        testDispatch("D", "C", "bar", "C");
+        testDispatch("G", "IIII", "baz", "C");
+    }
+
+    private static void testDispatch(
+            String receiver, String refClass, String name, String expected) {
+        JClass refJClass = getClass(refClass);
+        JMethod method = refJClass.getDeclaredMethods()
+                .stream()
+                .filter(m -> m.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+        JMethod target = World.get().getClassHierarchy()
+                .dispatch(getClass(receiver), method.getRef());
+        assertEquals(expected, target.getDeclaringClass().getName());
+    }
+
     private static void expectedSubclass(String sup, String sub) {
         JClass superclass = getClass(sup);
         JClass subclass = getClass(sub);
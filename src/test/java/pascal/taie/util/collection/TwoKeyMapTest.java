@@ -27,6 +27,7 @@ import pascal.taie.util.SerializationUtils;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -217,6 +218,15 @@ public class TwoKeyMapTest {
         assertEquals(777, (int) m.get(1, 1));
     }
 
+    @Test
+    void testParallelPut() {
+        TwoKeyMap<Integer, Integer, Integer> m = Maps.newTwoKeyMap(
+                Maps.newConcurrentMap(), Maps::newConcurrentMap);
+        IntStream.range(0, 100_000).parallel()
+                .forEach(i -> m.put(i % 10, i, i));
+        assertEquals(100_000, m.size());
+    }
+
     @Test
     void testPutNull1() {
         assertThrows(NullPointerException.class, () -> {
@@ -23,16 +23,20 @@
 package pascal.taie.util.graph;
 
 import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.SimpleIndexer;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -88,6 +92,38 @@ public class GraphTest {
         assertFalse(g.hasEdge(3, 6));
     }
 
+    @Test
+    void testIndexedGraph() {
+        Indexer<Integer> indexer = new Indexer<>() {
+            @Override
+            public int getIndex(Integer o) {
+                return o;
+            }
+
+            @Override
+            public Integer getObject(int index) {
+                return index;
+            }
+        };
+        Graph<Integer> g = genRandomGraph(500);
+        IndexedGraph<Integer> ig = new IndexedGraph<>(g, indexer);
+        assertEquals(g.getNodes(), ig.getNodes());
+        int edges = 0;
+        for (Integer node : g) {
+            assertEquals(g.getSuccsOf(node), ig.getSuccsOf(node));
+            assertEquals(g.getPredsOf(node), ig.getPredsOf(node));
+            assertEquals(g.getInDegreeOf(node), ig.getInDegreeOf(node));
+            assertEquals(g.getOutDegreeOf(node), ig.getOutDegreeOf(node));
+            for (Integer succ : g.getSuccsOf(node)) {
+                assertTrue(ig.hasEdge(node, succ));
+            }
+            edges += g.getOutDegreeOf(node);
+        }
+        assertEquals(edges, ig.getNumberOfEdges());
+        assertFalse(ig.hasNode(500));
+        assertTrue(ig.getSuccsOf(500).isEmpty());
+    }
+
     @Test
     void testTopsort() {
         Graph<Integer> g = readGraph("src/test/resources/util/graph-topsort.txt");
@@ -141,6 +177,125 @@ public class GraphTest {
         assertEquals(domFinder.getNodesDominatedBy(9), Set.of(9));
     }
 
+    @Test
+    void testDominatorTree() {
+        Graph<Integer> g = readGraph("src/test/resources/util/graph-dominator.txt");
+        DominatorTree<Integer> domTree = new DominatorTree<>(g);
+        assertEquals(List.of(1), domTree.getRoots());
+        assertNull(domTree.getImmediateDominatorOf(1));
+        assertEquals(1, domTree.getImmediateDominatorOf(3));
+        assertEquals(4, domTree.getImmediateDominatorOf(7));
+        assertEquals(8, domTree.getImmediateDominatorOf(10));
+        assertEquals(Set.of(5, 6, 7), Set.copyOf(domTree.getChildrenOf(4)));
+        assertTrue(domTree.isDominatedBy(9, 3));
+        assertTrue(domTree.isDominatedBy(9, 9));
+        assertFalse(domTree.isDominatedBy(3, 4));
+        assertFalse(domTree.isDominatedBy(10, 9));
+
+        assertEquals(Set.of(3), domTree.getDominanceFrontierOf(2));
+        assertEquals(Set.of(3, 4), domTree.getDominanceFrontierOf(4));
+        assertEquals(Set.of(7), domTree.getDominanceFrontierOf(5));
+        assertEquals(Set.of(3, 4, 7), domTree.getDominanceFrontierOf(7));
+        assertEquals(Set.of(), domTree.getDominanceFrontierOf(9));
+
+        DominatorTree<Integer> postDomTree = DominatorTree.postDominatorsOf(
+                g, new SimpleIndexer<>(g.getNodes()));
+        assertEquals(List.of(9), postDomTree.getRoots());
+        assertEquals(3, postDomTree.getImmediateDominatorOf(1));
+        assertEquals(7, postDomTree.getImmediateDominatorOf(4));
+        assertEquals(9, postDomTree.getImmediateDominatorOf(8));
+        assertTrue(postDomTree.isDominatedBy(2, 8));
+        assertFalse(postDomTree.isDominatedBy(7, 10));
+
+        // node reachable from multiple heads
+        SimpleGraph<Integer> g2 = new SimpleGraph<>();
+        g2.addEdge(1, 3);
+        g2.addEdge(2, 3);
+        g2.addEdge(3, 4);
+        DominatorTree<Integer> domTree2 = new DominatorTree<>(g2);
+        assertEquals(Set.of(1, 2, 3), Set.copyOf(domTree2.getRoots()));
+        assertNull(domTree2.getImmediateDominatorOf(3));
+        assertFalse(domTree2.isDominatedBy(3, 1));
+        assertTrue(domTree2.isDominatedBy(4, 3));
+    }
+
+    @Test
+    void testDominatorTreeOnRandomGraphs() {
+        Random random = new Random(2023);
+        for (int i = 0; i < 20; ++i) {
+            // nodes 0, 1 and 2 are heads, and some nodes may be unreachable
+            // from them, e.g., the nodes in cycles without heads
+            SimpleGraph<Integer> g = new SimpleGraph<>();
+            int n = 200;
+            for (int head = 0; head < 3; ++head) {
+                g.addEdge(head, 3 + random.nextInt(n));
+                g.addEdge(head, 3 + random.nextInt(n));
+            }
+            for (int e = 0; e < 2 * n; ++e) {
+                g.addEdge(3 + random.nextInt(n), 3 + random.nextInt(n));
+            }
+            checkDominatorTree(g, new DominatorTree<>(g));
+            // post-dominators, the graph usually has multiple sinks
+            checkDominatorTree(new ReverseGraph<>(g),
+                    DominatorTree.postDominatorsOf(g, new SimpleIndexer<>(g.getNodes())));
+        }
+    }
+
+    /**
+     * Checks dominators and dominance frontiers of the nodes
+     * reachable from the heads against {@link DominatorFinder}.
+     */
+    private static void checkDominatorTree(Graph<Integer> g,
+                                           DominatorTree<Integer> domTree) {
+        DominatorFinder<Integer> domFinder = new DominatorFinder<>(g);
+        Set<Integer> reachable = new HashSet<>();
+        Reachability<Integer> reachability = new Reachability<>(g);
+        g.getNodes()
+                .stream()
+                .filter(node -> g.getInDegreeOf(node) == 0)
+                .forEach(head -> reachable.addAll(
+                        reachability.reachableNodesFrom(head)));
+        for (int node : reachable) {
+            for (int dom : g) {
+                assertEquals(domFinder.isDominatedBy(node, dom),
+                        domTree.isDominatedBy(node, dom),
+                        node + " dominated by " + dom);
+            }
+        }
+        for (int node : reachable) {
+            Set<Integer> frontier = new HashSet<>();
+            for (int succ : reachable) {
+                boolean strictlyDominates = succ != node &&
+                        domFinder.isDominatedBy(succ, node);
+                if (!strictlyDominates && g.getPredsOf(succ).stream().anyMatch(
+                        pred -> reachable.contains(pred) &&
+                                domFinder.isDominatedBy(pred, node))) {
+                    frontier.add(succ);
+                }
+            }
+            assertEquals(frontier, domTree.getDominanceFrontierOf(node),
+                    "dominance frontier of " + node);
+        }
+    }
+
+    @Test
+    void testWTO() {
+        Graph<Integer> g = readGraph("src/test/resources/util/graph-wto.txt");
+        WeakTopologicalOrder<Integer> wto = new WeakTopologicalOrder<>(g, 1);
+        // expected order: 1 (2 (3 4) 5) 6
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), wto.getNodes());
+        assertEquals(Set.of(2, 3), wto.getHeads());
+        assertEquals(3, wto.getElements().size());
+        WeakTopologicalOrder.Component<Integer> outer =
+                (WeakTopologicalOrder.Component<Integer>) wto.getElements().get(1);
+        assertEquals(2, outer.head());
+        assertEquals(2, outer.elements().size());
+        WeakTopologicalOrder.Component<Integer> inner =
+                (WeakTopologicalOrder.Component<Integer>) outer.elements().get(0);
+        assertEquals(3, inner.head());
+        assertEquals(List.of(new WeakTopologicalOrder.Vertex<>(4)), inner.elements());
+    }
+
     private static SimpleGraph<Integer> readGraph(String filePath) {
         SimpleGraph<Integer> graph = new SimpleGraph<>();
         try {
@@ -0,0 +1,36 @@
+import java.io.Serializable;
+
+public class Exceptions {
+
+    public static void main(String[] args) {
+        try {
+            thrower();
+        } catch (MyException e) {
+            e.handle();
+        }
+        Cloneable c = newArray();
+        c.toString();
+        Serializable s = newArray();
+        s.hashCode();
+    }
+
+    static void thrower() throws MyException {
+        throw new SubException();
+    }
+
+    static Exceptions[] newArray() {
+        return new Exceptions[0];
+    }
+}
+
+class MyException extends Exception {
+
+    void handle() {
+    }
+}
+
+class SubException extends MyException {
+
+    void handle() {
+    }
+}